@@ -1,20 +1,29 @@
 package com.orasi;
 
 import static com.orasi.utils.TestReporter.log;
+import static com.orasi.utils.TestReporter.logDebug;
 import static com.orasi.utils.TestReporter.logTrace;
+import static org.apache.commons.lang3.BooleanUtils.toBoolean;
 import static org.apache.commons.lang3.BooleanUtils.toBooleanObject;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
 
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 
+import com.orasi.api.restServices.RestConnectionPool;
+import com.orasi.api.soapServices.SoapConnectionPool;
+import com.orasi.utils.Sleeper;
+import com.orasi.utils.TestEventLog;
 import com.orasi.utils.TestReporter;
 
 public class BaseTest {
@@ -59,12 +68,136 @@ public class BaseTest {
         logTrace("Exiting BaseTest#setup");
     }
 
+    /**
+     * Turns on buffered reporting with the suite parameter <b>asyncReporting</b>. Report and console output is then
+     * written by a background thread, and each test's output is flushed when the test ends. The suite parameter
+     * <b>eventLog</b> writes a JSON Lines {@link TestEventLog} to selenium-reports/events.
+     *
+     * @param asyncReporting
+     *            True to buffer {@link TestReporter} output
+     * @param eventLog
+     *            True to write the structured event log
+     */
+    @BeforeSuite(alwaysRun = true)
+    @Parameters({ "asyncReporting", "eventLog" })
+    public void configureReporting(@Optional String asyncReporting, @Optional String eventLog) {
+        if (isNotEmpty(asyncReporting)) {
+            log("Setting parameter [ asyncReporting ] to [ " + asyncReporting + " ]");
+            TestReporter.setAsyncReporting(toBoolean(asyncReporting));
+        }
+
+        if (toBoolean(eventLog)) {
+            TestEventLog.open();
+            log("Writing test events to [ " + TestEventLog.getFile() + " ]");
+        }
+    }
+
+    /**
+     * Configures the shared {@link RestConnectionPool} used by every RestService from the suite parameters
+     *
+     * @param restMaxConnections
+     *            Maximum number of open connections across all hosts
+     * @param restMaxConnectionsPerRoute
+     *            Maximum number of open connections to a single host and port
+     * @param restIdleTimeout
+     *            Seconds an unused connection is kept open
+     * @param restConnectTimeout
+     *            Seconds to wait to open a connection, or for a free connection in the pool
+     * @param restSocketTimeout
+     *            Seconds to wait for data from the server
+     */
+    @BeforeSuite(alwaysRun = true)
+    @Parameters({ "restMaxConnections", "restMaxConnectionsPerRoute", "restIdleTimeout", "restConnectTimeout", "restSocketTimeout" })
+    public void configureRestConnectionPool(@Optional String restMaxConnections, @Optional String restMaxConnectionsPerRoute,
+            @Optional String restIdleTimeout, @Optional String restConnectTimeout, @Optional String restSocketTimeout) {
+        RestConnectionPool pool = RestConnectionPool.getInstance();
+        if (isNotBlank(restMaxConnections)) {
+            pool.setMaxTotal(Integer.parseInt(restMaxConnections.trim()));
+        }
+        if (isNotBlank(restMaxConnectionsPerRoute)) {
+            pool.setMaxPerRoute(Integer.parseInt(restMaxConnectionsPerRoute.trim()));
+        }
+        if (isNotBlank(restIdleTimeout)) {
+            pool.setIdleTimeout(Integer.parseInt(restIdleTimeout.trim()));
+        }
+        if (isNotBlank(restConnectTimeout)) {
+            pool.setConnectTimeout(Integer.parseInt(restConnectTimeout.trim()));
+        }
+        if (isNotBlank(restSocketTimeout)) {
+            pool.setSocketTimeout(Integer.parseInt(restSocketTimeout.trim()));
+        }
+    }
+
+    /**
+     * Closes the shared REST client and its connections
+     */
+    @AfterSuite(alwaysRun = true)
+    public void shutdownRestConnectionPool() {
+        RestConnectionPool.getInstance().shutdown();
+    }
+
+    /**
+     * Configures the shared {@link SoapConnectionPool} used by every SoapService from the suite parameters
+     *
+     * @param soapMaxConnections
+     *            Maximum number of open connections across all endpoints
+     * @param soapMaxConnectionsPerRoute
+     *            Maximum number of open connections to a single host and port
+     * @param soapIdleTimeout
+     *            Seconds an unused connection is kept open
+     * @param soapConnectTimeout
+     *            Seconds to wait to open a connection, or for a free connection in the pool
+     * @param soapReadTimeout
+     *            Seconds to wait for data from the service
+     */
+    @BeforeSuite(alwaysRun = true)
+    @Parameters({ "soapMaxConnections", "soapMaxConnectionsPerRoute", "soapIdleTimeout", "soapConnectTimeout", "soapReadTimeout" })
+    public void configureSoapConnectionPool(@Optional String soapMaxConnections, @Optional String soapMaxConnectionsPerRoute,
+            @Optional String soapIdleTimeout, @Optional String soapConnectTimeout, @Optional String soapReadTimeout) {
+        SoapConnectionPool pool = SoapConnectionPool.getInstance();
+        if (isNotBlank(soapMaxConnections)) {
+            pool.setMaxTotal(Integer.parseInt(soapMaxConnections.trim()));
+        }
+        if (isNotBlank(soapMaxConnectionsPerRoute)) {
+            pool.setMaxPerRoute(Integer.parseInt(soapMaxConnectionsPerRoute.trim()));
+        }
+        if (isNotBlank(soapIdleTimeout)) {
+            pool.setIdleTimeout(Integer.parseInt(soapIdleTimeout.trim()));
+        }
+        if (isNotBlank(soapConnectTimeout)) {
+            pool.setConnectTimeout(Integer.parseInt(soapConnectTimeout.trim()));
+        }
+        if (isNotBlank(soapReadTimeout)) {
+            pool.setReadTimeout(Integer.parseInt(soapReadTimeout.trim()));
+        }
+    }
+
+    /**
+     * Closes the shared Soap client and its connections
+     */
+    @AfterSuite(alwaysRun = true)
+    public void shutdownSoapConnectionPool() {
+        SoapConnectionPool.getInstance().shutdown();
+    }
+
+    /**
+     * Stops the background report writer and closes the event log once the suite is done
+     */
+    @AfterSuite(alwaysRun = true)
+    public void flushReporting() {
+        if (TestReporter.isAsyncReporting()) {
+            TestReporter.setAsyncReporting(false);
+        }
+        TestEventLog.close();
+    }
+
     @BeforeMethod(alwaysRun = true)
     public void beforeMethod(Method testMethod, Object[] testParams) {
         TestReporter.setDebugLevel(logLevel);
         logTrace("Entering BaseTest#beforeMethod");
         testName = testMethod.getDeclaringClass().getSimpleName() + "#" + testMethod.getName();
         log("Starting test [ " + testName + " ]");
+        Sleeper.resetStatistics();
 
         int id = 1;
         for (Object param : Arrays.asList(testParams)) {
@@ -76,26 +209,46 @@ public class BaseTest {
 
     @AfterMethod(alwaysRun = true)
     public void afterMethod(Method testMethod, ITestResult testResults) {
-        logTrace("Entering BaseTest#afterMethod");
-        testName = testMethod.getDeclaringClass().getSimpleName() + "#" + testMethod.getName();
-        String status = null;
-
-        switch (testResults.getStatus()) {
-            case ITestResult.FAILURE:
-                status = "FAIL";
-                break;
-            case ITestResult.SKIP:
-                status = "SKIP";
-                break;
-            case ITestResult.SUCCESS:
-                status = "PASS";
-                break;
-            default:
-                break;
+        try {
+            logTrace("Entering BaseTest#afterMethod");
+            testName = testMethod.getDeclaringClass().getSimpleName() + "#" + testMethod.getName();
+            String status = null;
+
+            switch (testResults.getStatus()) {
+                case ITestResult.FAILURE:
+                    status = "FAIL";
+                    break;
+                case ITestResult.SKIP:
+                    status = "SKIP";
+                    break;
+                case ITestResult.SUCCESS:
+                    status = "PASS";
+                    break;
+                default:
+                    break;
+            }
+
+            log("Ending test [ " + testName + " ] with status [ " + status + " ]. Execution time [ " + ((testResults.getEndMillis() - testResults.getStartMillis()) / 1000.0) + " ] seconds");
+            logSleepStatistics();
+            logTrace("Exiting BaseTest#afterMethod");
+        } finally {
+            // Write everything the test logged, even if the test or this method failed
+            TestReporter.flush();
+        }
+    }
+
+    /**
+     * Logs the time the test spent in {@link Sleeper} hard waits, with a breakdown by caller at debug level
+     */
+    private void logSleepStatistics() {
+        if (Sleeper.getSleepCount() == 0) {
+            return;
         }
 
-        log("Ending test [ " + testName + " ] with status [ " + status + " ]. Execution time [ " + ((testResults.getEndMillis() - testResults.getStartMillis()) / 1000.0) + " ] seconds");
-        logTrace("Exiting BaseTest#afterMethod");
+        log("Test [ " + testName + " ] spent [ " + (Sleeper.getSleepTime() / 1000.0) + " ] seconds in [ " + Sleeper.getSleepCount() + " ] hard waits");
+        for (Map.Entry<String, Long> caller : Sleeper.getSleepTimeByCaller().entrySet()) {
+            logDebug("Hard wait from [ " + caller.getKey() + " ] for [ " + (caller.getValue() / 1000.0) + " ] seconds");
+        }
     }
 
     protected void setRunLocation(String runLocation) {
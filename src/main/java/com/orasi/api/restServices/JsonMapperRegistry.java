@@ -0,0 +1,129 @@
+package com.orasi.api.restServices;
+
+import static com.orasi.utils.TestReporter.logTrace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Shared Jackson configuration used by {@link RestService}, {@link RestResponse}, Mustard and the JsonDataProvider,
+ * so a mapper is not built for every request and the serializers found for a class are reused. Readers and writers
+ * are cached per class and are thread safe.
+ * <br/>
+ * <br/>
+ * Unknown properties fail the mapping of responses by default, see {@link #setFailOnUnknownProperties(boolean)}.
+ * Custom modules, such as for Java 8 dates, are added with {@link #registerModule(Module)} and apply to every
+ * mapping made after they are registered.
+ */
+public class JsonMapperRegistry {
+    private static final JsonMapperRegistry INSTANCE = new JsonMapperRegistry();
+
+    public static final boolean DEFAULT_FAIL_ON_UNKNOWN_PROPERTIES = true;
+
+    private volatile ObjectMapper mapper = new ObjectMapper();
+    private volatile boolean failOnUnknownProperties = DEFAULT_FAIL_ON_UNKNOWN_PROPERTIES;
+    private final Map<Class<?>, ObjectReader> strictReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> lenientReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> prettyWriters = new ConcurrentHashMap<>();
+
+    private JsonMapperRegistry() {
+    }
+
+    public static JsonMapperRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Shared mapper. It should only be used to read and write, changes to its configuration are not seen by
+     *         the cached readers and writers. Use {@link #registerModule(Module)} instead.
+     */
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * @param type
+     *            Class to map JSON to
+     * @return Reader for the class that follows {@link #isFailOnUnknownProperties()}
+     */
+    public ObjectReader getReader(Class<?> type) {
+        return getReader(type, failOnUnknownProperties);
+    }
+
+    /**
+     * @param type
+     *            Class to map JSON to
+     * @param failOnUnknownProperties
+     *            True to fail when the JSON has properties the class does not
+     * @return Reader for the class
+     */
+    public ObjectReader getReader(Class<?> type, boolean failOnUnknownProperties) {
+        Map<Class<?>, ObjectReader> readers = failOnUnknownProperties ? strictReaders : lenientReaders;
+        return readers.computeIfAbsent(type, key -> {
+            logTrace(() -> "Creating JSON reader for [ " + key.getName() + " ]");
+            ObjectReader reader = mapper.readerFor(key);
+            return failOnUnknownProperties ? reader.with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    : reader.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        });
+    }
+
+    /**
+     * @param type
+     *            Class to write as JSON
+     * @return Writer for the class that indents its output
+     */
+    public ObjectWriter getPrettyWriter(Class<?> type) {
+        return prettyWriters.computeIfAbsent(type, key -> {
+            logTrace(() -> "Creating JSON writer for [ " + key.getName() + " ]");
+            return mapper.writerFor(key).withDefaultPrettyPrinter();
+        });
+    }
+
+    /**
+     * Add a Jackson module to the shared mapper. Readers and writers made before are dropped so they are built again
+     * with the module, so modules should be registered before requests are sent.
+     *
+     * @param module
+     *            Module to register
+     */
+    public synchronized void registerModule(Module module) {
+        logTrace(() -> "Registering JSON module [ " + module.getModuleName() + " ]");
+        ObjectMapper updated = mapper.copy();
+        updated.registerModule(module);
+        mapper = updated;
+        clearCache();
+    }
+
+    /**
+     * @param failOnUnknownProperties
+     *            True (default) to fail mapping a response to a class when the JSON has properties the class does not
+     */
+    public void setFailOnUnknownProperties(boolean failOnUnknownProperties) {
+        this.failOnUnknownProperties = failOnUnknownProperties;
+    }
+
+    public boolean isFailOnUnknownProperties() {
+        return failOnUnknownProperties;
+    }
+
+    /**
+     * Go back to a plain mapper without custom modules, with the default settings
+     */
+    public synchronized void reset() {
+        mapper = new ObjectMapper();
+        failOnUnknownProperties = DEFAULT_FAIL_ON_UNKNOWN_PROPERTIES;
+        clearCache();
+    }
+
+    private void clearCache() {
+        strictReaders.clear();
+        lenientReaders.clear();
+        prettyWriters.clear();
+    }
+}
@@ -0,0 +1,294 @@
+package com.orasi.api.restServices;
+
+import static com.orasi.utils.TestReporter.logTrace;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.orasi.api.restServices.exceptions.RestException;
+
+/**
+ * Compiled path to a single value in a JSON document. Paths are compiled once and cached, so the same path used in
+ * many tests or scenario rows is only parsed the first time. Two forms are supported:
+ * <br/>
+ * <br/>
+ * <b>JSON Pointer</b> (RFC 6901) -- <code>/posts/0/title</code>. An empty pointer is the whole document.
+ * <br/>
+ * <b>JSONPath</b> without wildcards or filters -- <code>$.posts[0].title</code> or <code>$['posts'][0]['title']</code>
+ * <br/>
+ * <br/>
+ * Any number of paths can be found in one pass over a JSON body with {@link #evaluate(JsonParser, Collection)}. Only
+ * the branches of the document that lead to a path are read into memory, everything else is skipped as it is parsed.
+ */
+public final class JsonPathQuery {
+    /**
+     * Most compiled paths kept in the cache. Paths built on the fly past this are compiled each time they are used.
+     */
+    static final int MAX_CACHED_PATHS = 1024;
+    private static final Map<String, JsonPathQuery> CACHE = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final List<Segment> segments;
+
+    private JsonPathQuery(String path, List<Segment> segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    /**
+     * @param path
+     *            JSON Pointer or JSONPath to compile
+     * @return Compiled path, from the cache if it was compiled before
+     * @throws RestException
+     *             If the path is not valid or uses JSONPath features that are not supported
+     */
+    public static JsonPathQuery compile(String path) {
+        if (path == null) {
+            throw new RestException("JSON path cannot be null");
+        }
+        JsonPathQuery query = CACHE.get(path);
+        if (query == null) {
+            logTrace(() -> "Compiling JSON path [ " + path + " ]");
+            query = new JsonPathQuery(path, Collections.unmodifiableList(parse(path)));
+            if (CACHE.size() < MAX_CACHED_PATHS) {
+                CACHE.putIfAbsent(path, query);
+            }
+        }
+        return query;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @param root
+     *            Document to search
+     * @return Node found at the path, or null if there is none
+     */
+    public JsonNode evaluate(JsonNode root) {
+        return evaluate(root, 0);
+    }
+
+    private JsonNode evaluate(JsonNode node, int fromSegment) {
+        JsonNode current = node;
+        for (int segment = fromSegment; segment < segments.size() && current != null; segment++) {
+            current = segments.get(segment).select(current);
+        }
+        return current;
+    }
+
+    /**
+     * Find several paths in one pass over a JSON document. Branches no path leads into are skipped without being
+     * built into nodes.
+     *
+     * @param parser
+     *            Parser positioned before the first token of the document
+     * @param queries
+     *            Paths to find
+     * @return Node found for each path. Paths that were not found are not in the map.
+     * @throws IOException
+     *             If the document can not be read or is not valid JSON
+     */
+    public static Map<JsonPathQuery, JsonNode> evaluate(JsonParser parser, Collection<JsonPathQuery> queries) throws IOException {
+        Trie root = new Trie(0);
+        for (JsonPathQuery query : queries) {
+            root.add(query, 0);
+        }
+
+        Map<JsonPathQuery, JsonNode> found = new HashMap<>();
+        if (parser.nextToken() != null) {
+            scan(parser, root, found);
+        }
+        return found;
+    }
+
+    /**
+     * Reads the value the parser is on. If a path ends here the value is read as a node and every path below it is
+     * found in that node, otherwise only the children a path leads into are read.
+     */
+    private static void scan(JsonParser parser, Trie node, Map<JsonPathQuery, JsonNode> found) throws IOException {
+        if (!node.queries.isEmpty()) {
+            JsonNode value = parser.readValueAsTree();
+            if (value == null) {
+                return;
+            }
+            List<JsonPathQuery> below = new ArrayList<>();
+            node.collect(below);
+            for (JsonPathQuery query : below) {
+                JsonNode result = query.evaluate(value, node.depth);
+                if (result != null) {
+                    found.put(query, result);
+                }
+            }
+            return;
+        }
+
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Trie child = node.byName.get(parser.getCurrentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    scan(parser, child, found);
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                Trie child = node.byIndex.get(index++);
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    scan(parser, child, found);
+                }
+            }
+        }
+    }
+
+    private static List<Segment> parse(String path) {
+        if (path.isEmpty() || path.startsWith("/")) {
+            return parsePointer(path);
+        }
+        if (path.startsWith("$")) {
+            return parseJsonPath(path);
+        }
+        throw new RestException("JSON path [ " + path + " ] must be a JSON Pointer starting with [ / ] or a JSONPath starting with [ $ ]");
+    }
+
+    private static List<Segment> parsePointer(String pointer) {
+        List<Segment> segments = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return segments;
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            String name = token.replace("~1", "/").replace("~0", "~");
+            segments.add(new Segment(name, toIndex(name)));
+        }
+        return segments;
+    }
+
+    private static List<Segment> parseJsonPath(String jsonPath) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 1;
+        while (position < jsonPath.length()) {
+            char next = jsonPath.charAt(position);
+            if (next == '.') {
+                int end = position + 1;
+                while (end < jsonPath.length() && jsonPath.charAt(end) != '.' && jsonPath.charAt(end) != '[') {
+                    end++;
+                }
+                String name = jsonPath.substring(position + 1, end);
+                if (name.isEmpty() || "*".equals(name)) {
+                    throw new RestException("Unsupported JSONPath [ " + jsonPath + " ]. Wildcards and deep scans are not supported");
+                }
+                segments.add(new Segment(name, -1));
+                position = end;
+            } else if (next == '[') {
+                int end = jsonPath.indexOf(']', position);
+                if (end < 0) {
+                    throw new RestException("Invalid JSONPath [ " + jsonPath + " ]. Missing [ ] ]");
+                }
+                String selector = jsonPath.substring(position + 1, end).trim();
+                if (selector.length() >= 2 && (selector.charAt(0) == '\'' || selector.charAt(0) == '"')
+                        && selector.charAt(selector.length() - 1) == selector.charAt(0)) {
+                    segments.add(new Segment(selector.substring(1, selector.length() - 1), -1));
+                } else if (toIndex(selector) >= 0) {
+                    segments.add(new Segment(null, toIndex(selector)));
+                } else {
+                    throw new RestException("Unsupported JSONPath [ " + jsonPath + " ]. Only names and array indexes are supported, found [ " + selector + " ]");
+                }
+                position = end + 1;
+            } else {
+                throw new RestException("Invalid JSONPath [ " + jsonPath + " ] at position [ " + position + " ]");
+            }
+        }
+        return segments;
+    }
+
+    private static int toIndex(String token) {
+        if (token.isEmpty() || token.length() > 9) {
+            return -1;
+        }
+        for (int character = 0; character < token.length(); character++) {
+            if (!Character.isDigit(token.charAt(character))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(token);
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /**
+     * One step of a path. A JSON Pointer step made of digits can be a field name or an array index depending on the
+     * document, so it keeps both.
+     */
+    private static final class Segment {
+        private final String name;
+        private final int index;
+
+        private Segment(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        private JsonNode select(JsonNode node) {
+            if (node.isObject() && name != null) {
+                return node.get(name);
+            }
+            if (node.isArray() && index >= 0) {
+                return node.get(index);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Paths being searched for, merged by their common steps
+     */
+    private static final class Trie {
+        private final int depth;
+        private final Map<String, Trie> byName = new HashMap<>();
+        private final Map<Integer, Trie> byIndex = new HashMap<>();
+        private final List<JsonPathQuery> queries = new ArrayList<>();
+
+        private Trie(int depth) {
+            this.depth = depth;
+        }
+
+        private void add(JsonPathQuery query, int segment) {
+            if (segment == query.segments.size()) {
+                queries.add(query);
+                return;
+            }
+            Segment step = query.segments.get(segment);
+            if (step.name != null) {
+                byName.computeIfAbsent(step.name, key -> new Trie(depth + 1)).add(query, segment + 1);
+            }
+            if (step.index >= 0) {
+                byIndex.computeIfAbsent(step.index, key -> new Trie(depth + 1)).add(query, segment + 1);
+            }
+        }
+
+        private void collect(List<JsonPathQuery> below) {
+            below.addAll(queries);
+            byName.values().forEach(child -> child.collect(below));
+            byIndex.values().forEach(child -> child.collect(below));
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.orasi.api.restServices;
+
+import static com.orasi.utils.TestReporter.logTrace;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import com.orasi.api.restServices.exceptions.RestException;
+import com.orasi.utils.Sleeper;
+import com.orasi.utils.TestReporter;
+
+/**
+ * Shared HTTP client used by every {@link RestService}, so connections (and their TCP and TLS setup) are kept alive
+ * and reused between requests instead of a new client being built for each one. The client is thread safe and is
+ * shared by all TestNG threads. Its default cookie store is shared too, so RestService sends each request with its
+ * own cookie store, as it had when each request built its own client.
+ * <br/>
+ * <br/>
+ * Connections are limited per route (scheme, host and port) and in total. Connections left idle longer than the idle
+ * timeout are closed by a background thread. The client is created on first use. Changing the limits or timeouts
+ * makes the next request build a new client with the new settings. Requests already using the old client, on any
+ * thread, are left to finish, and the old client is closed in the background once none of its connections are in
+ * use.
+ * <br/>
+ * <br/>
+ * The pool is configured from the suite parameters <b>restMaxConnections</b>, <b>restMaxConnectionsPerRoute</b>,
+ * <b>restIdleTimeout</b>, <b>restConnectTimeout</b> and <b>restSocketTimeout</b> and shut down at the end of the
+ * suite, see {@link com.orasi.BaseTest#configureRestConnectionPool}
+ */
+public class RestConnectionPool {
+    private static final RestConnectionPool INSTANCE = new RestConnectionPool();
+
+    public static final int DEFAULT_MAX_TOTAL = 100;
+    public static final int DEFAULT_MAX_PER_ROUTE = 20;
+    public static final int DEFAULT_IDLE_TIMEOUT = 30;
+    public static final int DEFAULT_CONNECT_TIMEOUT = 30;
+    public static final int DEFAULT_SOCKET_TIMEOUT = 120;
+
+    /**
+     * Time a retired client is kept open before checking whether its connections are still in use
+     */
+    public static final long RETIRE_GRACE_MILLISECONDS = 1000;
+    private static final long RETIRE_POLL_MILLISECONDS = 100;
+
+    private int maxTotal = DEFAULT_MAX_TOTAL;
+    private int maxPerRoute = DEFAULT_MAX_PER_ROUTE;
+    private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int socketTimeout = DEFAULT_SOCKET_TIMEOUT;
+
+    private volatile CloseableHttpClient client;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private ExecutorService executor;
+
+    private RestConnectionPool() {
+    }
+
+    public static RestConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Shared client, created with the current settings if it does not exist yet
+     */
+    public CloseableHttpClient getClient() {
+        CloseableHttpClient current = client;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (client == null) {
+                logTrace("Creating shared HTTP client with [ " + maxTotal + " ] connections, [ " + maxPerRoute + " ] per route");
+                connectionManager = new PoolingHttpClientConnectionManager();
+                connectionManager.setMaxTotal(maxTotal);
+                connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+                RequestConfig requestConfig = RequestConfig.custom()
+                        .setConnectTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeout))
+                        .setConnectionRequestTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeout))
+                        .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(socketTimeout))
+                        .build();
+
+                client = HttpClientBuilder.create()
+                        .setConnectionManager(connectionManager)
+                        .setDefaultRequestConfig(requestConfig)
+                        .setRedirectStrategy(new LaxRedirectStrategy())
+                        .evictExpiredConnections()
+                        .evictIdleConnections(idleTimeout, TimeUnit.SECONDS)
+                        .build();
+            }
+            return client;
+        }
+    }
+
+    /**
+     * @return Threads used to send asynchronous requests, one per connection allowed to a route so requests to the
+     *         same host do not wait on each other for a connection
+     */
+    public synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(maxPerRoute, runnable -> {
+                Thread thread = new Thread(runnable, "RestService-async-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Close the shared client and all of its connections. Asynchronous requests already started are finished first.
+     * A new client is created the next time one is needed.
+     */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(socketTimeout, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+
+        if (client == null) {
+            return;
+        }
+
+        TestReporter.logDebug("Closing shared HTTP client. " + getStatistics());
+        try {
+            client.close();
+        } catch (IOException e) {
+            throw new RestException("Failed to close shared HTTP client", e);
+        } finally {
+            client = null;
+            connectionManager = null;
+        }
+    }
+
+    /**
+     * Stops handing out the current client, so the next request builds one with the current settings. The old client
+     * is closed by a background thread once none of its connections are leased or waited for. It waits
+     * {@link #RETIRE_GRACE_MILLISECONDS} first, for requests that got the client just before it was retired.
+     */
+    private void retireClient() {
+        CloseableHttpClient retired = client;
+        PoolingHttpClientConnectionManager retiredManager = connectionManager;
+        client = null;
+        connectionManager = null;
+        if (retired == null) {
+            return;
+        }
+
+        logTrace("Retiring shared HTTP client, it is closed once its requests finish");
+        Thread closer = new Thread(() -> {
+            try {
+                Sleeper.poll(RETIRE_GRACE_MILLISECONDS);
+                while (true) {
+                    PoolStats stats = retiredManager.getTotalStats();
+                    if (stats.getLeased() == 0 && stats.getPending() == 0) {
+                        break;
+                    }
+                    Sleeper.poll(RETIRE_POLL_MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            try {
+                retired.close();
+            } catch (IOException e) {
+                TestReporter.logDebug("Failed to close retired HTTP client: " + e.getMessage());
+            }
+        }, "RestConnectionPool-retire");
+        closer.setDaemon(true);
+        closer.start();
+    }
+
+    /**
+     * @param maxTotal
+     *            Most connections open at the same time across all routes
+     */
+    public synchronized void setMaxTotal(int maxTotal) {
+        if (maxTotal < 1) {
+            throw new RestException("Max connections must be at least 1: [ " + maxTotal + " ]");
+        }
+        this.maxTotal = maxTotal;
+        retireClient();
+    }
+
+    public synchronized int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * @param maxPerRoute
+     *            Most connections open at the same time to one scheme, host and port
+     */
+    public synchronized void setMaxPerRoute(int maxPerRoute) {
+        if (maxPerRoute < 1) {
+            throw new RestException("Max connections per route must be at least 1: [ " + maxPerRoute + " ]");
+        }
+        this.maxPerRoute = maxPerRoute;
+        if (executor != null) {
+            // Threads already sending requests finish them, new requests use threads for the new limit
+            executor.shutdown();
+            executor = null;
+        }
+        retireClient();
+    }
+
+    public synchronized int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    /**
+     * @param idleTimeout
+     *            Seconds a connection can stay unused before it is closed
+     */
+    public synchronized void setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        retireClient();
+    }
+
+    public synchronized int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * @param connectTimeout
+     *            Seconds to wait for a connection to be opened, or to be free in the pool. 0 waits forever.
+     */
+    public synchronized void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        retireClient();
+    }
+
+    public synchronized int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @param socketTimeout
+     *            Seconds to wait for data from the server. 0 waits forever.
+     */
+    public synchronized void setSocketTimeout(int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+        retireClient();
+    }
+
+    public synchronized int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * @return Connections leased, idle and waited for across all routes, or empty stats if no client is open
+     */
+    public synchronized PoolStats getTotalStats() {
+        if (connectionManager == null) {
+            return new PoolStats(0, 0, 0, maxTotal);
+        }
+        return connectionManager.getTotalStats();
+    }
+
+    public String getStatistics() {
+        PoolStats stats = getTotalStats();
+        return "RestConnectionPool [leased=" + stats.getLeased() + ", idle=" + stats.getAvailable() + ", pending=" + stats.getPending() + ", max="
+                + stats.getMax() + "]";
+    }
+}
@@ -4,7 +4,16 @@ import static com.orasi.api.restServices.ResponseCodes.NO_CONTENT;
 import static com.orasi.utils.TestReporter.logInfo;
 import static com.orasi.utils.TestReporter.logTrace;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
@@ -21,12 +30,21 @@ import org.json.JSONObject;
 import org.json.XML;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.orasi.api.restServices.exceptions.RestException;
-
+import com.orasi.utils.Regex;
+import com.orasi.utils.TestEventLog;
+import com.orasi.utils.TestReporter;
+
+/**
+ * Response of a {@link RestService} request. By default the whole body is read into a String. When the
+ * {@link RestService} is set to stream responses, JSON bodies are parsed straight from the connection into a tree
+ * that {@link #mapJSONToTree()} and {@link #mapJSONToObject(Class)} use without parsing the text again, and only
+ * the first part of the body is kept for logging and reports, see {@link RestService#setStreamResponses(boolean)}
+ */
 public class RestResponse {
-    private ObjectMapper mapper = new ObjectMapper(); // .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
     private HttpUriRequest originalRequest = null;
     private String originalRequestBody = "";
     private String method = null;
@@ -36,6 +54,10 @@ public class RestResponse {
     private String responseAsString = "";
     private String url = "";
     private String executionTime = "";
+    private boolean streamed = false;
+    private int maxRetainedLength = -1;
+    private JsonNode responseTree = null;
+    private RestException streamFailure = null;
 
     public RestResponse(HttpUriRequest request, HttpResponse httpResponse, String executionTime) {
         logTrace("Entering RestResponse#init");
@@ -63,6 +85,7 @@ public class RestResponse {
         logTrace("Successfully stored Request Method [ " + method + " ]");
 
         response = httpResponse;
+        this.executionTime = executionTime;
 
         statusCode = response.getStatusLine().getStatusCode();
         logTrace("Successfully stored Response Status Code [ " + statusCode + " ]");
@@ -82,6 +105,98 @@ public class RestResponse {
         logTrace("Exiting RestResponse#init");
     }
 
+    /**
+     * Reads the response in streaming mode. A JSON body is parsed directly from the response stream into a tree, and
+     * the raw body is only kept when INFO logging needs it, up to maxRetainedLength bytes. Other formats are read
+     * into a String as usual. The request body is kept up to the same length.
+     *
+     * @param request
+     *            Request that was sent
+     * @param httpResponse
+     *            Response to read, with its entity not yet consumed
+     * @param executionTime
+     *            Time the request took
+     * @param maxRetainedLength
+     *            Most bytes of the request and response bodies kept for {@link #getRequestBody()},
+     *            {@link #getResponse()} and reports
+     */
+    public RestResponse(HttpUriRequest request, HttpResponse httpResponse, String executionTime, int maxRetainedLength) {
+        logTrace("Entering RestResponse#init");
+        streamed = true;
+        this.maxRetainedLength = Math.max(0, maxRetainedLength);
+        originalRequest = request;
+        url = request.getURI().toString();
+        method = request.getMethod();
+        response = httpResponse;
+        this.executionTime = executionTime;
+        statusCode = response.getStatusLine().getStatusCode();
+
+        if (request instanceof HttpEntityEnclosingRequestBase) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            // Entities that can not be repeated were used up sending the request
+            if (entity != null && entity.isRepeatable()) {
+                try (InputStream content = entity.getContent()) {
+                    RetainingInputStream body = new RetainingInputStream(content, this.maxRetainedLength);
+                    body.skipToEnd(Long.MAX_VALUE);
+                    originalRequestBody = body.getRetained(getCharset(entity));
+                } catch (IOException throwAway) {
+                    logTrace("Failed to retrieve original request body");
+                }
+            }
+        }
+
+        HttpEntity entity = response.getEntity();
+        responseFormat = ContentType.getOrDefault(entity).getMimeType().replace("application/", "");
+        logTrace(() -> "Streaming response [ " + statusCode + " ] of format [ " + responseFormat + " ] from [ " + method + " " + url + " ]");
+
+        try {
+            if (entity != null && responseFormat.contains("json")) {
+                readJsonStream(entity);
+            } else if (entity != null) {
+                responseAsString = EntityUtils.toString(entity);
+            }
+        } catch (ParseException | IOException e) {
+            throw new RestException(e.getMessage(), e);
+        }
+
+        if (TestReporter.isInfoEnabled()) {
+            logInfo("Response Status returned [" + httpResponse.getStatusLine() + "]");
+            logInfo("Response returned: " + getResponse());
+        }
+        logTrace("Exiting RestResponse#init");
+    }
+
+    /**
+     * Parses the body into {@link #responseTree} as it is read, copying the start of it as it goes. The copy is kept
+     * when INFO logging will show it, or when the body is not valid JSON, such as an HTML error page, so
+     * {@link #getResponse()} can still report it. The parse failure is kept and thrown when the tree or an object is
+     * asked for.
+     */
+    private void readJsonStream(HttpEntity entity) throws IOException {
+        try (InputStream content = entity.getContent()) {
+            RetainingInputStream body = new RetainingInputStream(content, maxRetainedLength);
+            try (JsonParser parser = JsonMapperRegistry.getInstance().getMapper().getFactory().createParser(body)) {
+                // Only the connection is closed by the try blocks, the parser must not close it first
+                parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+                responseTree = parser.readValueAsTree();
+            } catch (JsonProcessingException e) {
+                streamFailure = new RestException("Failed to parse JSON", e);
+            }
+            // Read anything left so the connection can be reused
+            body.skipToEnd(Long.MAX_VALUE);
+            if (body.getRetainedLength() > 0 && (streamFailure != null || TestReporter.isInfoEnabled())) {
+                responseAsString = body.getRetained(getCharset(entity));
+            } else {
+                responseAsString = null;
+            }
+        }
+    }
+
+    private static Charset getCharset(HttpEntity entity) {
+        Charset charset = ContentType.getOrDefault(entity).getCharset();
+        return charset == null ? StandardCharsets.UTF_8 : charset;
+    }
+
     public int getStatusCode() {
         return statusCode;
     }
@@ -90,10 +205,31 @@ public class RestResponse {
         return responseFormat;
     }
 
+    /**
+     * @return Body of the response. For a streamed response this is at most the retained length, built from the parsed
+     *         tree if the raw body was not kept.
+     */
     public String getResponse() {
+        if (responseAsString == null) {
+            responseAsString = responseTree == null ? "" : truncate(responseTree.toString());
+        }
         return responseAsString;
     }
 
+    /**
+     * @return True if the response was read in streaming mode
+     */
+    public boolean isStreamed() {
+        return streamed;
+    }
+
+    private String truncate(String body) {
+        if (maxRetainedLength < 0 || body.length() <= maxRetainedLength) {
+            return body;
+        }
+        return body.substring(0, maxRetainedLength) + "... [ truncated " + (body.length() - maxRetainedLength) + " characters ]";
+    }
+
     public String getMethod() {
         return method;
     }
@@ -135,6 +271,13 @@ public class RestResponse {
      * @throws IOException
      */
     public <T> T mapJSONToObject(Class<T> clazz) {
+        if (streamed && responseFormat.contains("json")) {
+            try {
+                return JsonMapperRegistry.getInstance().getReader(clazz).readValue(mapJSONToTree());
+            } catch (IOException e) {
+                throw new RestException("Failed to Map JSON", e);
+            }
+        }
         return mapJSONToObject(responseAsString, clazz);
 
     }
@@ -149,7 +292,7 @@ public class RestResponse {
     public <T> T mapJSONToObject(String stringResponse, Class<T> clazz) {
         T map = null;
         try {
-            map = mapper.readValue(stringResponse, clazz);
+            map = JsonMapperRegistry.getInstance().getReader(clazz).readValue(stringResponse);
         } catch (JsonParseException e) {
             throw new RestException("Failed to parse JSON", e);
         } catch (IOException e) {
@@ -168,7 +311,7 @@ public class RestResponse {
     public JsonNode mapJSONToTree(String stringResponse) {
 
         try {
-            return mapper.readTree(stringResponse);
+            return JsonMapperRegistry.getInstance().getMapper().readTree(stringResponse);
         } catch (IOException e) {
             throw new RestException("Failed to read response:" + stringResponse, e);
         }
@@ -182,17 +325,117 @@ public class RestResponse {
      * @throws IOException
      */
     public JsonNode mapJSONToTree() {
+        if (streamed && responseFormat.contains("json")) {
+            if (streamFailure != null) {
+                throw streamFailure;
+            }
+            return responseTree;
+        }
         return mapJSONToTree(responseAsString);
     }
 
+    /**
+     * Find the value at a path in the JSON response without mapping the whole response
+     *
+     * @param path
+     *            JSON Pointer or JSONPath, see {@link JsonPathQuery}
+     * @return Text of the value, the JSON of an object or array, or null if nothing is at the path
+     */
+    public String getValueByPath(String path) {
+        return getValuesByPath(path).get(path);
+    }
+
+    /**
+     * Find the values at several paths in the JSON response in a single pass over the body. Only the parts of the
+     * body the paths lead into are read into memory.
+     *
+     * @param paths
+     *            JSON Pointers or JSONPaths, see {@link JsonPathQuery}
+     * @return Value of each path in the order given, with null for paths where nothing was found
+     */
+    public Map<String, String> getValuesByPath(String... paths) {
+        List<JsonPathQuery> queries = new ArrayList<>(paths.length);
+        for (String path : paths) {
+            queries.add(JsonPathQuery.compile(path));
+        }
+
+        Map<JsonPathQuery, JsonNode> found = new LinkedHashMap<>();
+        if (streamed && responseFormat.contains("json")) {
+            // The body of a streamed response may have been cut short, so search the parsed tree
+            JsonNode tree = mapJSONToTree();
+            for (JsonPathQuery query : queries) {
+                found.put(query, tree == null ? null : query.evaluate(tree));
+            }
+        } else {
+            try (JsonParser parser = JsonMapperRegistry.getInstance().getMapper().getFactory().createParser(responseAsString)) {
+                found = JsonPathQuery.evaluate(parser, queries);
+            } catch (IOException e) {
+                throw new RestException("Failed to read response:" + responseAsString, e);
+            }
+        }
+
+        Map<String, String> values = new LinkedHashMap<>();
+        for (JsonPathQuery query : queries) {
+            JsonNode value = found.get(query);
+            values.put(query.getPath(), value == null ? null : value.isValueNode() ? value.asText() : value.toString());
+        }
+        return values;
+    }
+
+    /**
+     * Validate JSON response values and report the findings in a table, the same as
+     * {@link com.orasi.api.soapServices.SoapService#validateNodeValueByXPath(org.w3c.dom.Document, Object[][])} does
+     * for SOAP responses. All the paths are found in a single pass over the response.
+     *
+     * @param scenarios
+     *            Rows of a JSON Pointer or JSONPath and a regular expression the value is expected to match, such as
+     *            the rows of a scenario file read with a data provider
+     * @return True if every value was found and matched
+     */
+    public boolean validateValueByPath(Object[][] scenarios) {
+        String[] paths = new String[scenarios.length];
+        for (int row = 0; row < scenarios.length; row++) {
+            paths[row] = scenarios[row][0].toString();
+        }
+        Map<String, String> values = getValuesByPath(paths);
+
+        boolean status = true;
+        StringBuilder table = new StringBuilder();
+        table.append("<table border='1' width='100%'>");
+        table.append("<tr><td style='width: 100px; color: black; text-align: center;'><b>Path</b></td>");
+        table.append("<td style='width: 100px; color: black; text-align: center;'><b>Regex</b></td>");
+        table.append("<td style='width: 100px; color: black; text-align: center;'><b>Value</b></td>");
+        table.append("<td style='width: 100px; color: black; text-align: center;'><b>Status</b></td></tr>");
+        for (int row = 0; row < scenarios.length; row++) {
+            String path = paths[row];
+            String regexValue = scenarios[row][1].toString();
+            String value = values.get(path);
+            boolean passed = value != null && Regex.match(regexValue, value);
+            status &= passed;
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Value [ " + value + " ] matches [ " + regexValue + " ]", path, -1, passed);
+
+            table.append("<tr><td style='width: 100px; color: black; text-align: left;'>" + path + "</td>");
+            table.append("<td style='width: 100px; color: black; text-align: center;'>" + regexValue + "</td>");
+            table.append("<td style='width: 100px; color: black; text-align: center;'>"
+                    + (value == null ? "No value was found with the path [ " + path + " ] " : value) + "</td>");
+            table.append("<td style='width: 100px; color: " + (passed ? "green" : "red") + "; text-align: center;'><b>" + (passed ? "Pass" : "Fail")
+                    + "</b></td></tr>");
+        }
+        table.append("</table>");
+        TestReporter.logHtml(table.toString() + "<br/>");
+        return status;
+    }
+
     public String getResponseAsXML() {
         Object json = null;
+        // A streamed body may have been cut short, so use the complete parsed tree
+        String body = streamed && responseTree != null ? responseTree.toString() : responseAsString;
 
         try {
-            json = new JSONObject(responseAsString);
+            json = new JSONObject(body);
         } catch (JSONException e) {
             try {
-                json = new JSONArray(responseAsString);
+                json = new JSONArray(body);
             } catch (JSONException e1) {
                 throw new RestException("Response is not in JSON format");
             }
@@ -206,4 +449,66 @@ public class RestResponse {
         return xml;
     }
 
+    /**
+     * Copies up to a set number of the bytes read through it, so the start of a body can be kept for reports while the
+     * rest is only parsed
+     */
+    private static class RetainingInputStream extends FilterInputStream {
+        private final ByteArrayOutputStream retained;
+        private final int maxRetained;
+        private long total = 0;
+
+        private RetainingInputStream(InputStream in, int maxRetained) {
+            super(in);
+            this.maxRetained = maxRetained;
+            this.retained = new ByteArrayOutputStream(Math.min(maxRetained, 8192));
+        }
+
+        @Override
+        public int read() throws IOException {
+            int next = super.read();
+            if (next >= 0) {
+                total++;
+                if (retained.size() < maxRetained) {
+                    retained.write(next);
+                }
+            }
+            return next;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                total += count;
+                int room = maxRetained - retained.size();
+                if (room > 0) {
+                    retained.write(buffer, offset, Math.min(room, count));
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Read and discard the stream until its end or until limit bytes have been read in total
+         */
+        private void skipToEnd(long limit) throws IOException {
+            byte[] buffer = new byte[4096];
+            while (total < limit && read(buffer, 0, buffer.length) >= 0) {
+                // Bytes are counted and copied by read
+            }
+        }
+
+        private int getRetainedLength() {
+            return retained.size();
+        }
+
+        private String getRetained(Charset charset) {
+            String text = new String(retained.toByteArray(), charset);
+            if (total > retained.size()) {
+                text += "... [ truncated " + (total - retained.size()) + " bytes ]";
+            }
+            return text;
+        }
+    }
 }
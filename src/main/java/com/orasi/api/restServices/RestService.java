@@ -10,12 +10,17 @@ import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.time.StopWatch;
 import org.apache.http.Header;
-import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpOptions;
@@ -23,25 +28,30 @@ import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.utils.URLEncodedUtils;
 import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.LaxRedirectStrategy;
 import org.apache.http.message.BasicHeader;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.orasi.api.restServices.Headers.HeaderType;
 import com.orasi.api.restServices.exceptions.RestException;
+import com.orasi.utils.TestReporter;
 import com.orasi.utils.exception.DataProviderInputFileNotFound;
 import com.orasi.utils.io.FileLoader;
 
 public class RestService {
+    public static final int DEFAULT_MAX_RETAINED_BODY_LENGTH = 64 * 1024;
+
     private List<BasicHeader> customHeaders = null;
+    private boolean streamResponses = false;
+    private int maxRetainedBodyLength = DEFAULT_MAX_RETAINED_BODY_LENGTH;
 
     public void addCustomHeaders(String header, String value) {
         if (customHeaders == null) {
@@ -53,6 +63,37 @@ public class RestService {
         customHeaders.add(new BasicHeader(header, value));
     }
 
+    /**
+     * Read JSON responses in streaming mode, parsing them directly from the connection instead of reading the whole
+     * body into a String first. Only the start of each body is kept for {@link RestResponse#getResponse()} and
+     * reports, see {@link #setMaxRetainedBodyLength(int)}. Use this for large payloads.
+     *
+     * @param streamResponses
+     *            True to stream responses, false (default) to read them into a String
+     */
+    public void setStreamResponses(boolean streamResponses) {
+        this.streamResponses = streamResponses;
+    }
+
+    public boolean isStreamResponses() {
+        return streamResponses;
+    }
+
+    /**
+     * @param maxRetainedBodyLength
+     *            Most bytes of each request and response body kept for reports when responses are streamed
+     */
+    public void setMaxRetainedBodyLength(int maxRetainedBodyLength) {
+        if (maxRetainedBodyLength < 0) {
+            throw new RestException("Max retained body length cannot be negative: [ " + maxRetainedBodyLength + " ]");
+        }
+        this.maxRetainedBodyLength = maxRetainedBodyLength;
+    }
+
+    public int getMaxRetainedBodyLength() {
+        return maxRetainedBodyLength;
+    }
+
     /**
      * Sends a GET request to a URL
      *
@@ -322,10 +363,155 @@ public class RestService {
         return sendRequest(httpOptions).getHeaders();
     }
 
+    /**
+     * Sends a GET request without waiting for the response. The request runs on the shared
+     * {@link RestConnectionPool} threads and its execution time is measured the same as a blocking request.
+     *
+     * @param url
+     *            for the service you are testing
+     * @return Future completed with the response, or completed exceptionally with a {@link RestException}
+     */
+    public CompletableFuture<RestResponse> sendGetRequestAsync(String url) {
+        return sendAsync(() -> sendGetRequest(url));
+    }
+
+    public CompletableFuture<RestResponse> sendGetRequestAsync(String url, HeaderType type) {
+        return sendAsync(() -> sendGetRequest(url, type));
+    }
+
+    public CompletableFuture<RestResponse> sendGetRequestAsync(String url, HeaderType type, List<NameValuePair> params) {
+        return sendAsync(() -> sendGetRequest(url, type, params));
+    }
+
+    /**
+     * Sends a POST request without waiting for the response
+     *
+     * @see #sendGetRequestAsync(String)
+     */
+    public CompletableFuture<RestResponse> sendPostRequestAsync(String url, HeaderType type, List<NameValuePair> params, String json) {
+        return sendAsync(() -> sendPostRequest(url, type, params, json));
+    }
+
+    public CompletableFuture<RestResponse> sendPostRequestAsync(String url, HeaderType type, String body) {
+        return sendAsync(() -> sendPostRequest(url, type, body));
+    }
+
+    /**
+     * Sends a PUT request without waiting for the response
+     *
+     * @see #sendGetRequestAsync(String)
+     */
+    public CompletableFuture<RestResponse> sendPutRequestAsync(String url, HeaderType type, List<NameValuePair> params, String json) {
+        return sendAsync(() -> sendPutRequest(url, type, params, json));
+    }
+
+    public CompletableFuture<RestResponse> sendPutRequestAsync(String url, HeaderType type, String json) {
+        return sendAsync(() -> sendPutRequest(url, type, json));
+    }
+
+    /**
+     * Sends a PATCH request without waiting for the response
+     *
+     * @see #sendGetRequestAsync(String)
+     */
+    public CompletableFuture<RestResponse> sendPatchRequestAsync(String url, HeaderType type, List<NameValuePair> params, String json) {
+        return sendAsync(() -> sendPatchRequest(url, type, params, json));
+    }
+
+    public CompletableFuture<RestResponse> sendPatchRequestAsync(String url, HeaderType type, String json) {
+        return sendAsync(() -> sendPatchRequest(url, type, json));
+    }
+
+    /**
+     * Sends a DELETE request without waiting for the response
+     *
+     * @see #sendGetRequestAsync(String)
+     */
+    public CompletableFuture<RestResponse> sendDeleteRequestAsync(String url, HeaderType type, List<NameValuePair> params) {
+        return sendAsync(() -> sendDeleteRequest(url, type, params));
+    }
+
+    public CompletableFuture<RestResponse> sendDeleteRequestAsync(String url) {
+        return sendAsync(() -> sendDeleteRequest(url));
+    }
+
+    /**
+     * Sends a batch of requests, with no more than maxConcurrent of them in flight at the same time, and waits for
+     * all of them to finish. Each request is a call to one of the blocking send methods, for example
+     * <br/>
+     * <code>requests.add(() -&gt; rest.sendPostRequest(url, HeaderType.JSON, json));</code>
+     *
+     * @param requests
+     *            Requests to send
+     * @param maxConcurrent
+     *            Most requests to send at the same time
+     * @return Responses in the same order as the requests, each with its own execution time
+     * @throws RestException
+     *             If any request failed, after all the requests have finished
+     */
+    public List<RestResponse> sendBatch(List<? extends Supplier<RestResponse>> requests, int maxConcurrent) {
+        logTrace("Entering RestService#sendBatch");
+        if (maxConcurrent < 1) {
+            throw new RestException("Max concurrent requests must be at least 1: [ " + maxConcurrent + " ]");
+        }
+
+        logInfo("Sending batch of [ " + requests.size() + " ] requests, [ " + maxConcurrent + " ] at a time");
+        Semaphore permits = new Semaphore(maxConcurrent);
+        List<CompletableFuture<RestResponse>> futures = new ArrayList<>(requests.size());
+        try {
+            for (Supplier<RestResponse> request : requests) {
+                permits.acquire();
+                CompletableFuture<RestResponse> future = sendAsync(request);
+                future.whenComplete((response, failure) -> permits.release());
+                futures.add(future);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new RestException("Interrupted while sending batch of requests", e);
+        }
+
+        List<RestResponse> responses = new ArrayList<>(futures.size());
+        RestException failure = null;
+        for (int index = 0; index < futures.size(); index++) {
+            try {
+                responses.add(futures.get(index).join());
+            } catch (CompletionException | CancellationException e) {
+                responses.add(null);
+                if (failure == null) {
+                    failure = new RestException("Request [ " + (index + 1) + " ] of batch failed", e.getCause() == null ? e : e.getCause());
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+        logTrace("Exiting RestService#sendBatch");
+        return responses;
+    }
+
+    /**
+     * Runs a blocking request on the shared request threads, carrying over the debug level and TestNG test of the
+     * calling thread so the request is logged to the same test
+     */
+    private CompletableFuture<RestResponse> sendAsync(Supplier<RestResponse> request) {
+        int debugLevel = TestReporter.getDebugLevel();
+        ITestResult testResult = Reporter.getCurrentTestResult();
+        return CompletableFuture.supplyAsync(() -> {
+            TestReporter.setDebugLevel(debugLevel);
+            Reporter.setCurrentTestResult(testResult);
+            try {
+                return request.get();
+            } finally {
+                Reporter.setCurrentTestResult(null);
+            }
+        }, RestConnectionPool.getInstance().getExecutor());
+    }
+
     public static String getJsonFromObject(Object request) {
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(request);
+            return JsonMapperRegistry.getInstance().getPrettyWriter(request == null ? Object.class : request.getClass()).writeValueAsString(request);
         } catch (JsonProcessingException e) {
             throw new RestException("Failed to convert object to json", e);
         }
@@ -335,13 +521,21 @@ public class RestService {
         logTrace("Entering RestService#sendRequest");
         RestResponse response = null;
 
-        try (CloseableHttpClient httpClient = HttpClientBuilder.create().setRedirectStrategy(new LaxRedirectStrategy()).build()) {
-            logTrace("Sending request");
-            StopWatch execution = StopWatch.createStarted();
-            HttpResponse httpResponse = httpClient.execute(request);
+        CloseableHttpClient httpClient = RestConnectionPool.getInstance().getClient();
+        // Cookies are only kept for the redirects of this request, so they are not shared with other requests or threads
+        HttpClientContext context = HttpClientContext.create();
+        context.setCookieStore(new BasicCookieStore());
+        logTrace("Sending request");
+        StopWatch execution = StopWatch.createStarted();
+        // Closing the response hands the connection back to the shared pool once the body has been read
+        try (CloseableHttpResponse httpResponse = httpClient.execute(request, context)) {
             execution.stop();
             String executionTime = execution.toString();
-            response = new RestResponse(request, httpResponse, executionTime);
+            if (streamResponses) {
+                response = new RestResponse(request, httpResponse, executionTime, maxRetainedBodyLength);
+            } else {
+                response = new RestResponse(request, httpResponse, executionTime);
+            }
         } catch (IOException e) {
             throw new RestException("Failed to send request to " + request.getURI().toString(), e);
         }
@@ -366,17 +560,17 @@ public class RestService {
     }
 
     /**
-     * Can pass in any json as a string and map to object
+     * Can pass in any json as a string and map to object. Properties the class does not have are always ignored, as
+     * they were before the registry, so test data files can hold more fields than the class they are read into.
      *
      * @param clazz
      * @return
      * @throws IOException
      */
     private static <T> T mapJSONToObject(String stringResponse, Class<T> clazz) {
-        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         T map = null;
         try {
-            map = mapper.readValue(stringResponse, clazz);
+            map = JsonMapperRegistry.getInstance().getReader(clazz, false).readValue(stringResponse);
         } catch (JsonParseException e) {
             throw new RestException("Failed to parse JSON", e);
         } catch (JsonMappingException e) {
@@ -0,0 +1,393 @@
+package com.orasi.api.soapServices;
+
+import static com.orasi.utils.TestReporter.logTrace;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.MimeHeader;
+import javax.xml.soap.MimeHeaders;
+import javax.xml.soap.SOAPConnection;
+import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPMessage;
+
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import com.orasi.api.soapServices.exceptions.SoapException;
+import com.orasi.utils.TestReporter;
+
+/**
+ * Shared Soap connections and message factories used by every {@link SoapService}, so they are not created and
+ * closed for each request. Message factories are kept per Soap version and connections per Soap version and endpoint.
+ * Both are thread safe and shared by all TestNG threads.
+ * <br/>
+ * <br/>
+ * The connections send requests over one pooled HTTP client that keeps connections alive between requests, where
+ * the default Soap connection opens and closes one for each request. Connections left idle longer than the idle
+ * timeout are closed by a background thread. The client is created on first use. Changing the limits or timeouts
+ * closes it so the next request builds one with the new settings, so they should be set before requests are sent.
+ * <br/>
+ * <br/>
+ * The pool is configured from the suite parameters <b>soapMaxConnections</b>, <b>soapMaxConnectionsPerRoute</b>,
+ * <b>soapIdleTimeout</b>, <b>soapConnectTimeout</b> and <b>soapReadTimeout</b> and shut down at the end of the suite,
+ * see {@link com.orasi.BaseTest#configureSoapConnectionPool}. It is also shut down when the JVM exits.
+ */
+public class SoapConnectionPool {
+    private static final SoapConnectionPool INSTANCE = new SoapConnectionPool();
+
+    public static final int DEFAULT_MAX_TOTAL = 100;
+    public static final int DEFAULT_MAX_PER_ROUTE = 20;
+    public static final int DEFAULT_IDLE_TIMEOUT = 30;
+    public static final int DEFAULT_CONNECT_TIMEOUT = 30;
+    public static final int DEFAULT_READ_TIMEOUT = 120;
+
+    private int maxTotal = DEFAULT_MAX_TOTAL;
+    private int maxPerRoute = DEFAULT_MAX_PER_ROUTE;
+    private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+
+    private final Map<String, MessageFactory> messageFactories = new ConcurrentHashMap<>();
+    private final Map<String, SOAPConnection> connections = new ConcurrentHashMap<>();
+    private volatile CloseableHttpClient client;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private ExecutorService executor;
+    private boolean shutdownHookAdded;
+
+    private SoapConnectionPool() {
+    }
+
+    public static SoapConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param soapVersion
+     *            Soap protocol, such as {@link javax.xml.soap.SOAPConstants#SOAP_1_1_PROTOCOL}
+     * @return Shared message factory for the Soap version
+     */
+    public MessageFactory getMessageFactory(String soapVersion) {
+        return messageFactories.computeIfAbsent(soapVersion, version -> {
+            logTrace("Creating Soap Message Factory for [ " + version + " ]");
+            try {
+                return MessageFactory.newInstance(version);
+            } catch (SOAPException soape) {
+                throw new SoapException("Failed to create Soap Message Factory for [ " + version + " ]", soape);
+            }
+        });
+    }
+
+    /**
+     * @param soapVersion
+     *            Soap protocol of the service, used to read its responses
+     * @param endpoint
+     *            URL of the service
+     * @return Shared connection for the Soap version and endpoint. Closing it does nothing, the pool closes its
+     *         connections when it is shut down.
+     */
+    public SOAPConnection getConnection(String soapVersion, String endpoint) {
+        return connections.computeIfAbsent(soapVersion + " " + endpoint, key -> {
+            logTrace("Creating Soap Connection for [ " + endpoint + " ] with [ " + soapVersion + " ]");
+            return new PooledSoapConnection(getMessageFactory(soapVersion));
+        });
+    }
+
+    /**
+     * @return Shared client, created with the current settings if it does not exist yet
+     */
+    CloseableHttpClient getClient() {
+        CloseableHttpClient current = client;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (client == null) {
+                logTrace("Creating shared Soap HTTP client with [ " + maxTotal + " ] connections, [ " + maxPerRoute + " ] per route");
+                // The JDK Soap connection used the javax.net.ssl system properties, so use them for the pooled connections too
+                Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory> create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSystemSocketFactory())
+                        .build();
+                connectionManager = new PoolingHttpClientConnectionManager(socketFactories);
+                connectionManager.setMaxTotal(maxTotal);
+                connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+                RequestConfig requestConfig = RequestConfig.custom()
+                        .setConnectTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeout))
+                        .setConnectionRequestTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeout))
+                        .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(readTimeout))
+                        .build();
+
+                // System properties for the proxy settings, and no cookies, as with the JDK Soap connection. A shared cookie
+                // store would also leak cookies between tests and threads.
+                client = HttpClientBuilder.create()
+                        .useSystemProperties()
+                        .disableCookieManagement()
+                        .setConnectionManager(connectionManager)
+                        .setDefaultRequestConfig(requestConfig)
+                        .evictExpiredConnections()
+                        .evictIdleConnections(idleTimeout, TimeUnit.SECONDS)
+                        .build();
+
+                if (!shutdownHookAdded) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(this::closeClient, "SoapConnectionPool-shutdown"));
+                    shutdownHookAdded = true;
+                }
+            }
+            return client;
+        }
+    }
+
+    /**
+     * @return Threads used to send asynchronous requests, one per connection allowed to a route so requests to the
+     *         same endpoint do not wait on each other for a connection
+     */
+    public synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(maxPerRoute, runnable -> {
+                Thread thread = new Thread(runnable, "SoapService-async-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Close the shared client and all of its connections. Asynchronous requests already started are finished first.
+     * A new client is created the next time one is needed.
+     */
+    public void shutdown() {
+        ExecutorService running;
+        int timeout;
+        synchronized (this) {
+            running = executor;
+            timeout = readTimeout;
+            executor = null;
+        }
+
+        // Wait without holding the lock, since the requests being waited on need it to get the client
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(timeout, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (this) {
+            if (client != null) {
+                TestReporter.logDebug("Closing shared Soap HTTP client. " + getStatistics());
+            }
+            closeClient();
+        }
+    }
+
+    private synchronized void closeClient() {
+        connections.clear();
+        if (client == null) {
+            return;
+        }
+
+        try {
+            client.close();
+        } catch (IOException e) {
+            throw new SoapException("Failed to close shared Soap HTTP client", e);
+        } finally {
+            client = null;
+            connectionManager = null;
+        }
+    }
+
+    /**
+     * @param maxTotal
+     *            Most connections open at the same time across all endpoints
+     */
+    public void setMaxTotal(int maxTotal) {
+        if (maxTotal < 1) {
+            throw new SoapException("Max connections must be at least 1: [ " + maxTotal + " ]");
+        }
+        synchronized (this) {
+            this.maxTotal = maxTotal;
+        }
+        // Outside the lock, since shutdown waits on requests that need it to get the client
+        shutdown();
+    }
+
+    public synchronized int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * @param maxPerRoute
+     *            Most connections open at the same time to one scheme, host and port
+     */
+    public void setMaxPerRoute(int maxPerRoute) {
+        if (maxPerRoute < 1) {
+            throw new SoapException("Max connections per route must be at least 1: [ " + maxPerRoute + " ]");
+        }
+        synchronized (this) {
+            this.maxPerRoute = maxPerRoute;
+        }
+        shutdown();
+    }
+
+    public synchronized int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    /**
+     * @param idleTimeout
+     *            Seconds a connection can stay unused before it is closed
+     */
+    public void setIdleTimeout(int idleTimeout) {
+        synchronized (this) {
+            this.idleTimeout = idleTimeout;
+        }
+        shutdown();
+    }
+
+    public synchronized int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * @param connectTimeout
+     *            Seconds to wait for a connection to be opened, or to be free in the pool. 0 waits forever.
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        synchronized (this) {
+            this.connectTimeout = connectTimeout;
+        }
+        shutdown();
+    }
+
+    public synchronized int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @param readTimeout
+     *            Seconds to wait for data from the service. 0 waits forever.
+     */
+    public void setReadTimeout(int readTimeout) {
+        synchronized (this) {
+            this.readTimeout = readTimeout;
+        }
+        shutdown();
+    }
+
+    public synchronized int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * @return Connections leased, idle and waited for across all endpoints, or empty stats if no client is open
+     */
+    public synchronized PoolStats getTotalStats() {
+        if (connectionManager == null) {
+            return new PoolStats(0, 0, 0, maxTotal);
+        }
+        return connectionManager.getTotalStats();
+    }
+
+    public String getStatistics() {
+        PoolStats stats = getTotalStats();
+        return "SoapConnectionPool [leased=" + stats.getLeased() + ", idle=" + stats.getAvailable() + ", pending=" + stats.getPending() + ", max="
+                + stats.getMax() + ", endpoints=" + connections.size() + "]";
+    }
+
+    /**
+     * Soap connection that posts requests with the shared client. Like the default Soap connection, a response with
+     * status 500 is read as a Soap Fault and any other status that is not 2xx fails the call.
+     */
+    private final class PooledSoapConnection extends SOAPConnection {
+        private final MessageFactory messageFactory;
+
+        private PooledSoapConnection(MessageFactory messageFactory) {
+            this.messageFactory = messageFactory;
+        }
+
+        @Override
+        public SOAPMessage call(SOAPMessage request, Object endpoint) throws SOAPException {
+            if (request.saveRequired()) {
+                request.saveChanges();
+            }
+
+            HttpPost post = new HttpPost(endpoint.toString());
+            Iterator<?> headers = request.getMimeHeaders().getAllHeaders();
+            while (headers.hasNext()) {
+                MimeHeader header = (MimeHeader) headers.next();
+                // The client sets the length itself from the entity
+                if (!"Content-Length".equalsIgnoreCase(header.getName())) {
+                    post.addHeader(header.getName(), header.getValue());
+                }
+            }
+
+            try (ByteArrayOutputStream requestBody = new ByteArrayOutputStream()) {
+                // Written once so the request is sent with its length, as some services do not accept chunked requests
+                request.writeTo(requestBody);
+                post.setEntity(new InputStreamEntity(requestBody.toInputStream(), requestBody.size()));
+            } catch (IOException ioe) {
+                throw new SOAPException("Failed to write Soap Message", ioe);
+            }
+
+            try (CloseableHttpResponse response = getClient().execute(post)) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode != HttpStatus.SC_INTERNAL_SERVER_ERROR && statusCode / 100 != 2) {
+                    throw new SOAPException("Bad response: (" + statusCode + " " + response.getStatusLine().getReasonPhrase() + ")");
+                }
+
+                HttpEntity entity = response.getEntity();
+                if (entity == null) {
+                    throw new SOAPException("No content in response: (" + statusCode + " " + response.getStatusLine().getReasonPhrase() + ")");
+                }
+
+                MimeHeaders responseHeaders = new MimeHeaders();
+                for (Header header : response.getAllHeaders()) {
+                    responseHeaders.addHeader(header.getName(), header.getValue());
+                }
+
+                // Read the whole body so the connection goes back to the pool before the message is parsed
+                try (ByteArrayOutputStream body = new ByteArrayOutputStream(); InputStream in = entity.getContent()) {
+                    body.write(in);
+                    return messageFactory.createMessage(responseHeaders, body.toInputStream());
+                }
+            } catch (IOException ioe) {
+                throw new SOAPException("Message send failed", ioe);
+            }
+        }
+
+        @Override
+        public void close() {
+            // Connections are closed by the pool
+        }
+    }
+}
@@ -4,30 +4,32 @@ import static com.orasi.utils.TestReporter.logDebug;
 import static com.orasi.utils.TestReporter.logInfo;
 import static com.orasi.utils.TestReporter.logTrace;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 
 import javax.xml.soap.MessageFactory;
 import javax.xml.soap.MimeHeaders;
 import javax.xml.soap.SOAPBody;
 import javax.xml.soap.SOAPConnection;
-import javax.xml.soap.SOAPConnectionFactory;
 import javax.xml.soap.SOAPConstants;
 import javax.xml.soap.SOAPException;
 import javax.xml.soap.SOAPFault;
 import javax.xml.soap.SOAPMessage;
 import javax.xml.ws.WebServiceException;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
+import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.commons.lang3.time.StopWatch;
+import org.testng.ITestResult;
 import org.testng.Reporter;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
@@ -37,7 +39,9 @@ import com.orasi.api.soapServices.exceptions.MissingFunctionParameterValueExcept
 import com.orasi.api.soapServices.exceptions.SoapException;
 import com.orasi.utils.Randomness;
 import com.orasi.utils.Regex;
+import com.orasi.utils.TestReporter;
 import com.orasi.utils.XMLTools;
+import com.orasi.utils.XPathCache;
 import com.orasi.utils.dataProviders.CSVDataProvider;
 import com.orasi.utils.exception.XPathInvalidExpression;
 import com.orasi.utils.exception.XPathNotFoundException;
@@ -45,7 +49,7 @@ import com.orasi.utils.exception.XPathNullNodeValueException;
 import com.orasi.utils.io.ExcelDocumentReader;
 import com.orasi.utils.io.FileLoader;
 
-public abstract class SoapService {
+public abstract class SoapService implements Cloneable {
     private String strServiceName;
     private String strOperationName;
     private String url = null;
@@ -427,22 +431,15 @@ public abstract class SoapService {
         logTrace("Entering SoapService#sendRequest");
         SOAPMessage request = null;
         SOAPMessage response = null;
-        SOAPConnectionFactory connectionFactory = null;
         SOAPConnection connection = null;
         SOAPBody responseBody = null;
         MessageFactory messageFactory = null;
 
         try {
-            logTrace("Create Soap Message Factory");
-            messageFactory = MessageFactory.newInstance(soapVersion);
-            logTrace("Message Factory started");
+            logTrace("Get Soap Message Factory");
+            messageFactory = SoapConnectionPool.getInstance().getMessageFactory(soapVersion);
 
-            logTrace("Loading request XML into byte stream");
-            InputStream in = new ByteArrayInputStream(getRequest().getBytes(Charset.defaultCharset()));
-            logTrace("Successfully loaded XML into stream");
-            logTrace("Loading byte stream into Message Factory");
-            request = messageFactory.createMessage(new MimeHeaders(), in);
-            logTrace("Successfully generated Soap Message");
+            request = createRequestMessage(messageFactory);
 
             if (requestHeaders.size() > 0) {
                 logTrace("Additional headers to be added");
@@ -453,11 +450,8 @@ public abstract class SoapService {
                 }
             }
 
-            logTrace("Create Soap Connection Factory");
-            connectionFactory = SOAPConnectionFactory.newInstance();
-
-            logTrace("Create Soap Connection");
-            connection = connectionFactory.createConnection();
+            logTrace("Get Soap Connection");
+            connection = SoapConnectionPool.getInstance().getConnection(soapVersion, url);
 
             logTrace("Send request to service");
             StopWatch execution = StopWatch.createStarted();
@@ -477,8 +471,6 @@ public abstract class SoapService {
         } catch (IOException ioe) {
             throw new SoapException("Failed to read the request properly"
                     + ioe.getCause());
-        } finally {
-            closeSoapConnection(connection);
         }
 
         logTrace("Checking for faults");
@@ -498,6 +490,186 @@ public abstract class SoapService {
         logTrace("Exiting SoapService#sendRequest");
     }
 
+    /**
+     * Sends the request without waiting for the response. The request runs on the shared {@link SoapConnectionPool}
+     * threads and is logged to the test of the calling thread. The service should not be changed or read until the
+     * future is complete.
+     *
+     * @return Future completed with this service once its response is stored. If the request fails, join and get
+     *         throw a {@link CompletionException} or {@link java.util.concurrent.ExecutionException} whose cause is the
+     *         {@link SoapException}, or any other RuntimeException thrown by {@link #sendRequest()}.
+     */
+    public CompletableFuture<SoapService> sendRequestAsync() {
+        return sendAsync(this);
+    }
+
+    /**
+     * Sends a copy of the template for each scenario, with no more than maxConcurrent of them in flight at the same
+     * time, and waits for all of them to finish. The template is not changed. Each copy has the scenario applied with
+     * {@link #setRequestNodeValueByXPath(Object[][])} before it is sent.
+     * <br/>
+     * <br/>
+     * Requests run on the {@link SoapConnectionPool} threads, one per connection allowed to a route, so no more than
+     * {@link SoapConnectionPool#getMaxPerRoute()} are sent at the same time even if maxConcurrent is higher. Raise it
+     * with {@link SoapConnectionPool#setMaxPerRoute(int)} or the suite parameter <b>soapMaxConnectionsPerRoute</b>.
+     *
+     * @param template
+     *            Service with the request prepared, to copy for each scenario
+     * @param scenarios
+     *            XPath and value rows for each request, as returned by {@link #getTestScenario(String, String)}
+     * @param maxConcurrent
+     *            Most requests to send at the same time, up to {@link SoapConnectionPool#getMaxPerRoute()}
+     * @return Services with their responses and execution times, in the same order as the scenarios
+     * @throws SoapException
+     *             If any request failed, after all the requests have finished
+     */
+    public static <T extends SoapService> List<T> sendBatch(T template, List<Object[][]> scenarios, int maxConcurrent) {
+        logTrace("Entering SoapService#sendBatch");
+        if (maxConcurrent < 1) {
+            throw new SoapException("Max concurrent requests must be at least 1: [ " + maxConcurrent + " ]");
+        }
+
+        int maxPerRoute = SoapConnectionPool.getInstance().getMaxPerRoute();
+        if (maxConcurrent > maxPerRoute) {
+            logDebug("Max concurrent requests [ " + maxConcurrent + " ] is more than the [ " + maxPerRoute + " ] connections allowed per route");
+            maxConcurrent = maxPerRoute;
+        }
+
+        logInfo("Sending batch of [ " + scenarios.size() + " ] requests, [ " + maxConcurrent + " ] at a time");
+        StopWatch batchTime = StopWatch.createStarted();
+        Semaphore permits = new Semaphore(maxConcurrent);
+        List<CompletableFuture<T>> futures = new ArrayList<>(scenarios.size());
+        try {
+            for (Object[][] scenario : scenarios) {
+                // Copies keep the class of the template
+                @SuppressWarnings("unchecked")
+                T service = (T) template.copy();
+                service.setRequestNodeValueByXPath(scenario);
+                permits.acquire();
+                CompletableFuture<T> future = sendAsync(service);
+                future.whenComplete((response, failure) -> permits.release());
+                futures.add(future);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new SoapException("Interrupted while sending batch of requests", e);
+        }
+
+        List<T> services = new ArrayList<>(futures.size());
+        SoapException failure = null;
+        for (int index = 0; index < futures.size(); index++) {
+            try {
+                T service = futures.get(index).join();
+                logDebug("Request [ " + (index + 1) + " ] of batch returned [ " + service.getResponseStatusCode() + " ] in [ " + service.getExecutionTime() + " ]");
+                services.add(service);
+            } catch (CompletionException | CancellationException e) {
+                services.add(null);
+                if (failure == null) {
+                    failure = new SoapException("Request [ " + (index + 1) + " ] of batch failed", e.getCause() == null ? e : e.getCause());
+                }
+            }
+        }
+        batchTime.stop();
+        logInfo("Batch of [ " + scenarios.size() + " ] requests finished in [ " + batchTime.toString() + " ]");
+
+        if (failure != null) {
+            throw failure;
+        }
+        logTrace("Exiting SoapService#sendBatch");
+        return services;
+    }
+
+    /**
+     * Sends a copy of the template for each scenario of a data file. See {@link #sendBatch(SoapService, List, int)}
+     *
+     * @param template
+     *            Service with the request prepared, to copy for each scenario
+     * @param filePath
+     *            Data file with the scenarios, in the format read by {@link #getTestScenario(String, String)}
+     * @param scenarios
+     *            Names of the scenarios to send
+     * @param maxConcurrent
+     *            Most requests to send at the same time, up to {@link SoapConnectionPool#getMaxPerRoute()}
+     * @return Services with their responses and execution times, in the same order as the scenarios
+     */
+    public static <T extends SoapService> List<T> sendBatch(T template, String filePath, List<String> scenarios, int maxConcurrent) {
+        List<Object[][]> scenarioData = new ArrayList<>(scenarios.size());
+        for (String scenario : scenarios) {
+            scenarioData.add(template.getTestScenario(filePath, scenario));
+        }
+        return sendBatch(template, scenarioData, maxConcurrent);
+    }
+
+    /**
+     * Runs sendRequest on the shared request threads, carrying over the debug level and TestNG test of the calling
+     * thread so the request is logged to the same test
+     */
+    private static <T extends SoapService> CompletableFuture<T> sendAsync(T service) {
+        int debugLevel = TestReporter.getDebugLevel();
+        ITestResult testResult = Reporter.getCurrentTestResult();
+        return CompletableFuture.supplyAsync(() -> {
+            TestReporter.setDebugLevel(debugLevel);
+            Reporter.setCurrentTestResult(testResult);
+            try {
+                service.sendRequest();
+                return service;
+            } finally {
+                Reporter.setCurrentTestResult(null);
+            }
+        }, SoapConnectionPool.getInstance().getExecutor());
+    }
+
+    /**
+     * Copy of the service with its own request Document and headers and no response, so it can be changed and sent
+     * without affecting this one. Fields added by subclasses are copied as they are, so subclasses with mutable fields
+     * should override this to copy them too.
+     *
+     * @return Copy of the service, of the same class
+     */
+    public SoapService copy() {
+        SoapService copy;
+        try {
+            copy = (SoapService) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new SoapException("Failed to copy Soap Service [ " + getClass().getName() + " ]", e);
+        }
+        copy.requestDocument = requestDocument == null ? null : (Document) requestDocument.cloneNode(true);
+        copy.requestHeaders = new HashMap<String, String>(requestHeaders);
+        copy.buffer = new StringBuffer();
+        copy.responseDocument = null;
+        copy.responseHeaders = null;
+        copy.intResponseStatusCode = null;
+        copy.executionTime = null;
+        return copy;
+    }
+
+    /**
+     * Build the Soap Message to send from the request Document. The Document is serialized once, straight to bytes,
+     * and the message is read from those bytes without copying them or building a String of the request.
+     *
+     * @param messageFactory
+     *            Factory for the Soap version of the service
+     * @return Soap Message of the request
+     * @throws SOAPException
+     *             If the request is not a valid Soap Message
+     * @throws IOException
+     *             If the serialized request can not be read
+     */
+    protected SOAPMessage createRequestMessage(MessageFactory messageFactory) throws SOAPException, IOException {
+        logTrace("Entering SoapService#createRequestMessage");
+        SOAPMessage request;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            logTrace("Writing request XML to byte stream");
+            XMLTools.transformXmlToStream(getRequestDocument(), out);
+            logTrace("Loading byte stream into Message Factory");
+            request = messageFactory.createMessage(new MimeHeaders(), out.toInputStream());
+        }
+        logTrace("Successfully generated Soap Message");
+        logTrace("Exiting SoapService#createRequestMessage");
+        return request;
+    }
+
     /**
      * Update an XPath node or attribute based on the value. The value
      * is not limited to simple values, but may also call various
@@ -523,14 +695,12 @@ public abstract class SoapService {
      */
     protected void setRequestNodeValueByXPath(Document doc, String xpath, String value) {
         logTrace("Entering SoapService#setRequestNodeValueByXPath");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
 
         try {
             logTrace("Checking validity of xpath [ " + xpath + " ]");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe.getCause());
@@ -666,7 +836,7 @@ public abstract class SoapService {
             }
         }
         buffer.append("</table>");
-        Reporter.log(buffer.toString() + "<br/>");
+        TestReporter.logHtml(buffer.toString() + "<br/>");
         return status;
     }
 
@@ -693,8 +863,6 @@ public abstract class SoapService {
      *
      */
     protected boolean validateNodeValueByXPath(Document doc, String xpath, String regexValue) {
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
         String xPathValue = "";
@@ -702,7 +870,7 @@ public abstract class SoapService {
 
         // Find the node based on xpath expression
         try {
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             errorMessage = "Failed to build xpath [ " + xpath + " ]. Please check format.";
@@ -890,14 +1058,4 @@ public abstract class SoapService {
                 throw new SoapException("The command [" + command + " ] is not a valid command");
         }
     }
-
-    private void closeSoapConnection(SOAPConnection connection) {
-        try {
-            logDebug("Closing Soap Connection");
-            connection.close();
-
-        } catch (SOAPException soape) {
-            throw new SoapException("Failed to close Soap Connection", soape.getCause());
-        }
-    }
 }
\ No newline at end of file
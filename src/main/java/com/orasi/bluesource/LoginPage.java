@@ -7,6 +7,7 @@ import org.openqa.selenium.support.FindBy;
 import com.orasi.utils.Constants;
 import com.orasi.utils.TestReporter;
 import com.orasi.web.OrasiDriver;
+import com.orasi.web.PageLoadTiming;
 import com.orasi.web.PageLoaded;
 import com.orasi.web.webelements.Button;
 import com.orasi.web.webelements.Element;
@@ -40,7 +41,12 @@ public class LoginPage {
 	/**Page Interactions**/
 
 	public boolean verifyPageIsLoaded(){
-		return PageLoaded.isElementLoaded(this.getClass(), driver, txtUsername);	
+		boolean loaded = PageLoaded.isElementLoaded(this.getClass(), driver, txtUsername);
+		PageLoadTiming timing = PageLoaded.readPageLoadTiming(driver);
+		if (timing != null) {
+			loadTime = (int) timing.getPageLoadTime();
+		}
+		return loaded;
 	}
 		
 	/**
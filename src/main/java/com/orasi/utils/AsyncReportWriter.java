@@ -0,0 +1,177 @@
+package com.orasi.utils;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+/**
+ * Buffers {@link TestReporter} output so test threads do not block on the TestNG reporter and the console. Each
+ * thread appends to its own lock-free queue. A background writer drains the queues in order, and the queue of a test
+ * thread is drained on that thread when {@link TestReporter#flush()} is called at the end of each test. Messages are
+ * written to the TestNG report of the test that was running when they were logged.
+ */
+final class AsyncReportWriter {
+    /**
+     * Time between background writes in milliseconds
+     */
+    static final long FLUSH_INTERVAL_MILLISECONDS = 250;
+
+    private static final Set<Buffer> BUFFERS = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(() -> {
+        Buffer buffer = new Buffer(Thread.currentThread());
+        BUFFERS.add(buffer);
+        return buffer;
+    });
+    private static ScheduledExecutorService writer;
+    private static boolean shutdownHookAdded = false;
+
+    private AsyncReportWriter() {
+    }
+
+    /**
+     * Queue a line for the TestNG report of the current test
+     *
+     * @param message
+     *            Line to report
+     * @param escapeHtml
+     *            True to escape the line in the report, like {@link Reporter#setEscapeHtml(boolean)}
+     */
+    static void report(String message, boolean escapeHtml) {
+        BUFFER.get().events.add(new Event(Reporter.getCurrentTestResult(), message, escapeHtml, false));
+    }
+
+    /**
+     * Queue a line for the console
+     *
+     * @param message
+     *            Line to print
+     */
+    static void console(String message) {
+        BUFFER.get().events.add(new Event(null, message, false, true));
+    }
+
+    /**
+     * Write everything the current thread has logged
+     */
+    static void flush() {
+        BUFFER.get().drain();
+    }
+
+    /**
+     * Write everything logged by all threads, forgetting threads that have ended
+     */
+    static void flushAll() {
+        for (Buffer buffer : BUFFERS) {
+            buffer.drain();
+            if (!buffer.owner.isAlive()) {
+                BUFFERS.remove(buffer);
+                // Anything appended between the drain and the removal is still written
+                buffer.drain();
+            }
+        }
+    }
+
+    /**
+     * Start the background writer if it is not already running
+     */
+    static synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TestReporter-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(AsyncReportWriter::flushAll, FLUSH_INTERVAL_MILLISECONDS, FLUSH_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS);
+
+        // Write whatever is left if the run ends without the last test being flushed
+        if (!shutdownHookAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(AsyncReportWriter::flushAll, "TestReporter-shutdown-flush"));
+            shutdownHookAdded = true;
+        }
+    }
+
+    /**
+     * Stop the background writer and write anything still buffered
+     */
+    static synchronized void stop() {
+        if (writer != null) {
+            writer.shutdown();
+            writer = null;
+        }
+        flushAll();
+    }
+
+    private static final class Event {
+        private final ITestResult result;
+        private final String message;
+        private final boolean escapeHtml;
+        private final boolean console;
+
+        private Event(ITestResult result, String message, boolean escapeHtml, boolean console) {
+            this.result = result;
+            this.message = message;
+            this.escapeHtml = escapeHtml;
+            this.console = console;
+        }
+    }
+
+    private static final class Buffer {
+        private final Thread owner;
+        private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+
+        private Buffer(Thread owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Only one thread drains a buffer at a time so its events are written in the order they were logged
+         */
+        private synchronized void drain() {
+            if (events.isEmpty()) {
+                return;
+            }
+
+            ITestResult current = Reporter.getCurrentTestResult();
+            StringBuilder console = new StringBuilder();
+            try {
+                Event event;
+                while ((event = events.poll()) != null) {
+                    if (event.console) {
+                        console.append(event.message).append(System.lineSeparator());
+                    } else {
+                        write(event);
+                    }
+                }
+            } finally {
+                Reporter.setCurrentTestResult(current);
+                if (console.length() > 0) {
+                    System.out.print(console);
+                    System.out.flush();
+                }
+            }
+        }
+
+        private static void write(Event event) {
+            Reporter.setCurrentTestResult(event.result);
+            if (event.escapeHtml) {
+                Reporter.setEscapeHtml(true);
+                try {
+                    Reporter.log(event.message);
+                } finally {
+                    Reporter.setEscapeHtml(false);
+                }
+            } else {
+                Reporter.log(event.message);
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@ public class Constants {
     public final static String DRIVERS_PATH_LOCAL = "/drivers/";
     public final static String DRIVERS_PATH_REMOTE = "C:\\Selenium\\WebDrivers\\";
     public final static String SCREENSHOT_FOLDER = CURRENT_DIR + "selenium-reports" + DIR_SEPARATOR + "html" + DIR_SEPARATOR + "screenshots";
+    public final static String EVENT_LOG_FOLDER = CURRENT_DIR + "selenium-reports" + DIR_SEPARATOR + "events";
     public final static int DEFAULT_GLOBAL_DRIVER_TIMEOUT = 10;
     public final static int ELEMENT_TIMEOUT = 3;
     public final static int PAGE_TIMEOUT = 10;
@@ -1,16 +1,189 @@
 package com.orasi.utils;
 
-import org.apache.commons.lang.time.StopWatch;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Hard waits. The thread is parked for the duration instead of spinning, and can be interrupted. The time spent
+ * sleeping is recorded per thread, so each test can report how long it spent in hard waits and, at DEBUG level, where
+ * they came from. The waits between the polls of a sync use {@link #poll(long)} and are not counted. The
+ * {@link Clock} can be replaced in unit tests so nothing actually waits.
+ */
 public class Sleeper {
+    /**
+     * Source of time and waiting used by the Sleeper
+     */
+    public interface Clock {
+        /**
+         * @return Current time in milliseconds, only used to measure elapsed time
+         */
+        long millis();
+
+        /**
+         * Wait for the given time, or until the thread is interrupted
+         *
+         * @param millis
+         *            Time to wait
+         * @throws InterruptedException
+         *             If the thread was interrupted while waiting
+         */
+        void park(long millis) throws InterruptedException;
+    }
+
+    /**
+     * Default clock that parks the current thread until the time has passed
+     */
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long millis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        }
+
+        @Override
+        public void park(long millis) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            long remaining = deadline - System.nanoTime();
+            while (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+                // Park can return early without a reason, so only stop early when interrupted
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Interrupted while sleeping");
+                }
+                remaining = deadline - System.nanoTime();
+            }
+        }
+    };
+
+    private static volatile Clock clock = SYSTEM_CLOCK;
+    private static final ThreadLocal<SleepStatistics> statistics = ThreadLocal.withInitial(SleepStatistics::new);
+
+    /**
+     * Sleep for the given time. If the thread is interrupted the sleep ends early and the thread stays interrupted so
+     * the caller can still see it.
+     *
+     * @param millis
+     *            Time to sleep in milliseconds
+     */
     public static void sleep(long millis) {
-        TestReporter.logTrace("Sleeping for [ " + millis + " ] milliseconds");
-        StopWatch stopwatch = new StopWatch();
-        stopwatch.start();
-        do {
-
-        } while (stopwatch.getTime() < millis);
-        stopwatch.stop();
-        stopwatch.reset();
+        try {
+            sleepInterruptibly(millis);
+        } catch (InterruptedException e) {
+            TestReporter.logTrace("Sleep interrupted");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sleep for the given time, throwing if the thread is interrupted
+     *
+     * @param millis
+     *            Time to sleep in milliseconds
+     * @throws InterruptedException
+     *             If the thread was interrupted while sleeping
+     */
+    public static void sleepInterruptibly(long millis) throws InterruptedException {
+        TestReporter.logTrace(() -> "Sleeping for [ " + millis + " ] milliseconds");
+        if (millis <= 0) {
+            return;
+        }
+
+        Clock current = clock;
+        long start = current.millis();
+        try {
+            current.park(millis);
+        } finally {
+            // Looking up the caller walks the stack, so only do it when the breakdown will be logged
+            statistics.get().record(TestReporter.isDebugEnabled() ? getCaller() : null, current.millis() - start);
+        }
+    }
+
+    /**
+     * Wait between the polls of a sync, such as in ElementSync or PageLoaded. This uses the same clock as
+     * {@link #sleep(long)}, but is not recorded as a hard wait since the sync ends as soon as its condition is met.
+     *
+     * @param millis
+     *            Time to wait in milliseconds
+     * @throws InterruptedException
+     *             If the thread is or becomes interrupted, so the sync can stop polling
+     */
+    public static void poll(long millis) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Interrupted before polling");
+        }
+        if (millis > 0) {
+            clock.park(millis);
+        }
+    }
+
+    /**
+     * Replace the clock used for all threads, such as with a fake clock in unit tests
+     *
+     * @param clock
+     *            Clock to use, or null to go back to the {@link #SYSTEM_CLOCK}
+     */
+    public static void setClock(Clock clock) {
+        Sleeper.clock = clock == null ? SYSTEM_CLOCK : clock;
+    }
+
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Clear the sleep statistics of the current thread. Called by BaseTest before each test.
+     */
+    public static void resetStatistics() {
+        statistics.remove();
+    }
+
+    /**
+     * @return Total time the current thread spent sleeping since the statistics were last reset
+     */
+    public static long getSleepTime() {
+        return statistics.get().total;
+    }
+
+    /**
+     * @return Number of sleeps on the current thread since the statistics were last reset
+     */
+    public static int getSleepCount() {
+        return statistics.get().count;
+    }
+
+    /**
+     * @return Time slept on the current thread since the statistics were last reset, by the class, method and line
+     *         that called the Sleeper. Callers are only recorded while DEBUG messages are enabled.
+     */
+    public static Map<String, Long> getSleepTimeByCaller() {
+        return Collections.unmodifiableMap(new HashMap<>(statistics.get().byCaller));
+    }
+
+    /**
+     * Finds the first stack frame outside of the Sleeper
+     */
+    private static String getCaller() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (!element.getClassName().equals(Sleeper.class.getName())) {
+                return element.getClassName() + "#" + element.getMethodName() + ":" + element.getLineNumber();
+            }
+        }
+        return "unknown";
+    }
+
+    private static class SleepStatistics {
+        private long total;
+        private int count;
+        private final Map<String, Long> byCaller = new HashMap<>();
+
+        private void record(String caller, long millis) {
+            total += millis;
+            count++;
+            if (caller != null) {
+                byCaller.merge(caller, millis, Long::sum);
+            }
+        }
     }
 }
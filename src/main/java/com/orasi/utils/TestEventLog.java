@@ -0,0 +1,257 @@
+package com.orasi.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.orasi.AutomationException;
+
+/**
+ * Structured log of test events, written as JSON Lines (one JSON object per line) next to the HTML report so runs
+ * can be analyzed with standard tools. Each event has the time in epoch milliseconds, thread, test, event type and
+ * message, plus the element locator, duration and pass/fail outcome when they apply. {@link TestReporter} records
+ * its steps, logs, interface actions, assertions and API calls, and element syncs are recorded with their locator
+ * and duration.
+ * <br/>
+ * <br/>
+ * The log is off by default. It is turned on with the suite parameter <b>eventLog</b> or {@link #open()}, and
+ * nothing is built for an event while it is off.
+ */
+public final class TestEventLog {
+    public enum Type {
+        STEP,
+        SCENARIO,
+        LOG,
+        FAILURE,
+        INFO,
+        DEBUG,
+        TRACE,
+        INTERFACE,
+        SYNC,
+        ASSERTION,
+        API
+    }
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern BOLD_TEXT = Pattern.compile("<b>\\s*(.*?)\\s*</b>");
+    private static final Pattern STOPWATCH = Pattern.compile("(\\d+):(\\d+):(\\d+)\\.(\\d+)");
+
+    private static volatile boolean enabled = false;
+    private static Writer writer;
+    private static String file;
+
+    private TestEventLog() {
+    }
+
+    /**
+     * Start writing events to a new file in {@link Constants#EVENT_LOG_FOLDER}, named with the current date and time
+     */
+    public static void open() {
+        open(Constants.EVENT_LOG_FOLDER + Constants.DIR_SEPARATOR + "events_" + new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date()) + ".jsonl");
+    }
+
+    /**
+     * Start writing events to the file, closing any log already open
+     *
+     * @param fileName
+     *            Path of the file to write
+     */
+    public static synchronized void open(String fileName) {
+        close();
+        File eventFile = new File(fileName);
+        try {
+            if (eventFile.getParentFile() != null) {
+                Files.createDirectories(eventFile.getParentFile().toPath());
+            }
+            writer = Files.newBufferedWriter(eventFile.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new AutomationException("Failed to create event log [ " + fileName + " ]", e);
+        }
+        file = eventFile.getAbsolutePath();
+        enabled = true;
+    }
+
+    /**
+     * Write any buffered events and close the file
+     */
+    public static synchronized void close() {
+        enabled = false;
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new AutomationException("Failed to close event log [ " + file + " ]", e);
+            } finally {
+                writer = null;
+            }
+        }
+    }
+
+    /**
+     * Write any buffered events to the file. Called by {@link TestReporter#flush()} at the end of each test.
+     */
+    public static synchronized void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new AutomationException("Failed to write event log [ " + file + " ]", e);
+            }
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Absolute path of the current event log, or of the last one if it has been closed
+     */
+    public static String getFile() {
+        return file;
+    }
+
+    /**
+     * Record an event. Markup in the message is removed.
+     *
+     * @param type
+     *            Type of event
+     * @param message
+     *            Message of the event
+     */
+    public static void record(Type type, String message) {
+        record(type, message, null, -1, null);
+    }
+
+    /**
+     * Record an event. Markup in the message is removed.
+     *
+     * @param type
+     *            Type of event
+     * @param message
+     *            Message of the event
+     * @param locator
+     *            Locator of the element the event is for, or null
+     * @param durationMillis
+     *            How long the event took, or -1 if it does not apply
+     * @param passed
+     *            Outcome of the event, or null if it does not apply
+     */
+    public static void record(Type type, String message, String locator, long durationMillis, Boolean passed) {
+        if (!enabled) {
+            return;
+        }
+
+        String line = toJson(type, message, locator, durationMillis, passed);
+        synchronized (TestEventLog.class) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.write(line);
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new AutomationException("Failed to write event log [ " + file + " ]", e);
+            }
+        }
+    }
+
+    /**
+     * Record an interface action, taking the element locator from the bold text of the message, which is how the
+     * element classes log the element they act on
+     *
+     * @param message
+     *            Message logged for the action
+     * @param passed
+     *            False if the action failed
+     */
+    static void recordInterface(String message, boolean passed) {
+        if (!enabled) {
+            return;
+        }
+        Matcher bold = BOLD_TEXT.matcher(message);
+        record(Type.INTERFACE, message, bold.find() ? bold.group(1) : null, -1, passed);
+    }
+
+    /**
+     * Record an API call
+     *
+     * @param message
+     *            Message of the call
+     * @param endpoint
+     *            Endpoint that was called
+     * @param executionTime
+     *            Execution time as formatted by the REST and SOAP services (H:mm:ss.SSS)
+     * @param passed
+     *            Outcome of the call
+     */
+    static void recordApi(String message, String endpoint, String executionTime, boolean passed) {
+        if (!enabled) {
+            return;
+        }
+        record(Type.API, message, endpoint, toMillis(executionTime), passed);
+    }
+
+    private static long toMillis(String executionTime) {
+        Matcher time = executionTime == null ? null : STOPWATCH.matcher(executionTime);
+        if (time == null || !time.matches()) {
+            return -1;
+        }
+        return ((Long.parseLong(time.group(1)) * 60 + Long.parseLong(time.group(2))) * 60 + Long.parseLong(time.group(3))) * 1000
+                + Long.parseLong(time.group(4));
+    }
+
+    private static String toJson(Type type, String message, String locator, long durationMillis, Boolean passed) {
+        StringWriter json = new StringWriter(128);
+        try (JsonGenerator generator = JSON.createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeNumberField("timestamp", System.currentTimeMillis());
+            generator.writeStringField("thread", Thread.currentThread().getName());
+            String test = getTestName();
+            if (test != null) {
+                generator.writeStringField("test", test);
+            }
+            generator.writeStringField("type", type.name());
+            if (message != null) {
+                generator.writeStringField("message", message.indexOf('<') < 0 ? message : HTML_TAG.matcher(message).replaceAll("").trim());
+            }
+            if (locator != null) {
+                generator.writeStringField("locator", HTML_TAG.matcher(locator).replaceAll(""));
+            }
+            if (durationMillis >= 0) {
+                generator.writeNumberField("duration", durationMillis);
+            }
+            if (passed != null) {
+                generator.writeBooleanField("passed", passed);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new AutomationException("Failed to create event log entry", e);
+        }
+        return json.toString();
+    }
+
+    /**
+     * Uses the same class#method name BaseTest logs for each test
+     */
+    private static String getTestName() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result == null || result.getMethod() == null) {
+            return null;
+        }
+        return result.getMethod().getRealClass().getSimpleName() + "#" + result.getMethod().getMethodName();
+    }
+}
@@ -6,9 +6,13 @@ import java.io.File;
 import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.logging.Level;
+import java.util.regex.Pattern;
 
 import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
@@ -24,12 +28,12 @@ import com.orasi.api.restServices.RestResponse;
 import com.orasi.api.restServices.exceptions.RestException;
 import com.orasi.api.soapServices.SoapService;
 import com.orasi.api.soapServices.exceptions.SoapException;
-import com.orasi.utils.date.SimpleDate;
 import com.orasi.web.OrasiDriver;
 
 public class TestReporter {
     private static boolean printToConsole = true;
     private static boolean printClassPath = true;
+    private static volatile boolean asyncReporting = false;
     private static ThreadLocal<Boolean> assertFailed = new ThreadLocal<Boolean>();
     /**
      * No additional info printed to console
@@ -52,6 +56,9 @@ public class TestReporter {
 
     private static ThreadLocal<Integer> debugLevel = new ThreadLocal<>();
 
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+
     /**
      *
      * @param level
@@ -66,37 +73,48 @@ public class TestReporter {
     }
 
     public static int getDebugLevel() {
-        return debugLevel.get() == null ? 0 : debugLevel.get();
+        Integer level = debugLevel.get();
+        return level == null ? NONE : level;
+    }
+
+    /**
+     * @return True if {@link #logTrace(String)} messages are written for the current thread. Check this before building
+     *         an expensive message, or use {@link #logTrace(Supplier)}
+     */
+    public static boolean isTraceEnabled() {
+        return getDebugLevel() >= TRACE;
+    }
+
+    /**
+     * @return True if {@link #logDebug(String)} messages are written for the current thread
+     */
+    public static boolean isDebugEnabled() {
+        return getDebugLevel() >= DEBUG;
+    }
+
+    /**
+     * @return True if {@link #logInfo(String)} messages are written for the current thread
+     */
+    public static boolean isInfoEnabled() {
+        return getDebugLevel() >= INFO;
     }
 
     private static String getTimestamp() {
-        String date = SimpleDate.getTimestamp().toString().substring(11);
-        date = (date + "00").substring(0, 12);
-        return date + " :: ";
+        return LocalTime.now().format(TIMESTAMP_FORMAT) + " :: ";
     }
 
     private static String trimHtml(String log) {
-        return log.replaceAll("<[^>]*>", "");
+        // Most messages have no markup, so skip the regex for them
+        if (log.indexOf('<') < 0) {
+            return log;
+        }
+        return HTML_TAG.matcher(log).replaceAll("");
     }
 
     private static String getClassPath() {
         String path = " > ";
         if (getPrintFullClassPath()) {
-            StackTraceElement[] elements = Thread.currentThread().getStackTrace();
-            int x = 0;
-            String filename = "";
-            for (StackTraceElement element : elements) {
-                filename = element.getClassName();
-                if (x == 0 || x == 1 || x == 2) {
-                    x++;
-                    continue;
-                } else if (!filename.matches("sun.reflect|com.orasi.utils.TestReporter|com.orasi.utils.TestReporter|com.orasi.utils.PageLoaded|java.lang.reflect|"
-                        + "java.lang.Thread|com.sun.proxy|org.testng.internal|java.util.concurrent.ThreadPoolExecutor|com.orasi.utils.debugging")) {
-                    path = element.getClassName() + "#" + element.getMethodName();
-                    break;
-                }
-
-            }
+            path = CallerResolver.resolve();
         }
         return path + " > ";
     }
@@ -117,41 +135,114 @@ public class TestReporter {
         return printClassPath;
     }
 
+    /**
+     * Buffer report and console output and write it from a background thread instead of the test thread. Output is
+     * kept in order for each thread and is always written by {@link #flush()}, which BaseTest calls at the end of
+     * each test. When turned off, anything still buffered is written straight away.
+     *
+     * @param asyncReporting
+     *            True to buffer output
+     */
+    public static synchronized void setAsyncReporting(boolean asyncReporting) {
+        if (asyncReporting) {
+            AsyncReportWriter.start();
+            TestReporter.asyncReporting = true;
+        } else {
+            // Send new output straight to the report before the final drain, so nothing is buffered after it
+            TestReporter.asyncReporting = false;
+            AsyncReportWriter.stop();
+        }
+    }
+
+    public static boolean isAsyncReporting() {
+        return asyncReporting;
+    }
+
+    /**
+     * Write any output the current thread has buffered, and the buffered lines of the {@link TestEventLog}
+     */
+    public static void flush() {
+        if (asyncReporting) {
+            AsyncReportWriter.flush();
+        }
+        TestEventLog.flush();
+    }
+
+    private static void report(String message) {
+        if (asyncReporting) {
+            AsyncReportWriter.report(message, false);
+        } else {
+            Reporter.log(message);
+        }
+    }
+
+    private static void reportEscaped(String message) {
+        if (asyncReporting) {
+            AsyncReportWriter.report(message, true);
+        } else {
+            Reporter.setEscapeHtml(true);
+            Reporter.log(message);
+            Reporter.setEscapeHtml(false);
+        }
+    }
+
+    private static void console(String message) {
+        if (asyncReporting) {
+            AsyncReportWriter.console(message);
+        } else {
+            System.out.println(message);
+        }
+    }
+
     public static void logStep(String step) {
-        Reporter.log("<br/><b><font size = 4>Step: " + step
+        TestEventLog.record(TestEventLog.Type.STEP, step);
+        report("<br/><b><font size = 4>Step: " + step
                 + "</font></b><br/>");
         if (getPrintToConsole()) {
-            System.out.println(step);
+            console(step);
         }
     }
 
     public static void logScenario(String scenario) {
-        Reporter.log("<br/><b><font size = 4>Data Scenario: " + scenario
+        TestEventLog.record(TestEventLog.Type.SCENARIO, scenario);
+        report("<br/><b><font size = 4>Data Scenario: " + scenario
                 + "</font></b><br/>");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + trimHtml(scenario));
+            console(getTimestamp() + trimHtml(scenario));
         }
     }
 
     public static void interfaceLog(String message) {
-        logInfo(message);
+        TestEventLog.recordInterface(message, true);
+        if (isInfoEnabled()) {
+            write(" INFO :: ", message);
+        }
     }
 
     public static void interfaceLog(String message, boolean failed) {
-        logInfo("<font size = 2 color=\"red\">" + message + "</font>");
+        TestEventLog.recordInterface(message, !failed);
+        if (isInfoEnabled()) {
+            write(" INFO :: ", "<font size = 2 color=\"red\">" + message + "</font>");
+        }
     }
 
     public static void log(String message) {
-        Reporter.log(getTimestamp() + " <i><b>" + getClassPath() + message + "</b></i><br />");
+        TestEventLog.record(TestEventLog.Type.LOG, message);
+        String timestamp = getTimestamp();
+        String classPath = getClassPath();
+        report(timestamp + " <i><b>" + classPath + message + "</b></i><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + getClassPath() + trimHtml(message));
+            console(timestamp + classPath + trimHtml(message));
         }
     }
 
     public static void logFailure(String message) {
-        Reporter.log(getTimestamp() + " <font size = 2 color=\"red\"><b><u> ERROR :: " + getClassPath() + message + "</font></u></b><br />");
+        TestEventLog.record(TestEventLog.Type.FAILURE, message, null, -1, false);
+        String timestamp = getTimestamp();
+        String classPath = getClassPath();
+        report(timestamp + " <font size = 2 color=\"red\"><b><u> ERROR :: " + classPath + message + "</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + trimHtml("ERROR :: " + getClassPath() + trimHtml(message)));
+            console(timestamp + trimHtml("ERROR :: " + classPath + trimHtml(message)));
         }
     }
 
@@ -161,9 +252,22 @@ public class TestReporter {
      * @param message
      */
     public static void logTrace(String message) {
-        if (getDebugLevel() >= TRACE) {
-            Reporter.log(getTimestamp() + "TRACE :: " + getClassPath() + message + "<br />");
-            System.out.println(getTimestamp() + "TRACE :: " + getClassPath() + (trimHtml(message).trim()));
+        if (isTraceEnabled()) {
+            TestEventLog.record(TestEventLog.Type.TRACE, message);
+            write("TRACE :: ", message);
+        }
+    }
+
+    /**
+     * Same as {@link #logTrace(String)}, but the message is only built when TRACE messages are written
+     *
+     * @param message
+     */
+    public static void logTrace(Supplier<String> message) {
+        if (isTraceEnabled()) {
+            String text = message.get();
+            TestEventLog.record(TestEventLog.Type.TRACE, text);
+            write("TRACE :: ", text);
         }
     }
 
@@ -173,9 +277,22 @@ public class TestReporter {
      * @param message
      */
     public static void logInfo(String message) {
-        if (getDebugLevel() >= INFO) {
-            Reporter.log(getTimestamp() + " INFO :: " + getClassPath() + message + "<br />");
-            System.out.println(getTimestamp() + " INFO :: " + getClassPath() + trimHtml(message).trim());
+        if (isInfoEnabled()) {
+            TestEventLog.record(TestEventLog.Type.INFO, message);
+            write(" INFO :: ", message);
+        }
+    }
+
+    /**
+     * Same as {@link #logInfo(String)}, but the message is only built when INFO messages are written
+     *
+     * @param message
+     */
+    public static void logInfo(Supplier<String> message) {
+        if (isInfoEnabled()) {
+            String text = message.get();
+            TestEventLog.record(TestEventLog.Type.INFO, text);
+            write(" INFO :: ", text);
         }
     }
 
@@ -185,27 +302,59 @@ public class TestReporter {
      * @param message
      */
     public static void logDebug(String message) {
-        if (getDebugLevel() >= DEBUG) {
-            Reporter.log(getTimestamp() + "DEBUG :: " + getClassPath() + message + "<br />");
-            System.out.println(getTimestamp() + "DEBUG :: " + getClassPath() + trimHtml(message).trim());
+        if (isDebugEnabled()) {
+            TestEventLog.record(TestEventLog.Type.DEBUG, message);
+            write("DEBUG :: ", message);
+        }
+    }
+
+    /**
+     * Same as {@link #logDebug(String)}, but the message is only built when DEBUG messages are written
+     *
+     * @param message
+     */
+    public static void logDebug(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            String text = message.get();
+            TestEventLog.record(TestEventLog.Type.DEBUG, text);
+            write("DEBUG :: ", text);
         }
     }
 
+    /**
+     * Writes a TRACE, INFO or DEBUG message, resolving the timestamp and caller once for both the report and console
+     */
+    private static void write(String level, String message) {
+        String prefix = getTimestamp() + level + getClassPath();
+        report(prefix + message + "<br />");
+        console(prefix + trimHtml(message).trim());
+    }
+
     public static void logNoHtmlTrim(String message) {
-        Reporter.log(getTimestamp() + " :: " + getClassPath() + message + "<br />");
+        String timestamp = getTimestamp();
+        String classPath = getClassPath();
+        report(timestamp + " :: " + classPath + message + "<br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + getClassPath() + message.trim());
+            console(timestamp + classPath + message.trim());
         }
     }
 
+    /**
+     * Add HTML, such as a table of validation results, to the report as it is, without a timestamp or console output
+     *
+     * @param html
+     *            HTML to add
+     */
+    public static void logHtml(String html) {
+        report(html);
+    }
+
     public static void logNoXmlTrim(String message) {
-        Reporter.setEscapeHtml(true);
-        Reporter.log("");
-        Reporter.log(message);
-        Reporter.setEscapeHtml(false);
-        Reporter.log("<br /");
+        reportEscaped("");
+        reportEscaped(message);
+        report("<br /");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + getClassPath() + message.trim());
+            console(getTimestamp() + getClassPath() + message.trim());
         }
     }
 
@@ -214,14 +363,16 @@ public class TestReporter {
             Assert.assertTrue(condition, description);
         } catch (AssertionError failure) {
             logFailure("Assert True - " + description);
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert True - " + description, null, -1, false);
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert True - " + trimHtml(description));
+                console(getTimestamp() + "Assert True - " + trimHtml(description));
             }
             Assert.fail(description);
         }
-        Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert True - " + description + "</font></u></b><br />");
+        TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert True - " + description, null, -1, true);
+        report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert True - " + description + "</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + "Assert True - " + trimHtml(description));
+            console(getTimestamp() + "Assert True - " + trimHtml(description));
         }
     }
 
@@ -230,14 +381,16 @@ public class TestReporter {
             Assert.assertFalse(condition, description);
         } catch (AssertionError failure) {
             logFailure("Assert False - " + description);
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert False - " + description, null, -1, false);
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert False - " + trimHtml(description));
+                console(getTimestamp() + "Assert False - " + trimHtml(description));
             }
             Assert.fail(description);
         }
-        Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert False - " + description + "</font></u></b><br />");
+        TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert False - " + description, null, -1, true);
+        report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert False - " + description + "</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + "Assert False - " + trimHtml(description));
+            console(getTimestamp() + "Assert False - " + trimHtml(description));
         }
     }
 
@@ -246,14 +399,16 @@ public class TestReporter {
             Assert.assertEquals(value1, value2, description);
         } catch (AssertionError failure) {
             logFailure("Assert Equals - " + description);
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Equals - " + description, null, -1, false);
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert Equals - " + trimHtml(description));
+                console(getTimestamp() + "Assert Equals - " + trimHtml(description));
             }
             Assert.fail(description);
         }
-        Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Equals - " + description + "</font></u></b><br />");
+        TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Equals - " + description, null, -1, true);
+        report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Equals - " + description + "</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + "Assert Equals - " + trimHtml(description));
+            console(getTimestamp() + "Assert Equals - " + trimHtml(description));
         }
     }
 
@@ -262,14 +417,16 @@ public class TestReporter {
             Assert.assertNotEquals(value1, value2, description);
         } catch (AssertionError failure) {
             logFailure("Assert Not Equals - " + description);
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Not Equals - " + description, null, -1, false);
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert Not Equals - " + trimHtml(description));
+                console(getTimestamp() + "Assert Not Equals - " + trimHtml(description));
             }
             Assert.fail(description);
         }
-        Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Not Equals - " + description + "</font></u></b><br />");
+        TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Not Equals - " + description, null, -1, true);
+        report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Not Equals - " + description + "</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + "Assert Not Equals - " + trimHtml(description));
+            console(getTimestamp() + "Assert Not Equals - " + trimHtml(description));
         }
     }
 
@@ -278,14 +435,16 @@ public class TestReporter {
             Assert.assertTrue(value > 0);
         } catch (AssertionError failure) {
             logFailure("Assert Greater Than Zero - " + value);
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Greater Than Zero - " + value, null, -1, false);
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert Greater Than Zero - Assert " + value + " is greater than zero");
+                console(getTimestamp() + "Assert Greater Than Zero - Assert " + value + " is greater than zero");
             }
             Assert.fail("Assert " + value + " is greater than zero");
         }
-        Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Greater Than Zero - Assert " + value + " is greater than zero</font></u></b><br />");
+        TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Greater Than Zero - " + value, null, -1, true);
+        report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Greater Than Zero - Assert " + value + " is greater than zero</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + "Assert Greater Than Zero - Assert " + value + " is greater than zero");
+            console(getTimestamp() + "Assert Greater Than Zero - Assert " + value + " is greater than zero");
         }
     }
 
@@ -302,14 +461,16 @@ public class TestReporter {
             Assert.assertNull(condition, description);
         } catch (AssertionError failure) {
             logFailure("Assert Null - " + description);
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Null - " + description, null, -1, false);
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert Null - " + trimHtml(description));
+                console(getTimestamp() + "Assert Null - " + trimHtml(description));
             }
             Assert.fail(description);
         }
-        Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Null - " + description + "</font></u></b><br />");
+        TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Null - " + description, null, -1, true);
+        report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Null - " + description + "</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + "Assert Null - " + trimHtml(description));
+            console(getTimestamp() + "Assert Null - " + trimHtml(description));
         }
     }
 
@@ -318,29 +479,33 @@ public class TestReporter {
             Assert.assertNotNull(condition, description);
         } catch (AssertionError failure) {
             logFailure("Assert Not Null - " + description);
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Not Null - " + description, null, -1, false);
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert Not Null - " + trimHtml(description));
+                console(getTimestamp() + "Assert Not Null - " + trimHtml(description));
             }
             Assert.fail(description);
         }
-        Reporter.log(getTimestamp() + "<font size = 2 color=\"green\"><b><u>Assert Not Null - " + description + "</font></u></b><br />");
+        TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Not Null - " + description, null, -1, true);
+        report(getTimestamp() + "<font size = 2 color=\"green\"><b><u>Assert Not Null - " + description + "</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + "Assert Not Null - " + trimHtml(description));
+            console(getTimestamp() + "Assert Not Null - " + trimHtml(description));
         }
     }
 
     public static boolean softAssertTrue(boolean condition, String description) {
         try {
             Assert.assertTrue(condition, description);
-            Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert True - " + description
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert True - " + description, null, -1, true);
+            report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert True - " + description
                     + "</font></u></b><br />");
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert True - " + trimHtml(description));
+                console(getTimestamp() + "Assert True - " + trimHtml(description));
             }
         } catch (AssertionError failure) {
-            Reporter.log(getTimestamp() + "<font size = 2 color=\"red\"><b><u>Assert True - " + description + "</b></u></font><br />");
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert True - " + description, null, -1, false);
+            report(getTimestamp() + "<font size = 2 color=\"red\"><b><u>Assert True - " + description + "</b></u></font><br />");
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert True - " + trimHtml(description));
+                console(getTimestamp() + "Assert True - " + trimHtml(description));
             }
             assertFailed.set(true);
             return false;
@@ -352,15 +517,17 @@ public class TestReporter {
 
         try {
             Assert.assertEquals(value1, value2, description);
-            Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Equals - " + description
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Equals - " + description, null, -1, true);
+            report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Equals - " + description
                     + "</font></u></b><br />");
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert Equals - " + trimHtml(description));
+                console(getTimestamp() + "Assert Equals - " + trimHtml(description));
             }
         } catch (AssertionError failure) {
-            Reporter.log(getTimestamp() + "<font size = 2 color=\"red\"><b><u>Assert Equals - " + description + "</b></u></font><br />");
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Equals - " + description, null, -1, false);
+            report(getTimestamp() + "<font size = 2 color=\"red\"><b><u>Assert Equals - " + description + "</b></u></font><br />");
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert Equals - " + trimHtml(description));
+                console(getTimestamp() + "Assert Equals - " + trimHtml(description));
             }
             assertFailed.set(true);
             return false;
@@ -372,15 +539,17 @@ public class TestReporter {
     public static boolean softAssertFalse(boolean condition, String description) {
         try {
             Assert.assertFalse(condition, description);
-            Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert False - " + description
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert False - " + description, null, -1, true);
+            report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert False - " + description
                     + "</font></u></b><br />");
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert False - " + trimHtml(description));
+                console(getTimestamp() + "Assert False - " + trimHtml(description));
             }
         } catch (AssertionError failure) {
-            Reporter.log(getTimestamp() + "<font size = 2 color=\"red\"><b><u>Assert False - " + description + "</b></u></font><br />");
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert False - " + description, null, -1, false);
+            report(getTimestamp() + "<font size = 2 color=\"red\"><b><u>Assert False - " + description + "</b></u></font><br />");
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert False - " + trimHtml(description));
+                console(getTimestamp() + "Assert False - " + trimHtml(description));
             }
             assertFailed.set(true);
             return false;
@@ -392,17 +561,19 @@ public class TestReporter {
         try {
             Assert.assertNull(condition, description);
         } catch (AssertionError failure) {
-            Reporter.log(getTimestamp() + "<font size = 2 color=\"red\"><b>Assert Null - " + description + "</font></u></b><br />");
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Null - " + description, null, -1, false);
+            report(getTimestamp() + "<font size = 2 color=\"red\"><b>Assert Null - " + description + "</font></u></b><br />");
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert Null - " + trimHtml(description));
+                console(getTimestamp() + "Assert Null - " + trimHtml(description));
             }
             assertFailed.set(true);
             return false;
         }
-        Reporter.log(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Null - " + description
+        TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Null - " + description, null, -1, true);
+        report(getTimestamp() + " <font size = 2 color=\"green\"><b><u>Assert Null - " + description
                 + "</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + "Assert Null - " + trimHtml(description));
+            console(getTimestamp() + "Assert Null - " + trimHtml(description));
         }
 
         return true;
@@ -412,17 +583,19 @@ public class TestReporter {
         try {
             Assert.assertNotNull(condition, description);
         } catch (AssertionError failure) {
-            Reporter.log(getTimestamp() + "<font size = 2 color=\"red\"><b>Assert Not Null - " + description + "</font></u></b><br />");
+            TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Not Null - " + description, null, -1, false);
+            report(getTimestamp() + "<font size = 2 color=\"red\"><b>Assert Not Null - " + description + "</font></u></b><br />");
             if (getPrintToConsole()) {
-                System.out.println(getTimestamp() + "Assert Not Null - " + trimHtml(description));
+                console(getTimestamp() + "Assert Not Null - " + trimHtml(description));
             }
             assertFailed.set(true);
             return false;
         }
-        Reporter.log(getTimestamp() + "<font size = 2 color=\"green\"><b><u>Assert Not Null - " + description
+        TestEventLog.record(TestEventLog.Type.ASSERTION, "Assert Not Null - " + description, null, -1, true);
+        report(getTimestamp() + "<font size = 2 color=\"green\"><b><u>Assert Not Null - " + description
                 + "</font></u></b><br />");
         if (getPrintToConsole()) {
-            System.out.println(getTimestamp() + "Assert Not Null - " + trimHtml(description));
+            console(getTimestamp() + "Assert Not Null - " + trimHtml(description));
         }
 
         return true;
@@ -432,7 +605,7 @@ public class TestReporter {
         boolean failed = assertFailed.get() == null ? false : assertFailed.get();
         if (failed) {
             assertFailed.set(false);
-            Reporter.log(getTimestamp() + "<font size = 2 color=\"red\"><b>Soft assertions failed - see failures above</font></u></b><br />");
+            report(getTimestamp() + "<font size = 2 color=\"red\"><b>Soft assertions failed - see failures above</font></u></b><br />");
             Assert.fail("Soft assertions failed - see testNG report for details");
         }
     }
@@ -469,10 +642,10 @@ public class TestReporter {
             String webFileLocation = fileLocation.replace(jenkinsWorkspace + jenkinsName, jenkinsPath + "ws/");
 
             TestReporter.logInfo("Web File Location : " + webFileLocation);
-            Reporter.log("<a  target='_blank' href='" + webFileLocation + "'><img src='" + webFileLocation + "' height='200' width='300'/></a>");
+            report("<a  target='_blank' href='" + webFileLocation + "'><img src='" + webFileLocation + "' height='200' width='300'/></a>");
         } else {
             TestReporter.logInfo("File Location : " + fileLocation);
-            Reporter.log("<a  target='_blank' href='" + fileLocation + "'> <img src='file:///" + fileLocation + "' height='200' width='300'/> </a>");
+            report("<a  target='_blank' href='" + fileLocation + "'> <img src='file:///" + fileLocation + "' height='200' width='300'/> </a>");
         }
     }
 
@@ -482,18 +655,15 @@ public class TestReporter {
             failFormat = "<font size = 2 color=\"red\">";
             logFailure(message);
         }
+        TestEventLog.recordApi(message, sp.getServiceURL(), sp.getExecutionTime(), pass);
         String request = sp.getRequest().replaceAll("</*>", "</*>");
         String response = sp.getResponse();
-        Reporter.log("<font size = 2><b>Endpoint: " + sp.getServiceURL() + "</b></font><br/>" + failFormat + "<b><br/> SOAP REQUEST [ " + sp.getServiceName() + "#" + sp.getOperationName() + " ] </b></font>");
-        Reporter.setEscapeHtml(true);
-        Reporter.log(request);
-        Reporter.setEscapeHtml(false);
-        Reporter.log("<br/><br/>");
-        Reporter.log(failFormat + "<b> SOAP RESPONSE [ " + sp.getServiceName() + "#" + sp.getOperationName() + " ]. Execution time: [ " + sp.getExecutionTime() + " ]</b></font>");
-        Reporter.setEscapeHtml(true);
-        Reporter.log(response);
-        Reporter.setEscapeHtml(false);
-        Reporter.log("<br/>");
+        report("<font size = 2><b>Endpoint: " + sp.getServiceURL() + "</b></font><br/>" + failFormat + "<b><br/> SOAP REQUEST [ " + sp.getServiceName() + "#" + sp.getOperationName() + " ] </b></font>");
+        reportEscaped(request);
+        report("<br/><br/>");
+        report(failFormat + "<b> SOAP RESPONSE [ " + sp.getServiceName() + "#" + sp.getOperationName() + " ]. Execution time: [ " + sp.getExecutionTime() + " ]</b></font>");
+        reportEscaped(response);
+        report("<br/>");
 
         if (!pass) {
             throw new SoapException(message);
@@ -506,16 +676,13 @@ public class TestReporter {
             failFormat = "<font size = 2 color=\"red\">";
             logFailure(message);
         }
-        Reporter.log("<font size = 2><b>Endpoint: " + rs.getMethod() + " " + rs.getURL() + "</b><br/>" + failFormat + "<b>REST REQUEST </b></font>");
-        Reporter.setEscapeHtml(true);
-        Reporter.log(rs.getRequestBody().replaceAll("</*>", "</*>"));
-        Reporter.setEscapeHtml(false);
-        Reporter.log("<br/>");
-        Reporter.log(failFormat + "<br/><b>REST RESPONSE. Execution time: [ " + rs.getExecutionTime() + " ]</b></font>");
-        Reporter.setEscapeHtml(true);
-        Reporter.log(rs.getResponse());
-        Reporter.setEscapeHtml(false);
-        Reporter.log("<br/>");
+        TestEventLog.recordApi(message, rs.getMethod() + " " + rs.getURL(), rs.getExecutionTime(), pass);
+        report("<font size = 2><b>Endpoint: " + rs.getMethod() + " " + rs.getURL() + "</b><br/>" + failFormat + "<b>REST REQUEST </b></font>");
+        reportEscaped(rs.getRequestBody().replaceAll("</*>", "</*>"));
+        report("<br/>");
+        report(failFormat + "<br/><b>REST RESPONSE. Execution time: [ " + rs.getExecutionTime() + " ]</b></font>");
+        reportEscaped(rs.getResponse());
+        report("<br/>");
 
         if (!pass) {
             throw new RestException(message);
@@ -534,7 +701,7 @@ public class TestReporter {
         // Only capture logs for chrome browser
         if (driver != null) {
             if (driver.getDriverCapability().browserName().equalsIgnoreCase("chrome")) {
-                Reporter.log("<br/><b><font size = 4>Chrome Browser Console errors: </font></b><br/>");
+                report("<br/><b><font size = 4>Chrome Browser Console errors: </font></b><br/>");
                 LogEntries logs = driver.manage().logs().get("browser");
                 List<LogEntry> logList = logs.getAll();
                 String color = "red";
@@ -542,20 +709,48 @@ public class TestReporter {
                 boolean flag = false;
                 for (LogEntry entry : logList) {
                     if (entry.getLevel() == Level.SEVERE) {
-                        Reporter.log(" <font size = 2 color=\"" + color + "\"><b> Level :: " + entry.getLevel().getName()
+                        report(" <font size = 2 color=\"" + color + "\"><b> Level :: " + entry.getLevel().getName()
                                 + "</font></b><br />");
-                        Reporter.log(" <font size = 2 color=\"" + color + "\"><b> Message :: " + entry.getMessage()
+                        report(" <font size = 2 color=\"" + color + "\"><b> Message :: " + entry.getMessage()
                                 + "</font></b><br />");
                         flag = true;
                     }
                 }
 
                 if (!flag) {
-                    Reporter.log("NO ERRORS");
+                    report("NO ERRORS");
                 }
             }
         } else {
             TestReporter.log("Driver was null, could not capture console errors");
         }
     }
+
+    /**
+     * Finds the first stack frame outside of the reporter and the reflection, proxy and TestNG frames around it. This
+     * reads the whole stack trace, so it is only called when the full class path is printed.
+     */
+    private static final class CallerResolver {
+        private static final String[] SKIPPED_PREFIXES = { "com.orasi.utils.TestReporter", "com.orasi.utils.PageLoaded", "com.orasi.utils.debugging",
+                "sun.reflect.", "java.lang.reflect.", "java.lang.Thread", "com.sun.proxy.", "org.testng.internal.",
+                "java.util.concurrent.ThreadPoolExecutor" };
+
+        private static String resolve() {
+            for (StackTraceElement element : new Throwable().getStackTrace()) {
+                if (!isSkipped(element.getClassName())) {
+                    return element.getClassName() + "#" + element.getMethodName();
+                }
+            }
+            return " > ";
+        }
+
+        private static boolean isSkipped(String className) {
+            for (String prefix : SKIPPED_PREFIXES) {
+                if (className.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
\ No newline at end of file
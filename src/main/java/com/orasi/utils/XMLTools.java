@@ -6,8 +6,11 @@ import static com.orasi.utils.TestReporter.logTrace;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -20,11 +23,9 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.w3c.dom.Document;
@@ -41,6 +42,58 @@ import com.orasi.utils.exception.XPathInvalidExpression;
 import com.orasi.utils.exception.XPathNotFoundException;
 
 public class XMLTools {
+    /**
+     * Parsers and transformers are expensive to create and not thread safe, so each thread keeps one of each. They
+     * are reset before each use so nothing set by an earlier use carries over.
+     */
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(XMLTools::createDocumentBuilder);
+    private static final ThreadLocal<Transformer> TRANSFORMER = ThreadLocal.withInitial(XMLTools::createTransformer);
+
+    private static DocumentBuilder createDocumentBuilder() {
+        logTrace("Creating Document Builder for thread [ " + Thread.currentThread().getName() + " ]");
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(false);
+        factory.setIgnoringElementContentWhitespace(true);
+        factory.setXIncludeAware(false);
+        // Entities are not loaded from outside the document
+        setFeature(factory, XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        setFeature(factory, "http://xml.org/sax/features/external-general-entities", false);
+        setFeature(factory, "http://xml.org/sax/features/external-parameter-entities", false);
+        setFeature(factory, "http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        try {
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException pce) {
+            throw new AutomationException("Failed to create a Document Builder Factory", pce);
+        }
+    }
+
+    private static void setFeature(DocumentBuilderFactory factory, String feature, boolean value) {
+        try {
+            factory.setFeature(feature, value);
+        } catch (ParserConfigurationException pce) {
+            logTrace("XML parser does not support feature [ " + feature + " ]");
+        }
+    }
+
+    private static Transformer createTransformer() {
+        logTrace("Creating XML Transformer for thread [ " + Thread.currentThread().getName() + " ]");
+        TransformerFactory tf = TransformerFactory.newInstance();
+        try {
+            tf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            return tf.newTransformer();
+        } catch (TransformerConfigurationException e) {
+            throw new SoapException("Failed to create XML Transformer", e);
+        }
+    }
+
+    /**
+     * @return Document builder of the current thread, reset to its original settings
+     */
+    private static DocumentBuilder getDocumentBuilder() {
+        DocumentBuilder builder = DOCUMENT_BUILDER.get();
+        builder.reset();
+        return builder;
+    }
 
     /**
      * Adds an Attribute to the node on the location of the xpath
@@ -57,13 +110,11 @@ public class XMLTools {
     public static Document addAttribute(Document doc, String attributeName, String xpath) {
         logTrace("Entering XMLTools#addAttribute");
         logDebug("Adding Attribute [ " + attributeName + " ] to XPath [ " + xpath + " ]");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
         try {
             logTrace("Checking validity of xpath");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe);
@@ -100,13 +151,11 @@ public class XMLTools {
     public static Document removeAttribute(Document doc, String attributeName, String xpath) {
         logTrace("Entering XMLTools#removeAttribute");
         logDebug("Removing Attribute [ " + attributeName + " ] to XPath [ " + xpath + " ]");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
         try {
             logTrace("Checking validity of xpath");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe);
@@ -143,8 +192,6 @@ public class XMLTools {
     public static Document addNamespace(Document doc, String namespace, String xpath) {
         logTrace("Entering XMLTools#addNamespace");
         logDebug("Adding Namespace [ " + namespace + " ] to XPath [ " + xpath + " ]");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
         String[] values = namespace.split(",");
@@ -155,7 +202,7 @@ public class XMLTools {
         String namespaceURL = values[1];
         try {
             logTrace("Checking validity of xpath");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe);
@@ -192,14 +239,12 @@ public class XMLTools {
     public static Document addNode(Document doc, String nodeName, String xpath) {
         logTrace("Entering XMLTools#addNode");
         logDebug("Adding Node [ " + nodeName + " ] on XPath [ " + xpath + " ]");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
 
         try {
             logTrace("Checking validity of xpath");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe);
@@ -239,15 +284,13 @@ public class XMLTools {
      */
     public static Document removeNode(Document doc, String xpath) {
         logTrace("Entering XMLTools#removeNode");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
 
         logDebug("Remove node from xpath [ " + xpath + " ]");
         try {
             logTrace("Checking validity of xpath");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException e1) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ");
@@ -280,15 +323,13 @@ public class XMLTools {
     public static String getValueByXpath(Document doc, String xpath) {
         logTrace("Entering XMLTools#getValueByXpath");
         logDebug("Get value from XPath [ " + xpath + " ]");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
 
         // Evaluate the xpath
         try {
             logTrace("Checking validity of xpath");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe);
@@ -317,24 +358,16 @@ public class XMLTools {
      */
     public static Document makeXMLDocument(SOAPMessage soapXML) {
         logTrace("Entering XMLTools#makeXMLDocument");
-        logTrace("Creating Document factory");
         Document doc = null;
 
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();) {
             logTrace("Attempting to transform SoapMessage to XML");
             soapXML.writeTo(outputStream);
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(false);
-            factory.setIgnoringElementContentWhitespace(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            try (ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray())) {
-                InputSource source = new InputSource(new ByteArrayInputStream(outputStream.toByteArray()));
+            try (InputStream inputStream = outputStream.toInputStream()) {
+                InputSource source = new InputSource(inputStream);
                 source.setEncoding("ISO-8859-1");
-                doc = builder.parse(source);
-                source = null;
+                doc = getDocumentBuilder().parse(source);
             }
-        } catch (ParserConfigurationException pce) {
-            throw new AutomationException("Failed to create a Document Builder Factory", pce);
         } catch (SAXException saxe) {
             throw new AutomationException("Failed to parse the xml", saxe);
         } catch (IOException | SOAPException ioe) {
@@ -358,21 +391,12 @@ public class XMLTools {
      */
     public static Document makeXMLDocument(String xml) {
         logTrace("Entering XMLTools#makeXMLDocument");
-        logTrace("Creating Document factory");
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setNamespaceAware(false);
-        factory.setIgnoringElementContentWhitespace(true);
-        DocumentBuilder builder;
         Document doc = null;
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(xml.toString().getBytes());) {
+        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(xml.getBytes());) {
             logTrace("Attempting to transform String to XML");
-            builder = factory.newDocumentBuilder();
             InputSource source = new InputSource(inputStream);
             source.setEncoding("ISO-8859-1");
-            doc = builder.parse(source);
-            source = null;
-        } catch (ParserConfigurationException pce) {
-            throw new AutomationException("Failed to create a Document Builder Factory", pce);
+            doc = getDocumentBuilder().parse(source);
         } catch (SAXException saxe) {
             throw new AutomationException("Failed to parse the xml", saxe);
         } catch (IOException ioe) {
@@ -397,21 +421,14 @@ public class XMLTools {
      */
     public static Document makeXMLDocument(File file) {
         logTrace("Entering XMLTools#makeXMLDocument");
-        logTrace("Creating Document factory");
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setNamespaceAware(false);
-        factory.setIgnoringElementContentWhitespace(true);
         Document doc = null;
         try {
-            DocumentBuilder builder = factory.newDocumentBuilder();
             logTrace("Attempting to from file and save as to XML. File [ " + file.getPath() + " ]");
-            doc = builder.parse(file);
+            doc = getDocumentBuilder().parse(file);
         } catch (SAXException saxe) {
             throw new AutomationException("Failed to parse the xml", saxe);
         } catch (IOException ioe) {
             throw new AutomationException("Failed to find the source XML", ioe);
-        } catch (ParserConfigurationException pce) {
-            throw new AutomationException("Failed to create a Document Builder Factory", pce);
         }
 
         logTrace("Successfully transformed String to XML. Normalize document");
@@ -433,29 +450,13 @@ public class XMLTools {
     public static String transformXmlToString(Document doc) {
         logTrace("Entering XMLTools#transformXmlToString");
 
-        TransformerFactory tf = TransformerFactory.newInstance();
-        Transformer transformer = null;
-        logTrace("Starting XML to String transformer");
-        try {
-            transformer = tf.newTransformer();
-        } catch (TransformerConfigurationException e) {
-            throw new SoapException("Failed to create XML Transformer", e);
-        }
-
-        logTrace("Adding XML transformer properties");
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
-        transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-
         String xml;
         try (StringWriter sw = new StringWriter()) {
 
             logTrace("Attempting to transform XML to String ");
-            transformer.transform(new DOMSource(doc), new StreamResult(sw));
+            transform(doc, new StreamResult(sw));
             xml = sw.toString();
-        } catch (TransformerException | IOException e) {
+        } catch (IOException e) {
             logTrace("Failed to transform XML to String ");
             throw new SoapException(
                     "Failed to transform Request XML Document. Ensure XML Document has been successfully loaded.", e);
@@ -466,6 +467,43 @@ public class XMLTools {
         return xml;
     }
 
+    /**
+     * Write a XML Document to a stream as UTF-8, formatted the same as {@link #transformXmlToString(Document)}. The
+     * bytes are written as the Document is serialized, without building a String first.
+     *
+     * @param doc
+     *            XML Document to write
+     * @param out
+     *            Stream to write to. It is not closed.
+     */
+    public static void transformXmlToStream(Document doc, OutputStream out) {
+        logTrace("Entering XMLTools#transformXmlToStream");
+        transform(doc, new StreamResult(out));
+        logTrace("Exiting XMLTools#transformXmlToStream");
+    }
+
+    private static void transform(Document doc, StreamResult result) {
+        logTrace("Starting XML transformer");
+        Transformer transformer = TRANSFORMER.get();
+        // Reset clears the output properties too, so they are set again for each use
+        transformer.reset();
+
+        logTrace("Adding XML transformer properties");
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
+        transformer.setOutputProperty(OutputKeys.METHOD, "xml");
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+
+        try {
+            transformer.transform(new DOMSource(doc), result);
+        } catch (TransformerException e) {
+            logTrace("Failed to transform XML");
+            throw new SoapException(
+                    "Failed to transform Request XML Document. Ensure XML Document has been successfully loaded.", e);
+        }
+    }
+
     /**
      * A recursive method that will iterate through all nodes and delete Comment nodes
      *
@@ -500,12 +538,10 @@ public class XMLTools {
      */
     public static Document removeWhiteSpace(Document doc) {
         logTrace("Entering XMLTools#removeWhiteSpace");
-        XPath xp = XPathFactory.newInstance().newXPath();
         NodeList nl = null;
         try {
             logTrace("Get Node list of all whitespace nodes");
-            nl = (NodeList) xp.evaluate("//text()[normalize-space(.)='']", doc,
-                    XPathConstants.NODESET);
+            nl = (NodeList) XPathCache.compile("//text()[normalize-space(.)='']").evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException e) {
             throw new XPathNotFoundException("Xpath evaluation failed to normalize white space");
         }
@@ -534,13 +570,11 @@ public class XMLTools {
      */
     public static NodeList getNodeList(Document doc, String xpath) {
         logTrace("Entering XMLTools#getNodeList");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
         try {
             logTrace("Checking validity of xpath");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ");
@@ -571,13 +605,11 @@ public class XMLTools {
      */
     public static NodeList getNodeList(Node nodeList, String xpath) {
         logTrace("Entering XMLTools#getNodeList");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
         try {
             logTrace("Checking validity of xpath");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(nodeList, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe);
@@ -607,13 +639,11 @@ public class XMLTools {
      */
     public static Node getNode(Node nodeList, String xpath) {
         logTrace("Entering XMLTools#getNode");
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xPath = xPathFactory.newXPath();
         XPathExpression expr;
         NodeList nList = null;
         try {
             logTrace("Checking validity of xpath");
-            expr = xPath.compile(xpath);
+            expr = XPathCache.compile(xpath);
             nList = (NodeList) expr.evaluate(nodeList, XPathConstants.NODESET);
         } catch (XPathExpressionException xpe) {
             throw new XPathInvalidExpression("Xpath evaluation failed with xpath [ " + xpath + " ] ", xpe);
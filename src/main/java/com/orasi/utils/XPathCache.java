@@ -0,0 +1,128 @@
+package com.orasi.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import com.orasi.AutomationException;
+
+/**
+ * Compiled XPath expressions used by {@link XMLTools} and the SOAP services, so the XPath factory is only looked up
+ * once per thread and an XPath used many times, such as in a scenario file, is only compiled once.
+ * <br/>
+ * <br/>
+ * Compiled expressions and {@link XPath} objects are not thread safe, so each thread has its own XPath and its own
+ * cache. Each cache holds up to {@link #getMaxSize()} expressions and drops the least recently used one when it is
+ * full. Hits and misses are counted across all threads and logged with each miss in TRACE mode.
+ */
+public final class XPathCache {
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static volatile int maxSize = DEFAULT_MAX_SIZE;
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private static final ThreadLocal<XPath> XPATH = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+    private static final ThreadLocal<Map<String, XPathExpression>> EXPRESSIONS = ThreadLocal
+            .withInitial(() -> new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                    return size() > maxSize;
+                }
+            });
+
+    private XPathCache() {
+    }
+
+    /**
+     * @param xpath
+     *            XPath to compile
+     * @return Compiled expression for the current thread, from the cache if it was compiled before
+     * @throws XPathExpressionException
+     *             If the XPath is not valid. Invalid XPaths are not cached.
+     */
+    public static XPathExpression compile(String xpath) throws XPathExpressionException {
+        Map<String, XPathExpression> expressions = EXPRESSIONS.get();
+        XPathExpression expression = expressions.get(xpath);
+        if (expression != null) {
+            hits.increment();
+            return expression;
+        }
+
+        misses.increment();
+        expression = XPATH.get().compile(xpath);
+        expressions.put(xpath, expression);
+        TestReporter.logTrace(() -> "Compiled XPath [ " + xpath + " ]. " + getStatistics());
+        return expression;
+    }
+
+    /**
+     * @return XPath of the current thread, for evaluating an expression that should not be cached
+     */
+    public static XPath getXPath() {
+        return XPATH.get();
+    }
+
+    /**
+     * @param maxSize
+     *            Most expressions each thread keeps compiled. Caches already larger shrink as expressions are added.
+     */
+    public static void setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new AutomationException("XPath cache size must be at least 1: [ " + maxSize + " ]");
+        }
+        XPathCache.maxSize = maxSize;
+    }
+
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return Number of expressions cached for the current thread
+     */
+    public static int size() {
+        return EXPRESSIONS.get().size();
+    }
+
+    /**
+     * Remove the expressions cached for the current thread
+     */
+    public static void clear() {
+        EXPRESSIONS.get().clear();
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Share of lookups, across all threads, that found a compiled expression, from 0 to 1
+     */
+    public static double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public static void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    public static String getStatistics() {
+        return String.format("XPathCache [hits=%d, misses=%d, hitRate=%.1f%%, size=%d, maxSize=%d]", getHits(), getMisses(), getHitRate() * 100,
+                size(), maxSize);
+    }
+}
@@ -5,10 +5,8 @@ import static com.orasi.utils.TestReporter.logTrace;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
+import com.fasterxml.jackson.databind.JsonNode;
+import com.orasi.api.restServices.JsonMapperRegistry;
 import com.orasi.api.restServices.exceptions.RestException;
 import com.orasi.utils.exception.DataProviderInputFileException;
 import com.orasi.utils.exception.DataProviderInputFileNotFound;
@@ -84,7 +82,7 @@ public class JsonDataProvider {
 
         logTrace("Attempt to load json file");
         String json = null;
-        JSONArray testData = null;
+        JsonNode testData = null;
 
         try {
             json = FileLoader.loadFileFromProjectAsString(filePath);
@@ -96,71 +94,66 @@ public class JsonDataProvider {
 
         logTrace("Json file loaded, attempt to parse");
         try {
-            testData = new JSONObject(json).getJSONArray("testData");
-        } catch (JSONException e) {
+            testData = JsonMapperRegistry.getInstance().getMapper().readTree(json).get("testData");
+        } catch (IOException e) {
+            throw new DataProviderInputFileException("Failed to parse json file [ " + filePath + " ]: " + e.getMessage());
+        }
+        if (testData == null || !testData.isArray()) {
             throw new DataProviderInputFileException("First JSON object was not [ testData ]");
         }
 
         logTrace("Determing dataprovider array rows");
-        int rows = testData.length();
+        int rows = testData.size();
         logTrace("Rows will be [ " + rows + " ]");
 
         logTrace("Parsing data parameters");
-        JSONArray data;
-        try {
-            data = (JSONArray) testData.getJSONObject(0).get("data");
-        } catch (JSONException e) {
+        JsonNode data = rows == 0 ? null : testData.get(0).get("data");
+        if (data == null || !data.isArray()) {
             throw new DataProviderInputFileException("Inner data JSON object was not found");
         }
 
         logTrace("Determing dataprovider array columns");
-        int columns = data.length() + 1;
+        int columns = data.size() + 1;
         logTrace("Columns will be [ " + columns + " ]");
 
         Object[][] dataArray = new String[rows][columns];
         logTrace("Transferring data to Array");
 
         int rowNum,
-                colNum,
-                iterationColumnLength;
+                colNum;
 
         String iterationName = null,
                 parameterName = null,
                 parameterValue = null;
 
         for (rowNum = 0; rowNum < rows; rowNum++) {
-            try {
-                iterationName = testData.getJSONObject(rowNum).get("iterationName").toString();
-            } catch (JSONException e2) {
+            JsonNode iteration = testData.get(rowNum);
+            if (!iteration.has("iterationName")) {
                 throw new DataProviderInputFileException("TestData iteration [ " + (rowNum + 1) + " ] is missing it's [ iterationName ] object");
             }
+            iterationName = toText(iteration.get("iterationName"));
 
             logTrace("Storing data parameters for iteration name [ " + iterationName + " ]");
             dataArray[rowNum][0] = iterationName;
 
+            JsonNode iterationData = iteration.get("data");
             for (colNum = 1; colNum < columns; colNum++) {
-                try {
-                    parameterName = ((JSONArray) testData.getJSONObject(rowNum).get("data")).getJSONObject(colNum - 1).get("name").toString();
+                JsonNode parameter = iterationData == null ? null : iterationData.get(colNum - 1);
+                parameterName = parameter == null || !parameter.has("name") ? null : toText(parameter.get("name"));
+                if (parameterName != null) {
                     logTrace("Storing data parameter for iteration name [ " + iterationName + " ] and data parameter name [ " + parameterName + " ]");
-                } catch (JSONException e2) {
-                    parameterName = null;
                 }
 
-                try {
-                    iterationColumnLength = ((JSONArray) testData.getJSONObject(0).get("data")).length();
-                    if (columns != iterationColumnLength + 1) {
-                        throw new DataProviderInputFileException("Number of parameters for iterationName [ " + iterationName + " ] was [ " + iterationColumnLength + " ] instead of [ " + (columns - 1) + " ] as expected");
-                    }
-                    parameterValue = ((JSONArray) testData.getJSONObject(rowNum).get("data")).getJSONObject(colNum - 1).get("value").toString();
-                    dataArray[rowNum][colNum] = parameterValue;
-                    logTrace("Storing data parameter for iteration name [ " + iterationName + " ] and data parameter name [ " + parameterName + " ] with value [ " + parameterValue + " ]");
-                } catch (JSONException e) {
+                if (parameter == null || !parameter.has("value")) {
                     if (null == parameterName) {
                         throw new DataProviderInputFileException("Failed to find [ value ] in data iteration name [ " + iterationName + " ]");
                     } else {
                         throw new DataProviderInputFileException("Failed to find [ value ] for parameter [ " + parameterName + " ] in data iteration name [ " + iterationName + " ]");
                     }
                 }
+                parameterValue = toText(parameter.get("value"));
+                dataArray[rowNum][colNum] = parameterValue;
+                logTrace("Storing data parameter for iteration name [ " + iterationName + " ] and data parameter name [ " + parameterName + " ] with value [ " + parameterValue + " ]");
             }
 
         }
@@ -169,4 +162,12 @@ public class JsonDataProvider {
         return dataArray;
     }
 
+    /**
+     * Values are returned the way they appear in the file, so numbers and booleans become their text and objects
+     * become their JSON
+     */
+    private static String toText(JsonNode value) {
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
 }
@@ -0,0 +1,601 @@
+package com.orasi.web;
+
+import static com.orasi.utils.TestReporter.logTrace;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.WebDriverException;
+
+import com.orasi.AutomationException;
+import com.orasi.utils.Constants;
+import com.orasi.utils.TestReporter;
+
+/**
+ * Keeps warm {@link OrasiDriver} sessions between test methods so a new browser
+ * does not have to be started for every test. Sessions are grouped by a key built
+ * from the browser, browser version, operating system and run location.
+ * <br/>
+ * <br/>
+ * When a test ends, the session is reset (extra windows closed, cookies and web
+ * storage cleared, timeouts restored) and handed back to the pool. A session is
+ * evicted and quit when it no longer responds, when it is older than the max
+ * session age, or when it has been used the max number of times.
+ * <br/>
+ * <br/>
+ * Sessions can also be pre-warmed: while a test runs, the next sessions for the
+ * same key are started on a background executor so the following test only has to
+ * claim one. The number of sessions started at the same time is capped so a grid is
+ * not flooded with new session requests.
+ * <br/>
+ * <br/>
+ * The pool is disabled by default. It is configured from the suite parameters
+ * <b>driverPool</b>, <b>driverPoolMaxIdle</b>, <b>driverPoolMaxSessionAge</b>,
+ * <b>driverPoolMaxUses</b>, <b>driverPoolPrewarm</b> and
+ * <b>driverPoolMaxConcurrentStarts</b>, see {@link WebBaseTest#configureDriverPool}
+ */
+public class DriverPool {
+    private static final DriverPool INSTANCE = new DriverPool();
+
+    public static final int DEFAULT_MAX_IDLE_PER_KEY = 5;
+    public static final int DEFAULT_MAX_SESSION_AGE = 1800;
+    public static final int DEFAULT_MAX_USES = 50;
+    public static final int DEFAULT_MAX_CONCURRENT_STARTS = 5;
+
+    private final Map<String, Deque<PooledSession>> idleSessions = new ConcurrentHashMap<>();
+    private final Map<OrasiDriver, PooledSession> activeSessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> pendingSessions = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = false;
+    private volatile int maxIdlePerKey = DEFAULT_MAX_IDLE_PER_KEY;
+    private volatile int maxSessionAge = DEFAULT_MAX_SESSION_AGE;
+    private volatile int maxUses = DEFAULT_MAX_USES;
+    private volatile int maxSessionsPerKey = 0;
+    private volatile int prewarmCount = 0;
+    private volatile int maxConcurrentStarts = DEFAULT_MAX_CONCURRENT_STARTS;
+    private volatile Semaphore startPermits = new Semaphore(DEFAULT_MAX_CONCURRENT_STARTS);
+    private volatile ExecutorService provisioner;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong prewarmed = new AtomicLong();
+    private final AtomicLong failedStarts = new AtomicLong();
+    private final AtomicLong totalSessionAge = new AtomicLong();
+    private final AtomicLong maxObservedSessionAge = new AtomicLong();
+
+    private DriverPool() {
+    }
+
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Builds the key used to group interchangeable sessions
+     *
+     * @param browserUnderTest
+     * @param browserVersion
+     * @param operatingSystem
+     * @param runLocation
+     * @return Key for the pool
+     */
+    public static String createKey(String browserUnderTest, String browserVersion, String operatingSystem, String runLocation) {
+        return String.valueOf(browserUnderTest).trim().toLowerCase() + "|"
+                + String.valueOf(browserVersion).trim().toLowerCase() + "|"
+                + String.valueOf(operatingSystem).trim().toLowerCase() + "|"
+                + String.valueOf(runLocation).trim().toLowerCase();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxIdlePerKey() {
+        return maxIdlePerKey;
+    }
+
+    /**
+     * @param maxIdlePerKey
+     *            Maximum number of idle sessions kept for a single key. Sessions released
+     *            when the pool is full are quit.
+     */
+    public void setMaxIdlePerKey(int maxIdlePerKey) {
+        this.maxIdlePerKey = maxIdlePerKey;
+    }
+
+    public int getMaxSessionAge() {
+        return maxSessionAge;
+    }
+
+    /**
+     * @param maxSessionAge
+     *            Maximum age in seconds of a session before it is evicted. Zero or less
+     *            disables the age check.
+     */
+    public void setMaxSessionAge(int maxSessionAge) {
+        this.maxSessionAge = maxSessionAge;
+    }
+
+    public int getMaxUses() {
+        return maxUses;
+    }
+
+    /**
+     * @param maxUses
+     *            Maximum number of tests a session may be used for before it is
+     *            evicted. Zero or less disables the check.
+     */
+    public void setMaxUses(int maxUses) {
+        this.maxUses = maxUses;
+    }
+
+    public int getMaxSessionsPerKey() {
+        return maxSessionsPerKey;
+    }
+
+    /**
+     * @param maxSessionsPerKey
+     *            Maximum number of sessions, in use or pre-warmed, for a single key.
+     *            Typically the TestNG thread-count since no more sessions than that
+     *            can be used at once. Zero or less disables the check.
+     */
+    public void setMaxSessionsPerKey(int maxSessionsPerKey) {
+        this.maxSessionsPerKey = maxSessionsPerKey;
+    }
+
+    public int getPrewarmCount() {
+        return prewarmCount;
+    }
+
+    /**
+     * @param prewarmCount
+     *            Number of idle sessions to keep started ahead of the tests for each
+     *            key. Zero disables pre-warming.
+     */
+    public void setPrewarmCount(int prewarmCount) {
+        this.prewarmCount = prewarmCount;
+    }
+
+    public int getMaxConcurrentStarts() {
+        return maxConcurrentStarts;
+    }
+
+    /**
+     * @param maxConcurrentStarts
+     *            Maximum number of sessions being started at the same time, both
+     *            in the background and on test threads
+     */
+    public synchronized void setMaxConcurrentStarts(int maxConcurrentStarts) {
+        if (maxConcurrentStarts < 1) {
+            throw new AutomationException("Max concurrent session starts must be at least 1");
+        }
+        if (this.maxConcurrentStarts != maxConcurrentStarts) {
+            this.maxConcurrentStarts = maxConcurrentStarts;
+            startPermits = new Semaphore(maxConcurrentStarts);
+            stopProvisioner();
+        }
+    }
+
+    /**
+     * Starts a new session with the factory, waiting first if the max number of
+     * sessions are already being started
+     *
+     * @param factory
+     *            Creates the driver
+     * @return The new driver
+     */
+    public OrasiDriver startSession(Callable<OrasiDriver> factory) {
+        Semaphore permits = startPermits;
+        try {
+            permits.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new AutomationException("Interrupted while waiting to start a browser session", ie);
+        }
+
+        try {
+            return factory.call();
+        } catch (RuntimeException rte) {
+            failedStarts.incrementAndGet();
+            throw rte;
+        } catch (Exception e) {
+            failedStarts.incrementAndGet();
+            throw new AutomationException("Failed to start a browser session", e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Starts sessions for the key in the background until the number of idle and
+     * pending sessions reaches the pre-warm count, without going over the max
+     * sessions per key. Does nothing if pre-warming is disabled.
+     *
+     * @param key
+     *            Key created by {@link #createKey(String, String, String, String)}
+     * @param factory
+     *            Creates a driver matching the key. Runs on a background thread.
+     */
+    public void prewarm(String key, Callable<OrasiDriver> factory) {
+        if (!enabled || prewarmCount <= 0) {
+            return;
+        }
+
+        int target = Math.min(prewarmCount, maxIdlePerKey);
+        if (maxSessionsPerKey > 0) {
+            target = Math.min(target, maxSessionsPerKey - getActiveCount(key));
+        }
+
+        AtomicInteger pending = pendingSessions.computeIfAbsent(key, k -> new AtomicInteger());
+        ExecutorService executor = getProvisioner();
+        int current;
+        while ((current = pending.get()) + getIdleCount(key) < target) {
+            if (pending.compareAndSet(current, current + 1)) {
+                logTrace("Pre-warming a session for [ " + key + " ]");
+                executor.execute(() -> provision(key, factory, executor, pending));
+            }
+        }
+    }
+
+    /**
+     * Hands out an idle session for the key. Idle sessions that are expired or do
+     * not respond are evicted along the way.
+     *
+     * @param key
+     *            Key created by {@link #createKey(String, String, String, String)}
+     * @return A warm session, or null if none are available and a new driver
+     *         needs to be created and {@link #register(String, OrasiDriver)
+     *         registered}
+     */
+    public OrasiDriver claim(String key) {
+        logTrace("Entering DriverPool#claim");
+        Deque<PooledSession> sessions = idleSessions.get(key);
+        PooledSession session = null;
+
+        while (sessions != null && (session = sessions.pollFirst()) != null) {
+            if (isExpired(session)) {
+                evict(session, "session expired");
+            } else if (!isAlive(session)) {
+                evict(session, "session no longer responding");
+            } else {
+                break;
+            }
+        }
+
+        if (session == null) {
+            misses.incrementAndGet();
+            logTrace("No idle session available for [ " + key + " ]");
+            logTrace("Exiting DriverPool#claim");
+            return null;
+        }
+
+        long age = session.getAge();
+        hits.incrementAndGet();
+        totalSessionAge.addAndGet(age);
+        maxObservedSessionAge.accumulateAndGet(age, Math::max);
+        session.uses.incrementAndGet();
+        activeSessions.put(session.driver, session);
+        logTrace("Reusing session for [ " + key + " ]. Age [ " + age / 1000.0 + " ] seconds, use [ " + session.uses.get() + " ]");
+        logTrace("Exiting DriverPool#claim");
+        return session.driver;
+    }
+
+    /**
+     * Starts tracking a newly created driver so it can be returned to the pool when
+     * the test ends
+     *
+     * @param key
+     *            Key created by {@link #createKey(String, String, String, String)}
+     * @param driver
+     *            Newly created driver
+     */
+    public void register(String key, OrasiDriver driver) {
+        PooledSession session = new PooledSession(key, driver);
+        session.uses.incrementAndGet();
+        created.incrementAndGet();
+        activeSessions.put(driver, session);
+    }
+
+    /**
+     * Resets the session and returns it to the pool. If the session is expired,
+     * cannot be reset or the pool is full, it is quit instead.
+     *
+     * @param driver
+     *            Driver handed out by {@link #claim(String)} or
+     *            {@link #register(String, OrasiDriver) registered} with the pool
+     * @return True if the driver was managed by the pool, false if the caller is
+     *         still responsible for quitting it
+     */
+    public boolean release(OrasiDriver driver) {
+        logTrace("Entering DriverPool#release");
+        PooledSession session = driver == null ? null : activeSessions.remove(driver);
+        if (session == null) {
+            logTrace("Exiting DriverPool#release");
+            return false;
+        }
+
+        if (!enabled) {
+            evict(session, "pool disabled");
+        } else if (isExpired(session)) {
+            evict(session, "session expired");
+        } else if (!reset(session)) {
+            evict(session, "session could not be reset");
+        } else {
+            Deque<PooledSession> sessions = idleSessions.computeIfAbsent(session.key, key -> new ConcurrentLinkedDeque<>());
+            if (sessions.size() >= maxIdlePerKey) {
+                evict(session, "pool is full");
+            } else {
+                sessions.offerFirst(session);
+                logTrace("Returned session for [ " + session.key + " ] to the pool");
+            }
+        }
+        logTrace("Exiting DriverPool#release");
+        return true;
+    }
+
+    /**
+     * Quits every session known to the pool and stops the pre-warming in progress.
+     * Should be called at the end of the suite.
+     */
+    public void shutdown() {
+        logTrace("Entering DriverPool#shutdown");
+        stopProvisioner();
+        idleSessions.values().forEach(sessions -> {
+            PooledSession session;
+            while ((session = sessions.pollFirst()) != null) {
+                quit(session);
+            }
+        });
+        activeSessions.values().forEach(this::quit);
+        activeSessions.clear();
+        logTrace("Exiting DriverPool#shutdown");
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getPrewarmed() {
+        return prewarmed.get();
+    }
+
+    public long getFailedStarts() {
+        return failedStarts.get();
+    }
+
+    public int getIdleCount() {
+        return idleSessions.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    public int getIdleCount(String key) {
+        Deque<PooledSession> sessions = idleSessions.get(key);
+        return sessions == null ? 0 : sessions.size();
+    }
+
+    public int getActiveCount() {
+        return activeSessions.size();
+    }
+
+    public int getActiveCount(String key) {
+        return (int) activeSessions.values().stream().filter(session -> session.key.equals(key)).count();
+    }
+
+    public int getPendingCount() {
+        return pendingSessions.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    /**
+     * @return Percentage of claims that were served with an idle session
+     */
+    public double getHitRatio() {
+        long claims = hits.get() + misses.get();
+        return claims == 0 ? 0 : hits.get() * 100.0 / claims;
+    }
+
+    /**
+     * @return Average age in seconds of the sessions handed out by the pool
+     */
+    public double getAverageSessionAge() {
+        return hits.get() == 0 ? 0 : totalSessionAge.get() / 1000.0 / hits.get();
+    }
+
+    /**
+     * @return Age in seconds of the oldest session handed out by the pool
+     */
+    public double getMaxSessionAgeObserved() {
+        return maxObservedSessionAge.get() / 1000.0;
+    }
+
+    /**
+     * Clears the hit, miss, eviction and session age counters
+     */
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        created.set(0);
+        evictions.set(0);
+        prewarmed.set(0);
+        failedStarts.set(0);
+        totalSessionAge.set(0);
+        maxObservedSessionAge.set(0);
+    }
+
+    public void logStatistics() {
+        TestReporter.log(toString());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Driver pool: hits [ %d ], misses [ %d ], hit ratio [ %.1f%% ], created [ %d ], pre-warmed [ %d ], failed starts [ %d ], evicted [ %d ], idle [ %d ], active [ %d ], average session age [ %.1f ] seconds, max session age [ %.1f ] seconds",
+                getHits(), getMisses(), getHitRatio(), getCreated(), getPrewarmed(), getFailedStarts(), getEvictions(), getIdleCount(), getActiveCount(), getAverageSessionAge(),
+                getMaxSessionAgeObserved());
+    }
+
+    private synchronized ExecutorService getProvisioner() {
+        if (provisioner == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            provisioner = Executors.newFixedThreadPool(maxConcurrentStarts, runnable -> {
+                Thread thread = new Thread(runnable, "DriverPool-prewarm-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return provisioner;
+    }
+
+    private synchronized void stopProvisioner() {
+        if (provisioner != null) {
+            provisioner.shutdownNow();
+            provisioner = null;
+        }
+        // Queued starts were dropped, sessions still starting are quit when they finish
+        pendingSessions.clear();
+    }
+
+    private void provision(String key, Callable<OrasiDriver> factory, ExecutorService executor, AtomicInteger pending) {
+        try {
+            PooledSession session = new PooledSession(key, startSession(factory));
+            created.incrementAndGet();
+            prewarmed.incrementAndGet();
+
+            // The pool was shut down or reconfigured while the session was starting
+            if (!enabled || executor != provisioner) {
+                quit(session);
+                return;
+            }
+
+            Deque<PooledSession> sessions = idleSessions.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+            if (sessions.size() >= maxIdlePerKey) {
+                evict(session, "pool is full");
+            } else {
+                sessions.offerLast(session);
+            }
+        } catch (RuntimeException rte) {
+            logTrace("Failed to pre-warm a session for [ " + key + " ]: " + rte.getMessage());
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    private boolean isExpired(PooledSession session) {
+        if (maxSessionAge > 0 && session.getAge() > maxSessionAge * 1000L) {
+            return true;
+        }
+        return maxUses > 0 && session.uses.get() >= maxUses;
+    }
+
+    private boolean isAlive(PooledSession session) {
+        try {
+            session.driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException wde) {
+            return false;
+        }
+    }
+
+    /**
+     * Puts the session back into the state of a newly started browser: a single
+     * window on a blank page with no cookies, no web storage and the default
+     * timeouts
+     */
+    private boolean reset(PooledSession session) {
+        OrasiDriver driver = session.driver;
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            if (handles.isEmpty()) {
+                return false;
+            }
+
+            String primaryWindow = handles.contains(session.primaryWindow) ? session.primaryWindow : handles.iterator().next();
+            for (String handle : handles) {
+                if (!handle.equals(primaryWindow)) {
+                    driver.switchTo().window(handle);
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(primaryWindow);
+            driver.switchTo().defaultContent();
+            session.primaryWindow = primaryWindow;
+
+            // Storage and cookies are scoped to the current origin, clear them before leaving the page
+            try {
+                driver.executeJavaScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            } catch (WebDriverException noPageLoaded) {
+                // Nothing has been loaded in the window, so there is no storage to clear
+            }
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+
+            driver.setElementTimeout(Constants.ELEMENT_TIMEOUT);
+            driver.setPageTimeout(Constants.PAGE_TIMEOUT);
+            driver.setScriptTimeout(Constants.DEFAULT_GLOBAL_DRIVER_TIMEOUT);
+            return true;
+        } catch (WebDriverException wde) {
+            logTrace("Failed to reset session for [ " + session.key + " ]: " + wde.getMessage());
+            return false;
+        }
+    }
+
+    private void evict(PooledSession session, String reason) {
+        evictions.incrementAndGet();
+        logTrace("Evicting session for [ " + session.key + " ]: " + reason);
+        quit(session);
+    }
+
+    private void quit(PooledSession session) {
+        try {
+            session.driver.quit();
+        } catch (WebDriverException wde) {
+            logTrace("Failed to quit session for [ " + session.key + " ]: " + wde.getMessage());
+        }
+    }
+
+    static class PooledSession {
+        private final String key;
+        private final OrasiDriver driver;
+        private final long createdMillis = System.currentTimeMillis();
+        private final AtomicInteger uses = new AtomicInteger();
+        private String primaryWindow;
+
+        PooledSession(String key, OrasiDriver driver) {
+            this.key = key;
+            this.driver = driver;
+            try {
+                primaryWindow = driver.getWindowHandle();
+            } catch (WebDriverException wde) {
+                primaryWindow = null;
+            }
+        }
+
+        long getAge() {
+            return System.currentTimeMillis() - createdMillis;
+        }
+    }
+}
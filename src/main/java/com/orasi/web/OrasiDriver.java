@@ -2,7 +2,9 @@ package com.orasi.web;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -10,6 +12,7 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.Platform;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
@@ -20,6 +23,7 @@ import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 import org.openqa.selenium.ie.InternetExplorerDriver;
 import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.internal.WrapsElement;
 import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.LocalFileDetector;
 import org.openqa.selenium.remote.RemoteExecuteMethod;
@@ -35,6 +39,7 @@ import com.orasi.web.debugging.Highlight;
 import com.orasi.web.webelements.Button;
 import com.orasi.web.webelements.Checkbox;
 import com.orasi.web.webelements.Element;
+import com.orasi.web.webelements.ElementState;
 import com.orasi.web.webelements.Label;
 import com.orasi.web.webelements.Link;
 import com.orasi.web.webelements.Listbox;
@@ -56,9 +61,43 @@ public class OrasiDriver implements WebDriver, TakesScreenshot {
     private DataWarehouse dataWarehouse;
     private int currentPageTimeout;
     private int currentElementTimeout;
+    private long elementTimeoutMillis;
+    private long appliedImplicitWaitMillis = -1;
     private int currentScriptTimeout;
+    private PageLoadTiming pageLoadTiming;
     public static boolean DEFAULT_SYNC_HANDLER = true;
 
+    /**
+     * Reads the values of each element in arguments[0], along with the attributes named in arguments[1]
+     */
+    private static final String READ_ELEMENTS_SCRIPT = "var els = arguments[0], names = arguments[1], out = [];"
+            + "var bools = ['checked', 'selected', 'disabled', 'readonly', 'multiple', 'required', 'hidden'];"
+            + "function shown(e) {"
+            + "  if (e.tagName == 'OPTION' || e.tagName == 'OPTGROUP') { var s = e; while (s && s.tagName != 'SELECT') { s = s.parentNode; } if (s) { return shown(s); } }"
+            + "  if (e.tagName == 'INPUT' && String(e.type).toLowerCase() == 'hidden') { return false; }"
+            + "  var style = window.getComputedStyle(e);"
+            + "  if (style.visibility == 'hidden' || style.visibility == 'collapse') { return false; }"
+            + "  for (var n = e; n && n.nodeType == 1; n = n.parentNode) { if (window.getComputedStyle(n).display == 'none') { return false; } }"
+            + "  return true;"
+            + "}"
+            + "function attr(e, name) {"
+            + "  var lower = name.toLowerCase();"
+            + "  if (bools.indexOf(lower) > -1) { return (e[lower] || e.hasAttribute(name)) ? 'true' : null; }"
+            + "  var p = lower == 'class' ? e.className : e[name];"
+            + "  if (p !== undefined && p !== null && typeof p != 'object' && typeof p != 'function') { return String(p); }"
+            + "  return e.getAttribute(name);"
+            + "}"
+            + "for (var i = 0; i < els.length; i++) {"
+            + "  var e = els[i], r = e.getBoundingClientRect(), visible = shown(e), attrs = {};"
+            + "  for (var j = 0; j < names.length; j++) { attrs[names[j]] = attr(e, names[j]); }"
+            + "  var text = visible ? (e.innerText !== undefined ? e.innerText : e.textContent) : '';"
+            + "  out.push({ tagName: e.tagName, text: String(text || '').replace(/\\u00a0/g, ' ').trim(),"
+            + "    value: e.value === undefined || e.value === null ? e.getAttribute('value') : String(e.value),"
+            + "    displayed: visible, enabled: !e.disabled, selected: !!(e.checked || e.selected),"
+            + "    x: r.left + (window.pageXOffset || 0), y: r.top + (window.pageYOffset || 0), width: r.width, height: r.height, attributes: attrs });"
+            + "}"
+            + "return out;";
+
     public OrasiDriver() {
     }
 
@@ -72,6 +111,7 @@ public class OrasiDriver implements WebDriver, TakesScreenshot {
     public OrasiDriver(DesiredCapabilities caps) {
         currentPageTimeout = Constants.PAGE_TIMEOUT;
         currentElementTimeout = Constants.ELEMENT_TIMEOUT;
+        elementTimeoutMillis = TimeUnit.SECONDS.toMillis(Constants.ELEMENT_TIMEOUT);
         currentScriptTimeout = Constants.DEFAULT_GLOBAL_DRIVER_TIMEOUT;
         setDriverWithCapabilties(caps);
     }
@@ -88,6 +128,7 @@ public class OrasiDriver implements WebDriver, TakesScreenshot {
     public OrasiDriver(DesiredCapabilities caps, URL url) {
         currentPageTimeout = Constants.PAGE_TIMEOUT;
         currentElementTimeout = Constants.ELEMENT_TIMEOUT;
+        elementTimeoutMillis = TimeUnit.SECONDS.toMillis(Constants.ELEMENT_TIMEOUT);
         currentScriptTimeout = Constants.DEFAULT_GLOBAL_DRIVER_TIMEOUT;
         driver = new RemoteWebDriver(url, caps);
     }
@@ -104,6 +145,7 @@ public class OrasiDriver implements WebDriver, TakesScreenshot {
 
     public void setDriver(WebDriver driver) {
         this.driver = driver;
+        appliedImplicitWaitMillis = -1;
     }
 
     /**
@@ -238,7 +280,8 @@ public class OrasiDriver implements WebDriver, TakesScreenshot {
      */
     public void setElementTimeout(int timeout, TimeUnit timeUnit) {
         this.currentElementTimeout = timeout;
-        driver.manage().timeouts().implicitlyWait(timeout, timeUnit);
+        this.elementTimeoutMillis = timeUnit.toMillis(timeout);
+        applyImplicitWait(elementTimeoutMillis);
     }
 
     /**
@@ -250,6 +293,64 @@ public class OrasiDriver implements WebDriver, TakesScreenshot {
         return currentElementTimeout;
     }
 
+    /**
+     * Temporarily changes the element timeout until the returned scope is closed, at which
+     * point the previous element timeout is restored. Intended for use with try-with-resources
+     * so the timeout is restored even if the lookup throws, and scopes may be nested.
+     * Example usage:
+     * try (TimeoutScope scope = getDriver().elementTimeoutScope(1, TimeUnit.MILLISECONDS)) {
+     * &nbsp;&nbsp;&nbsp;&nbsp;rows = table.findElements(By.tagName("tr"));
+     * }
+     *
+     * @param timeout
+     *            - timeout to use within the scope
+     * @param timeUnit
+     *            -Java TimeUnit, used to determine the unit of time to be associated with the timeout
+     * @return - scope which restores the previous element timeout when closed
+     */
+    public TimeoutScope elementTimeoutScope(int timeout, TimeUnit timeUnit) {
+        TimeoutScope scope = new TimeoutScope(currentElementTimeout, elementTimeoutMillis);
+        setElementTimeout(timeout, timeUnit);
+        return scope;
+    }
+
+    /**
+     * Sends the implicit wait to the browser only when it differs from the value last sent,
+     * since each call is a round trip to the driver (or grid)
+     */
+    private void applyImplicitWait(long millis) {
+        if (millis != appliedImplicitWaitMillis) {
+            driver.manage().timeouts().implicitlyWait(millis, TimeUnit.MILLISECONDS);
+            appliedImplicitWaitMillis = millis;
+        }
+    }
+
+    /**
+     * Restores the element timeout that was in effect when
+     * {@link OrasiDriver#elementTimeoutScope(int, TimeUnit)} was called
+     */
+    public final class TimeoutScope implements AutoCloseable {
+        private final int previousTimeout;
+        private final long previousTimeoutMillis;
+        private boolean closed = false;
+
+        private TimeoutScope(int previousTimeout, long previousTimeoutMillis) {
+            this.previousTimeout = previousTimeout;
+            this.previousTimeoutMillis = previousTimeoutMillis;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            currentElementTimeout = previousTimeout;
+            elementTimeoutMillis = previousTimeoutMillis;
+            applyImplicitWait(previousTimeoutMillis);
+        }
+    }
+
     /**
      * Used when you want to upload a local file to the remote webdriver for use
      * on the selenium grid nodes.
@@ -577,6 +678,8 @@ public class OrasiDriver implements WebDriver, TakesScreenshot {
      */
     @Override
     public Options manage() {
+        // Caller may change the implicit wait directly, so the next element timeout is always sent
+        appliedImplicitWaitMillis = -1;
         return driver.manage();
     }
 
@@ -619,6 +722,60 @@ public class OrasiDriver implements WebDriver, TakesScreenshot {
         return ((JavascriptExecutor) driver).executeAsyncScript(script, parameters);
     }
 
+    /**
+     * Reads the tag name, text, value, displayed, enabled and selected state, position and the requested attributes
+     * of all the elements in a single call to the browser, instead of one call per value per element. Attributes
+     * follow {@link WebElement#getAttribute(String)}, using the property where there is one. If the browser cannot run
+     * the script, each element is read separately.
+     *
+     * @param elements
+     *            Elements to read
+     * @param attributes
+     *            Attributes to read in addition to the standard values
+     * @return State of each element, in the same order as the elements given
+     */
+    @SuppressWarnings("unchecked")
+    public List<ElementState> readElements(List<? extends WebElement> elements, String... attributes) {
+        TestReporter.logTrace("Entering OrasiDriver#readElements");
+        List<ElementState> states = new ArrayList<>(elements.size());
+        if (elements.isEmpty()) {
+            TestReporter.logTrace("Exiting OrasiDriver#readElements");
+            return states;
+        }
+
+        List<WebElement> unwrapped = new ArrayList<>(elements.size());
+        for (WebElement element : elements) {
+            while (element instanceof WrapsElement && ((WrapsElement) element).getWrappedElement() != element) {
+                element = ((WrapsElement) element).getWrappedElement();
+            }
+            unwrapped.add(element);
+        }
+
+        Object result = null;
+        if (driver instanceof JavascriptExecutor) {
+            try {
+                result = executeJavaScript(READ_ELEMENTS_SCRIPT, unwrapped, Arrays.asList(attributes));
+            } catch (StaleElementReferenceException sere) {
+                throw sere;
+            } catch (WebDriverException wde) {
+                TestReporter.logDebug("Unable to read elements with JavaScript, reading each element: " + wde.getMessage());
+            }
+        }
+
+        if (result instanceof List && ((List<?>) result).size() == unwrapped.size()) {
+            for (Object state : (List<Object>) result) {
+                states.add(ElementState.fromScript((Map<String, Object>) state));
+            }
+        } else {
+            for (WebElement element : unwrapped) {
+                states.add(ElementState.fromElement(element, attributes));
+            }
+        }
+
+        TestReporter.logTrace("Exiting OrasiDriver#readElements");
+        return states;
+    }
+
     /**
      * Method to return the RemoteWebDriver session ID
      *
@@ -758,6 +915,19 @@ public class OrasiDriver implements WebDriver, TakesScreenshot {
         return new PageLoaded();
     }
 
+    /**
+     * Timing of the last page {@link PageLoaded} waited on or read the timing of
+     *
+     * @return Timing of the last page load, or null if PageLoaded has not waited on or read a page yet
+     */
+    public PageLoadTiming getPageLoadTiming() {
+        return pageLoadTiming;
+    }
+
+    void setPageLoadTiming(PageLoadTiming pageLoadTiming) {
+        this.pageLoadTiming = pageLoadTiming;
+    }
+
     /*
      * Method that returns the instance of the DataWarehouse
      */
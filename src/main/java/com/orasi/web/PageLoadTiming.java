@@ -0,0 +1,88 @@
+package com.orasi.web;
+
+import java.util.Map;
+
+/**
+ * Timing of the last page load, read from the browser's Navigation Timing values once {@link PageLoaded} finds the
+ * page is loaded, or when {@link PageLoaded#readPageLoadTiming(OrasiDriver)} is called. Values the browser does not
+ * report, or that have not happened yet, are -1.
+ */
+public final class PageLoadTiming {
+    private final String url;
+    private final long timeToFirstByte;
+    private final long domInteractive;
+    private final long domContentLoaded;
+    private final long pageLoad;
+    private final long waitTime;
+
+    PageLoadTiming(String url, Map<String, Object> timing, long waitTime) {
+        this.url = url;
+        this.waitTime = waitTime;
+        long navigationStart = timing == null ? 0 : toLong(timing.get("navigationStart"));
+        this.timeToFirstByte = since(navigationStart, timing, "responseStart");
+        this.domInteractive = since(navigationStart, timing, "domInteractive");
+        this.domContentLoaded = since(navigationStart, timing, "domContentLoadedEventEnd");
+        this.pageLoad = since(navigationStart, timing, "loadEventEnd");
+    }
+
+    private static long since(long navigationStart, Map<String, Object> timing, String name) {
+        if (navigationStart <= 0) {
+            return -1;
+        }
+        long value = toLong(timing.get(name));
+        return value <= 0 ? -1 : value - navigationStart;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    /**
+     * @return URL of the page when it finished loading
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return Milliseconds from the start of navigation to the first byte of the response
+     */
+    public long getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    /**
+     * @return Milliseconds from the start of navigation until the DOM was interactive
+     */
+    public long getDomInteractiveTime() {
+        return domInteractive;
+    }
+
+    /**
+     * @return Milliseconds from the start of navigation until DOMContentLoaded finished
+     */
+    public long getDomContentLoadedTime() {
+        return domContentLoaded;
+    }
+
+    /**
+     * @return Milliseconds from the start of navigation until the load event finished
+     */
+    public long getPageLoadTime() {
+        return pageLoad;
+    }
+
+    /**
+     * @return Milliseconds PageLoaded waited before the page was loaded and quiet, or 0 if the timing was read
+     *         without waiting
+     */
+    public long getWaitTime() {
+        return waitTime;
+    }
+
+    @Override
+    public String toString() {
+        return "PageLoadTiming [url=" + url + ", timeToFirstByte=" + timeToFirstByte + ", domInteractive=" + domInteractive + ", domContentLoaded="
+                + domContentLoaded + ", pageLoad=" + pageLoad + ", waitTime=" + waitTime + "]";
+    }
+}
@@ -1,7 +1,10 @@
 package com.orasi.web;
 
+import static com.orasi.utils.TestReporter.logDebug;
 import static com.orasi.utils.TestReporter.logFailure;
+import static com.orasi.utils.TestReporter.logTrace;
 
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.openqa.selenium.NoSuchElementException;
@@ -9,6 +12,8 @@ import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriverException;
 
 import com.orasi.utils.Sleeper;
+import com.orasi.utils.TestEventLog;
+import com.orasi.web.OrasiDriver.TimeoutScope;
 import com.orasi.web.exceptions.PageInitialization;
 import com.orasi.web.webelements.Element;
 
@@ -21,6 +26,100 @@ import com.orasi.web.webelements.Element;
  *
  */
 public class PageLoaded {
+    /**
+     * How long there must be no XHR or fetch requests outstanding before {@link #isPageLoaded(OrasiDriver)} treats
+     * the page as quiet. Set to -1 to not wait for requests.
+     */
+    public static long DEFAULT_NETWORK_IDLE_MILLISECONDS = 500;
+
+    /**
+     * Each wait script finishes this long before the driver script timeout so it is not killed by it
+     */
+    private static final long SCRIPT_TIMEOUT_MARGIN_MILLISECONDS = 500;
+
+    /**
+     * How long to wait before trying again when the wait script fails
+     */
+    private static final long POLL_MILLISECONDS = 100;
+
+    /**
+     * Defines timing(), which returns the Navigation Timing values of the window w, or null if the browser has none
+     */
+    private static final String TIMING_FUNCTION = "var timing = function() {"
+            + "  var t = w.performance && w.performance.timing;"
+            + "  return t ? { navigationStart: t.navigationStart, responseStart: t.responseStart, domInteractive: t.domInteractive,"
+            + "      domContentLoadedEventEnd: t.domContentLoadedEventEnd, loadEventEnd: t.loadEventEnd } : null;"
+            + "};";
+
+    /**
+     * Returns the url and Navigation Timing values of the current page straight away
+     */
+    private static final String READ_TIMING_SCRIPT = "var w = window;" + TIMING_FUNCTION + "return { url: w.location.href, timing: timing() };";
+
+    /**
+     * Waits in the browser until the page is ready, checking every 50ms, then calls back with the navigation timing.
+     * arguments: ready state to wait for ('interactive' also accepts 'complete'), milliseconds the network must be
+     * idle (-1 to ignore requests), whether to wait for jQuery and Angular, and the most milliseconds to wait. The
+     * first call on a page counts outstanding XHR and fetch requests from then on.
+     */
+    private static final String WAIT_SCRIPT = "var args = arguments, done = args[args.length - 1], target = args[0], idle = args[1], frameworks = args[2], maxWait = args[3];"
+            + "var w = window;"
+            + "if (!w.__orasiNetwork) {"
+            + "  var net = w.__orasiNetwork = { pending: 0, last: 0 };"
+            + "  var started = function() { net.pending++; net.last = new Date().getTime(); };"
+            + "  var finished = function() { net.pending = Math.max(0, net.pending - 1); net.last = new Date().getTime(); };"
+            + "  try {"
+            + "    if (w.XMLHttpRequest) {"
+            + "      var send = w.XMLHttpRequest.prototype.send;"
+            + "      w.XMLHttpRequest.prototype.send = function() {"
+            + "        var xhr = this, ended = false;"
+            + "        var end = function() { if (!ended && xhr.readyState == 4) { ended = true; finished(); } };"
+            + "        started();"
+            + "        xhr.addEventListener('readystatechange', end);"
+            + "        xhr.addEventListener('loadend', end);"
+            + "        try { return send.apply(xhr, arguments); } catch (e) { if (!ended) { ended = true; finished(); } throw e; }"
+            + "      };"
+            + "    }"
+            + "    if (w.fetch) {"
+            + "      var fetch = w.fetch;"
+            + "      w.fetch = function() {"
+            + "        started();"
+            + "        return fetch.apply(this, arguments).then(function(r) { finished(); return r; }, function(e) { finished(); throw e; });"
+            + "      };"
+            + "    }"
+            + "  } catch (e) {}"
+            + "}"
+            + "var ready = function() {"
+            + "  var state = document.readyState;"
+            + "  if (state != 'complete' && !(target == 'interactive' && state == 'interactive')) { return false; }"
+            + "  if (idle >= 0) {"
+            + "    var n = w.__orasiNetwork;"
+            + "    if (n.pending > 0 || new Date().getTime() - n.last < idle) { return false; }"
+            + "  }"
+            + "  if (frameworks) {"
+            + "    if (w.jQuery && w.jQuery.active > 0) { return false; }"
+            + "    try {"
+            + "      if (w.angular && w.angular.element) {"
+            + "        var injector = w.angular.element(document.body).injector();"
+            + "        if (injector && injector.get('$http').pendingRequests.length > 0) { return false; }"
+            + "      }"
+            + "    } catch (e) {}"
+            + "    if (w.getAllAngularTestabilities) {"
+            + "      var testabilities = w.getAllAngularTestabilities();"
+            + "      for (var i = 0; i < testabilities.length; i++) { if (!testabilities[i].isStable()) { return false; } }"
+            + "    }"
+            + "  }"
+            + "  return true;"
+            + "};"
+            + TIMING_FUNCTION
+            + "var start = new Date().getTime();"
+            + "var check = function() {"
+            + "  if (ready()) { done({ ready: true, url: w.location.href, timing: timing() }); return; }"
+            + "  if (new Date().getTime() - start >= maxWait) { done({ ready: false, state: document.readyState }); return; }"
+            + "  setTimeout(check, 50);"
+            + "};"
+            + "check();";
+
     /**
      * This waits for a specified element on the page to be found on the page by
      * the driver Uses the default test time out set by WebDriverSetup
@@ -59,15 +158,13 @@ public class PageLoaded {
      * @return False if the element is not found after the timeout, true if is
      *         found
      */
-    @SuppressWarnings("rawtypes")
+    @SuppressWarnings({ "rawtypes", "try" })
     public static boolean isElementLoaded(Class clazz, OrasiDriver oDriver, Element obj, int timeout) {
         int count = 0;
-        int driverTimeout = oDriver.getElementTimeout();
-        // set the timeout for looking for an element to 1 second as we are
-        // doing a loop and then refreshing the elements
-        oDriver.setElementTimeout(1, TimeUnit.MILLISECONDS);
-
-        try {
+        // set the timeout for looking for an element to 1 millisecond as we are
+        // doing a loop and then refreshing the elements. The previous timeout
+        // is restored when the scope closes
+        try (TimeoutScope scope = oDriver.elementTimeoutScope(1, TimeUnit.MILLISECONDS)) {
 
             while (!obj.elementWired()) {
                 if (count == timeout) {
@@ -79,9 +176,6 @@ public class PageLoaded {
 
         } catch (NullPointerException | NoSuchElementException | StaleElementReferenceException | PageInitialization e) {
             return false;
-        } finally {
-            // set the timeout for looking for an element back to the default timeout
-            oDriver.setElementTimeout(driverTimeout, TimeUnit.SECONDS);
         }
 
         if (count < timeout) {
@@ -122,27 +216,7 @@ public class PageLoaded {
      *         found
      */
     public static boolean isDomInteractive(OrasiDriver oDriver, int timeout) {
-        int count = 0;
-        Object obj = null;
-
-        do {
-            // this returns a boolean
-            obj = oDriver.executeJavaScript(
-                    "var result = document.readyState; return (result == 'complete' || result == 'interactive');");
-            if (count == timeout) {
-                break;
-            }
-            Sleeper.sleep(500);
-            count++;
-
-        } while (obj.equals(false));
-
-        if (count < (timeout * 2)) {
-            return true;
-        }
-
-        return false;
-
+        return waitForPage(oDriver, timeout, "interactive", -1, false);
     }
 
     /**
@@ -198,26 +272,114 @@ public class PageLoaded {
      *         found
      */
     public static boolean isDomComplete(OrasiDriver oDriver, int timeout) {
-        int count = 0;
-        Object obj = null;
+        return waitForPage(oDriver, timeout, "complete", -1, false);
+    }
+
+    /**
+     * Waits until the page is loaded and quiet: the ready state is 'complete', there have been no XHR or fetch
+     * requests outstanding for {@link #DEFAULT_NETWORK_IDLE_MILLISECONDS}, and if the page uses jQuery or Angular,
+     * they report no outstanding work. The timing of the page load is then available from
+     * {@link OrasiDriver#getPageLoadTiming()}.
+     *
+     * @param oDriver
+     *            The webDriver
+     * @return False if the page is not loaded and quiet after the page timeout, true if it is
+     */
+    public static boolean isPageLoaded(OrasiDriver oDriver) {
+        return isPageLoaded(oDriver, oDriver.getPageTimeout());
+    }
+
+    /**
+     * Overloaded method - gives option of specifying a timeout. Waits until the page is loaded and quiet: the ready
+     * state is 'complete', there have been no XHR or fetch requests outstanding for
+     * {@link #DEFAULT_NETWORK_IDLE_MILLISECONDS}, and if the page uses jQuery or Angular, they report no outstanding
+     * work. Requests are counted from the first time the page is checked, so requests started before then are not
+     * seen. The timing of the page load is then available from {@link OrasiDriver#getPageLoadTiming()}.
+     *
+     * @param oDriver
+     *            The webDriver
+     * @param timeout
+     *            Integer value of number seconds to wait for a page to finish
+     *            loaded before quiting
+     * @return False if the page is not loaded and quiet after the timeout, true if it is
+     */
+    public static boolean isPageLoaded(OrasiDriver oDriver, int timeout) {
+        return waitForPage(oDriver, timeout, "complete", DEFAULT_NETWORK_IDLE_MILLISECONDS, true);
+    }
+
+    /**
+     * Reads the Navigation Timing values of the current page without waiting for it to be ready or quiet, such as to
+     * record how long a page took to load once it has already been checked. Values the page has not reached yet are
+     * -1.
+     *
+     * @param oDriver
+     *            The webDriver
+     * @return Timing of the current page, which is also available from {@link OrasiDriver#getPageLoadTiming()}, or
+     *         null if the browser could not run the script
+     */
+    @SuppressWarnings("unchecked")
+    public static PageLoadTiming readPageLoadTiming(OrasiDriver oDriver) {
+        logTrace("Entering PageLoaded#readPageLoadTiming");
+        PageLoadTiming timing = null;
+        try {
+            Object result = oDriver.executeJavaScript(READ_TIMING_SCRIPT);
+            if (result instanceof Map) {
+                Map<String, Object> values = (Map<String, Object>) result;
+                timing = new PageLoadTiming((String) values.get("url"), (Map<String, Object>) values.get("timing"), 0);
+                oDriver.setPageLoadTiming(timing);
+            }
+        } catch (WebDriverException wde) {
+            logTrace("Unable to read page load timing: " + wde.getMessage());
+        }
+        logTrace("Exiting PageLoaded#readPageLoadTiming");
+        return timing;
+    }
+
+    /**
+     * Waits inside the browser with a single async script, which returns as soon as the page is ready. Waits longer
+     * than the script timeout are split into several calls. If the script fails, such as when the page navigates
+     * away while waiting, the wait is retried until the timeout.
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean waitForPage(OrasiDriver oDriver, int timeout, String readyState, long idleMillis, boolean frameworks) {
+        logTrace("Entering PageLoaded#waitForPage");
+        long start = System.currentTimeMillis();
+        long deadline = start + TimeUnit.SECONDS.toMillis(timeout);
+        long scriptTimeout = TimeUnit.SECONDS.toMillis(oDriver.getScriptTimeout()) - SCRIPT_TIMEOUT_MARGIN_MILLISECONDS;
 
         do {
-            // this returns a boolean
-            obj = oDriver.executeJavaScript("var result = document.readyState; return (result == 'complete');");
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            Object result = null;
+            try {
+                result = oDriver.executeAsyncJavaScript(WAIT_SCRIPT, readyState, idleMillis, frameworks, Math.max(0, Math.min(remaining, scriptTimeout)));
+            } catch (WebDriverException wde) {
+                logTrace("Page wait script failed, retrying: " + wde.getMessage());
+            }
 
-            if (count == timeout) {
-                break;
-            } else {
-                Sleeper.sleep(500);
-                count++;
+            if (result instanceof Map && Boolean.TRUE.equals(((Map<String, Object>) result).get("ready"))) {
+                Map<String, Object> values = (Map<String, Object>) result;
+                PageLoadTiming timing = new PageLoadTiming((String) values.get("url"), (Map<String, Object>) values.get("timing"),
+                        System.currentTimeMillis() - start);
+                oDriver.setPageLoadTiming(timing);
+                logDebug("Page [ " + timing.getUrl() + " ] ready after waiting [ " + timing.getWaitTime() + " ] ms. Load time [ " + timing.getPageLoadTime()
+                        + " ] ms, DOM interactive [ " + timing.getDomInteractiveTime() + " ] ms");
+                TestEventLog.record(TestEventLog.Type.SYNC, "Page ready", timing.getUrl(), timing.getWaitTime(), true);
+                logTrace("Exiting PageLoaded#waitForPage");
+                return true;
             }
 
-        } while (obj.equals(false));
+            if (!(result instanceof Map) || scriptTimeout <= 0) {
+                try {
+                    Sleeper.poll(Math.min(POLL_MILLISECONDS, Math.max(0, deadline - System.currentTimeMillis())));
+                } catch (InterruptedException e) {
+                    logTrace("Page wait interrupted");
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } while (System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted());
+        TestEventLog.record(TestEventLog.Type.SYNC, "Page not ready", null, System.currentTimeMillis() - start, false);
 
-        if (count < timeout * 2) {
-            return true;
-        } else {
-            return false;
-        }
+        logTrace("Exiting PageLoaded#waitForPage");
+        return false;
     }
-}
\ No newline at end of file
+}
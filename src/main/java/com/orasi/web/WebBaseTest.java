@@ -1,6 +1,8 @@
 package com.orasi.web;
 
 import static org.apache.commons.collections.CollectionUtils.isNotEmpty;
+import static org.apache.commons.lang3.BooleanUtils.toBoolean;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 import java.io.File;
 import java.io.IOException;
@@ -16,9 +18,13 @@ import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.safari.SafariOptions;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
+import org.testng.xml.XmlTest;
 
 import com.orasi.AutomationException;
 import com.orasi.BaseTest;
@@ -232,6 +238,77 @@ public class WebBaseTest extends BaseTest {
     // ************************************
     // ************************************
 
+    /**
+     * Configures the {@link DriverPool} from the suite parameters. When the pool is
+     * enabled, browser sessions for local and grid runs are reused across test
+     * methods instead of being quit in {@link #endTest}
+     *
+     * @param context
+     *            Used to find the highest TestNG thread-count in the suite, which caps
+     *            the number of sessions the pool keeps for one browser configuration
+     * @param driverPool
+     *            true to enable the driver pool. Defaults to false
+     * @param driverPoolMaxIdle
+     *            Maximum number of idle sessions kept per browser/version/OS/runLocation
+     * @param driverPoolMaxSessionAge
+     *            Maximum age of a session in seconds before it is evicted
+     * @param driverPoolMaxUses
+     *            Maximum number of tests a session is used for before it is evicted
+     * @param driverPoolPrewarm
+     *            Number of sessions to start in the background ahead of the next tests.
+     *            Defaults to 0, sessions are only started when a test needs one
+     * @param driverPoolMaxConcurrentStarts
+     *            Maximum number of sessions being started at the same time against
+     *            the browser/grid
+     */
+    @BeforeSuite(alwaysRun = true)
+    @Parameters({ "driverPool", "driverPoolMaxIdle", "driverPoolMaxSessionAge", "driverPoolMaxUses", "driverPoolPrewarm", "driverPoolMaxConcurrentStarts" })
+    public void configureDriverPool(ITestContext context, @Optional String driverPool, @Optional String driverPoolMaxIdle, @Optional String driverPoolMaxSessionAge,
+            @Optional String driverPoolMaxUses, @Optional String driverPoolPrewarm, @Optional String driverPoolMaxConcurrentStarts) {
+        DriverPool pool = DriverPool.getInstance();
+        pool.setEnabled(toBoolean(driverPool));
+        if (isNotBlank(driverPoolMaxIdle)) {
+            pool.setMaxIdlePerKey(Integer.parseInt(driverPoolMaxIdle.trim()));
+        }
+        if (isNotBlank(driverPoolMaxSessionAge)) {
+            pool.setMaxSessionAge(Integer.parseInt(driverPoolMaxSessionAge.trim()));
+        }
+        if (isNotBlank(driverPoolMaxUses)) {
+            pool.setMaxUses(Integer.parseInt(driverPoolMaxUses.trim()));
+        }
+        if (isNotBlank(driverPoolPrewarm)) {
+            pool.setPrewarmCount(Integer.parseInt(driverPoolPrewarm.trim()));
+        }
+        if (isNotBlank(driverPoolMaxConcurrentStarts)) {
+            pool.setMaxConcurrentStarts(Integer.parseInt(driverPoolMaxConcurrentStarts.trim()));
+        }
+
+        int threadCount = context.getSuite().getXmlSuite().getThreadCount();
+        for (XmlTest test : context.getSuite().getXmlSuite().getTests()) {
+            threadCount = Math.max(threadCount, test.getThreadCount());
+        }
+        pool.setMaxSessionsPerKey(threadCount);
+
+        if (pool.isEnabled()) {
+            TestReporter.log("Driver pool enabled. Max idle per key [ " + pool.getMaxIdlePerKey() + " ], max session age [ "
+                    + pool.getMaxSessionAge() + " ] seconds, max uses [ " + pool.getMaxUses() + " ], pre-warm [ "
+                    + pool.getPrewarmCount() + " ], max concurrent starts [ " + pool.getMaxConcurrentStarts()
+                    + " ], max sessions per key [ " + pool.getMaxSessionsPerKey() + " ]");
+        }
+    }
+
+    /**
+     * Reports the {@link DriverPool} statistics and quits any pooled sessions
+     */
+    @AfterSuite(alwaysRun = true)
+    public void shutdownDriverPool() {
+        DriverPool pool = DriverPool.getInstance();
+        if (pool.isEnabled()) {
+            pool.logStatistics();
+        }
+        pool.shutdown();
+    }
+
     /**
      * Doubling up to cover different threading between before test and before method
      *
@@ -364,6 +441,9 @@ public class WebBaseTest extends BaseTest {
         if (getRunLocation().equalsIgnoreCase("sauce")) {
             reportToSauceLabs(testResults.getStatus());
         }
+        if (releaseToDriverPool()) {
+            return;
+        }
         // quit driver
         if (getDriver() != null && isNotEmpty(getDriver().getWindowHandles()) && !getDriver().toString().contains("null")) {
             getDriver().quit();
@@ -385,6 +465,9 @@ public class WebBaseTest extends BaseTest {
                 reportToSauceLabs(ITestResult.FAILURE);
             }
         }
+        if (releaseToDriverPool()) {
+            return;
+        }
         // quit driver
         if (getDriver() != null && getDriver().getWindowHandles().size() > 0) {
             if (!getDriver().toString().contains("null")) {
@@ -393,6 +476,29 @@ public class WebBaseTest extends BaseTest {
         }
     }
 
+    /**
+     * Hands the current driver back to the {@link DriverPool} if the pool is managing it
+     *
+     * @return True if the pool took the driver, false if it still needs to be quit
+     */
+    private boolean releaseToDriverPool() {
+        OrasiDriver currentDriver = getDriver();
+        if (currentDriver != null && DriverPool.getInstance().release(currentDriver)) {
+            setDriver(null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Only local and grid sessions are pooled. Sauce Labs sessions are reported per
+     * job and mobile sessions are tied to a device
+     */
+    private boolean isDriverPoolEligible() {
+        return DriverPool.getInstance().isEnabled()
+                && (getRunLocation().equalsIgnoreCase("local") || getRunLocation().equalsIgnoreCase("grid"));
+    }
+
     /**
      * Ends the test for a sauce labs run by passing in the test results (pass/fail)
      * and quits
@@ -423,32 +529,63 @@ public class WebBaseTest extends BaseTest {
      * @throws InterruptedException
      */
     private void driverSetup() {
+        if (!isDriverPoolEligible()) {
+            setDriver(createDriver());
+            return;
+        }
+
+        DriverPool pool = DriverPool.getInstance();
+        String poolKey = DriverPool.createKey(browserUnderTest, browserVersion, operatingSystem, getRunLocation());
+        OrasiDriver pooledDriver = pool.claim(poolKey);
+        if (pooledDriver != null) {
+            // Pooled sessions are reset with default timeouts when they are released
+            setDriver(pooledDriver);
+        } else {
+            // Nothing warm in the pool, start the session on this thread
+            setDriver(pool.startSession(this::createDriver));
+            pool.register(poolKey, getDriver());
+        }
+
+        // Start the sessions for the upcoming tests while this one runs
+        pool.prewarm(poolKey, this::createDriver);
+    }
+
+    /**
+     * Creates a new driver for the run location and sets the default timeouts.
+     * Does not assign the driver to the test so it can also be used to start
+     * sessions in the background for the {@link DriverPool}
+     *
+     * @return New driver ready to be used by a test
+     */
+    private OrasiDriver createDriver() {
+        OrasiDriver newDriver;
         // local execution
         if (getRunLocation().equalsIgnoreCase("local")) {
-            localDriverSetup();
+            newDriver = localDriverSetup();
 
             // Code for running on remote execution such as a selenium grid or saucelabs
         } else if (getRunLocation().equalsIgnoreCase("grid") || getRunLocation().equalsIgnoreCase("sauce")) {
-            remoteDriverSetup();
+            newDriver = remoteDriverSetup();
         }
         // Code for running on mobile devices
         else if (getRunLocation().equalsIgnoreCase("mobile")) {
-            mobileDriverSetup();
+            newDriver = mobileDriverSetup();
         } else {
             throw new AutomationException(
                     "Parameter for run [Location] was not set to 'Local', 'Grid', 'Sauce', 'Mobile'");
         }
 
         // Set the timeouts to the defaults according to the constants class
-        getDriver().setElementTimeout(Constants.ELEMENT_TIMEOUT);
-        getDriver().setPageTimeout(Constants.PAGE_TIMEOUT);
-        getDriver().setScriptTimeout(Constants.DEFAULT_GLOBAL_DRIVER_TIMEOUT);
+        newDriver.setElementTimeout(Constants.ELEMENT_TIMEOUT);
+        newDriver.setPageTimeout(Constants.PAGE_TIMEOUT);
+        newDriver.setScriptTimeout(Constants.DEFAULT_GLOBAL_DRIVER_TIMEOUT);
 
         // Microsoft Edge Browser
         if (!browserUnderTest.toLowerCase().contains("edge") && !getRunLocation().toLowerCase().contains("mobile")) {
-            getDriver().manage().deleteAllCookies();
-            getDriver().manage().window().maximize();
+            newDriver.manage().deleteAllCookies();
+            newDriver.manage().window().maximize();
         }
+        return newDriver;
     }
 
     /**
@@ -459,7 +596,7 @@ public class WebBaseTest extends BaseTest {
      * @author jessica.marshall
      * @date 9/13/2016
      */
-    private void localDriverSetup() {
+    private OrasiDriver localDriverSetup() {
 
         File file = null;
         DesiredCapabilities caps = new DesiredCapabilities();
@@ -525,7 +662,7 @@ public class WebBaseTest extends BaseTest {
                 throw new AutomationException("Parameter not set for browser type");
         }
 
-        setDriver(new OrasiDriver(caps));
+        return new OrasiDriver(caps);
     }
 
     /**
@@ -535,7 +672,7 @@ public class WebBaseTest extends BaseTest {
      * @author jessica.marshall
      * @date 9/13/2016
      */
-    private void remoteDriverSetup() {
+    private OrasiDriver remoteDriverSetup() {
         // Capabilities for the remote web driver
         DesiredCapabilities caps = new DesiredCapabilities();
         // Browser
@@ -573,15 +710,17 @@ public class WebBaseTest extends BaseTest {
         }
         caps.setCapability("name", getTestName());
         // Create the remote web driver
+        OrasiDriver remoteDriver;
         try {
-            setDriver(new OrasiDriver(caps, new URL(getRemoteURL())));
+            remoteDriver = new OrasiDriver(caps, new URL(getRemoteURL()));
         } catch (MalformedURLException e) {
             throw new AutomationException("Problem with creatting the remote web driver: ", e);
 
         }
 
         // allows for local files to be uploaded via remote webdriver on grid machines
-        getDriver().setFileDetector();
+        remoteDriver.setFileDetector();
+        return remoteDriver;
     }
 
     /**
@@ -598,7 +737,7 @@ public class WebBaseTest extends BaseTest {
      * @date 9/28/2016
      * @author jessica.marshall
      */
-    private void mobileDriverSetup() {
+    private OrasiDriver mobileDriverSetup() {
         DesiredCapabilities caps = new DesiredCapabilities();
         // if a device ID is specified, go to that device
         if (deviceID.isEmpty()) {
@@ -617,7 +756,7 @@ public class WebBaseTest extends BaseTest {
         }
 
         try {
-            setDriver(new OrasiDriver(caps, new URL(getRemoteURL())));
+            return new OrasiDriver(caps, new URL(getRemoteURL()));
         } catch (MalformedURLException e) {
             throw new AutomationException("Could not generate the moblile remote driver", e);
         }
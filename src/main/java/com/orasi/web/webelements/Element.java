@@ -249,6 +249,17 @@ public interface Element extends WebElement, WrapsElement, Locatable {
      */
     public void scrollIntoView();
 
+    /**
+     * Reads the tag name, text, value, displayed, enabled and selected state, position and the requested attributes
+     * of the element in a single call to the browser
+     *
+     * @param attributes
+     *            Attributes to read in addition to the standard values
+     * @return State of the element at the time it was read
+     * @see com.orasi.web.OrasiDriver#readElements(List, String...)
+     */
+    ElementState readState(String... attributes);
+
     @Beta
     @Override
     public <X> X getScreenshotAs(OutputType<X> target);
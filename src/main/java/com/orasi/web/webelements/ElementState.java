@@ -0,0 +1,137 @@
+package com.orasi.web.webelements;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Snapshot of the commonly read values of an element, as returned by
+ * {@link com.orasi.web.OrasiDriver#readElements(java.util.List, String...)} and {@link Element#readState(String...)}.
+ * All values are read at the same time, so they are not updated if the page changes afterwards.
+ */
+public final class ElementState {
+    private final String tagName;
+    private final String text;
+    private final String value;
+    private final boolean displayed;
+    private final boolean enabled;
+    private final boolean selected;
+    private final Rectangle rect;
+    private final Map<String, String> attributes;
+
+    private ElementState(String tagName, String text, String value, boolean displayed, boolean enabled, boolean selected, Rectangle rect,
+            Map<String, String> attributes) {
+        this.tagName = tagName;
+        this.text = text;
+        this.value = value;
+        this.displayed = displayed;
+        this.enabled = enabled;
+        this.selected = selected;
+        this.rect = rect;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Creates the state from the object returned by the bulk read script
+     *
+     * @param state
+     *            Map of values returned by the browser for a single element
+     * @return State of the element
+     */
+    @SuppressWarnings("unchecked")
+    public static ElementState fromScript(Map<String, Object> state) {
+        Map<String, String> attributes = new HashMap<>();
+        Object values = state.get("attributes");
+        if (values instanceof Map) {
+            for (Map.Entry<String, Object> attribute : ((Map<String, Object>) values).entrySet()) {
+                attributes.put(attribute.getKey(), attribute.getValue() == null ? null : String.valueOf(attribute.getValue()));
+            }
+        }
+
+        Rectangle rect = new Rectangle(toInt(state.get("x")), toInt(state.get("y")), toInt(state.get("height")), toInt(state.get("width")));
+        return new ElementState(String.valueOf(state.get("tagName")).toLowerCase(), (String) state.get("text"), (String) state.get("value"),
+                Boolean.TRUE.equals(state.get("displayed")), Boolean.TRUE.equals(state.get("enabled")), Boolean.TRUE.equals(state.get("selected")),
+                rect, attributes);
+    }
+
+    /**
+     * Creates the state by reading each value from the element separately. Used when the browser cannot run the bulk
+     * read script.
+     *
+     * @param element
+     *            Element to read
+     * @param attributes
+     *            Attributes to read in addition to the standard values
+     * @return State of the element
+     */
+    public static ElementState fromElement(WebElement element, String... attributes) {
+        Map<String, String> values = new HashMap<>();
+        for (String attribute : attributes) {
+            values.put(attribute, element.getAttribute(attribute));
+        }
+
+        return new ElementState(element.getTagName().toLowerCase(), element.getText(), element.getAttribute("value"), element.isDisplayed(),
+                element.isEnabled(), isSelected(element), element.getRect(), values);
+    }
+
+    /**
+     * Some drivers throw when asked if an element that cannot be selected is selected
+     */
+    private static boolean isSelected(WebElement element) {
+        try {
+            return element.isSelected();
+        } catch (UnsupportedOperationException uoe) {
+            return false;
+        }
+    }
+
+    private static int toInt(Object number) {
+        return number instanceof Number ? (int) Math.round(((Number) number).doubleValue()) : 0;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSelected() {
+        return selected;
+    }
+
+    public Rectangle getRect() {
+        return rect;
+    }
+
+    /**
+     * @param name
+     *            Attribute requested when the state was read
+     * @return Value of the attribute, or null if it was not set or not requested
+     */
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return "ElementState [tagName=" + tagName + ", text=" + text + ", value=" + value + ", displayed=" + displayed + ", enabled=" + enabled
+                + ", selected=" + selected + ", attributes=" + attributes + "]";
+    }
+}
@@ -67,4 +67,10 @@ public interface Webtable extends Element {
      */
     int getColumnWithCellText(String text, int rowPosition);
 
-}
\ No newline at end of file
+    /**
+     * @summary - Read the text and layout of the whole Webtable in a single
+     *          call, reusing the previous snapshot if the table has not
+     *          changed since
+     */
+    WebtableSnapshot getSnapshot();
+}
@@ -0,0 +1,261 @@
+package com.orasi.web.webelements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the text and layout of a table, read from the browser in a single call by
+ * {@link Webtable#getSnapshot()}. Rows are the "tr" and "tbody/tr" rows of the table and cells the "th" and "td"
+ * cells of each row, matching the other {@link Webtable} methods. Rows and cell indexes are 1 based. Cells are also
+ * indexed by their text and header so searches do not need to go back to the browser.
+ */
+public final class WebtableSnapshot {
+    private final long fingerprint;
+    private final List<List<Cell>> rows;
+    private final Map<String, Integer> headers;
+    private final Map<String, List<Cell>> cellsByText;
+
+    /**
+     * Creates the snapshot from the object returned by the table snapshot script
+     *
+     * @param table
+     *            Map containing the fingerprint, rows and header row of the table
+     */
+    @SuppressWarnings("unchecked")
+    public WebtableSnapshot(Map<String, Object> table) {
+        this.fingerprint = ((Number) table.get("fingerprint")).longValue();
+
+        List<List<Cell>> parsedRows = new ArrayList<>();
+        Map<String, List<Cell>> textIndex = new HashMap<>();
+        List<int[]> spanning = new ArrayList<>();
+        int rowNumber = 1;
+        for (Object row : (List<Object>) table.get("rows")) {
+            List<Cell> cells = new ArrayList<>();
+            int index = 1;
+            int column = 1;
+            for (Object value : (List<Object>) row) {
+                Map<String, Object> cellValues = (Map<String, Object>) value;
+                column = nextFreeColumn(spanning, rowNumber, column);
+                Cell cell = new Cell(rowNumber, index, column, toInt(cellValues.get("rowSpan")), toInt(cellValues.get("colSpan")),
+                        String.valueOf(cellValues.get("text")), Boolean.TRUE.equals(cellValues.get("header")));
+                cells.add(cell);
+                textIndex.computeIfAbsent(cell.getText(), text -> new ArrayList<>()).add(cell);
+                if (cell.getRowSpan() > 1) {
+                    spanning.add(new int[] { rowNumber + cell.getRowSpan() - 1, column, column + cell.getColSpan() - 1 });
+                }
+                column += cell.getColSpan();
+                index++;
+            }
+            parsedRows.add(Collections.unmodifiableList(cells));
+            rowNumber++;
+        }
+        this.rows = Collections.unmodifiableList(parsedRows);
+        this.cellsByText = textIndex;
+
+        Map<String, Integer> headerColumns = new HashMap<>();
+        int column = 1;
+        for (Object value : (List<Object>) table.get("header")) {
+            Map<String, Object> cellValues = (Map<String, Object>) value;
+            headerColumns.putIfAbsent(String.valueOf(cellValues.get("text")), column);
+            column += Math.max(1, toInt(cellValues.get("colSpan")));
+        }
+        this.headers = Collections.unmodifiableMap(headerColumns);
+    }
+
+    /**
+     * Skips columns still covered by a cell with a rowspan from a row above
+     */
+    private static int nextFreeColumn(List<int[]> spanning, int row, int column) {
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (int[] span : spanning) {
+                if (span[0] >= row && column >= span[1] && column <= span[2]) {
+                    column = span[2] + 1;
+                    moved = true;
+                }
+            }
+        }
+        return column;
+    }
+
+    private static int toInt(Object number) {
+        return number instanceof Number ? Math.max(1, ((Number) number).intValue()) : 1;
+    }
+
+    /**
+     * @return Hash of the table markup this snapshot was read from, used to tell if the table has changed since
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    /**
+     * @param row
+     *            1 based row number
+     * @return Cells of the row
+     */
+    public List<Cell> getRow(int row) {
+        return rows.get(row - 1);
+    }
+
+    /**
+     * @param row
+     *            1 based row number
+     * @param index
+     *            1 based position of the cell in the row
+     * @return Text of the cell
+     */
+    public String getCellText(int row, int index) {
+        return getRow(row).get(index - 1).getText();
+    }
+
+    /**
+     * @param header
+     *            Text of a header cell from the "thead" row, or the first row when it only holds "th" cells
+     * @return 1 based column of the header, counting colspans, or 0 if there is no such header
+     */
+    public int getColumnWithHeader(String header) {
+        Integer column = headers.get(header);
+        return column == null ? 0 : column;
+    }
+
+    /**
+     * @return Header text mapped to its 1 based column
+     */
+    public Map<String, Integer> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Finds the first row at or after startRow with a cell matching the text. Rows too short to have the cell at
+     * columnPosition are skipped.
+     *
+     * @param text
+     *            Text to find. When exact, the trimmed cell text must equal it, otherwise the cell text must contain it
+     *            ignoring case
+     * @param columnPosition
+     *            1 based position of the cell in the row, or -1 for any cell
+     * @param startRow
+     *            1 based row to start searching from
+     * @param exact
+     *            True to match the whole cell text
+     * @return 1 based row number, or 0 if not found
+     */
+    public int getRowWithCellText(String text, int columnPosition, int startRow, boolean exact) {
+        if (exact) {
+            int found = 0;
+            for (Cell cell : cellsByText.getOrDefault(text, Collections.<Cell> emptyList())) {
+                if (cell.getRow() >= startRow && (columnPosition == -1 || cell.getIndex() == columnPosition)
+                        && (found == 0 || cell.getRow() < found)) {
+                    found = cell.getRow();
+                }
+            }
+            return found;
+        }
+
+        String lowerText = text.toLowerCase();
+        for (int row = Math.max(1, startRow); row <= rows.size(); row++) {
+            for (Cell cell : getRow(row)) {
+                if ((columnPosition == -1 || cell.getIndex() == columnPosition) && cell.getText().toLowerCase().contains(lowerText)) {
+                    return row;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param text
+     *            Text the trimmed cell text must equal
+     * @param rowPosition
+     *            1 based row to search
+     * @return 1 based position of the first matching cell in the row, or 0 if not found
+     */
+    public int getColumnWithCellText(String text, int rowPosition) {
+        for (Cell cell : getRow(rowPosition)) {
+            if (cell.getText().equals(text)) {
+                return cell.getIndex();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * A single "th" or "td" cell of the table
+     */
+    public static final class Cell {
+        private final int row;
+        private final int index;
+        private final int column;
+        private final int rowSpan;
+        private final int colSpan;
+        private final String text;
+        private final boolean header;
+
+        private Cell(int row, int index, int column, int rowSpan, int colSpan, String text, boolean header) {
+            this.row = row;
+            this.index = index;
+            this.column = column;
+            this.rowSpan = rowSpan;
+            this.colSpan = colSpan;
+            this.text = text;
+            this.header = header;
+        }
+
+        /**
+         * @return 1 based row number
+         */
+        public int getRow() {
+            return row;
+        }
+
+        /**
+         * @return 1 based position of the cell in its row
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return 1 based column of the cell, after the colspans and rowspans of the cells before it
+         */
+        public int getColumn() {
+            return column;
+        }
+
+        public int getRowSpan() {
+            return rowSpan;
+        }
+
+        public int getColSpan() {
+            return colSpan;
+        }
+
+        /**
+         * @return Trimmed text of the cell
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return True for a "th" cell
+         */
+        public boolean isHeader() {
+            return header;
+        }
+
+        @Override
+        public String toString() {
+            return "Cell [row=" + row + ", index=" + index + ", column=" + column + ", text=" + text + "]";
+        }
+    }
+}
@@ -8,8 +8,10 @@ import static com.orasi.web.OrasiDriver.DEFAULT_SYNC_HANDLER;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.apache.commons.lang.time.StopWatch;
 import org.openqa.selenium.By;
@@ -29,12 +31,14 @@ import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.interactions.internal.Coordinates;
 import org.openqa.selenium.internal.Locatable;
 import org.openqa.selenium.internal.WrapsElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.orasi.Beta;
 import com.orasi.web.ExtendedExpectedConditions;
 import com.orasi.web.OrasiDriver;
+import com.orasi.web.OrasiDriver.TimeoutScope;
 import com.orasi.web.debugging.Highlight;
 import com.orasi.web.exceptions.ElementAttributeValueNotMatchingException;
 import com.orasi.web.exceptions.ElementCssValueNotMatchingException;
@@ -45,16 +49,30 @@ import com.orasi.web.exceptions.ElementNotHiddenException;
 import com.orasi.web.exceptions.ElementNotVisibleException;
 import com.orasi.web.exceptions.TextInElementNotPresentException;
 import com.orasi.web.webelements.Element;
+import com.orasi.web.webelements.ElementState;
 
 /**
  * An implementation of the Element interface. Delegates its work to an
  * underlying WebElement instance for custom functionality.
  */
 public class ElementImpl implements Element {
+    // Browser side conditions used by syncInBrowser. They mirror what getText, getAttribute and getCssValue return
+    private static final String JS_TEXT_IN_ELEMENT = "var text = el.innerText !== undefined ? el.innerText : el.textContent;"
+            + "return (text != null && text.indexOf(args[0]) > -1) || (el.value != null && String(el.value).indexOf(args[0]) > -1);";
+    private static final String JS_ATTRIBUTE_CONTAINS_VALUE = "var value = el[args[0]];"
+            + "if (typeof value === 'boolean') { value = value ? 'true' : null; }"
+            + "else if (value === undefined || value === null || typeof value === 'object' || typeof value === 'function') { value = el.getAttribute(args[0]); }"
+            + "return value != null && String(value).indexOf(args[1]) > -1;";
+    private static final String JS_CSS_PROPERTY_MATCHES_VALUE = "var value = window.getComputedStyle(el).getPropertyValue(args[0]);"
+            + "var regex = new RegExp('^(?:' + args[1] + ')$');"
+            + "if (regex.test(value)) { return true; }"
+            + "var rgb = /^rgb\\((.*)\\)$/.exec(value);"
+            + "return rgb != null && regex.test('rgba(' + rgb[1] + ', 1)');";
 
     protected WebElement element;
     protected By by;
     protected OrasiDriver driver;
+    private boolean reloadedAfterStale = false;
 
     public ElementImpl(final OrasiDriver driver, final By by) {
         this.by = by;
@@ -317,41 +335,48 @@ public class ElementImpl implements Element {
     @Override
     public WebElement getWrappedElement() {
         logTrace("Entering ElementImpl#getWrappedElement");
-        WebElement tempElement = null;
         try {
-            logTrace("Validate element [ " + by.toString() + " ] is not null");
+            logTrace(() -> "Validate element [ " + by.toString() + " ] is not null");
             if (element == null) {
-                logTrace("Element [ " + by.toString() + " ] is null, attempt to reload the element");
-                tempElement = reload();
-                logTrace("Successfully reloaded element [ " + by.toString() + " ]");
-            } else {
-                tempElement = element;
+                logTrace(() -> "Element [ " + by.toString() + " ] is null, attempt to reload the element");
+                element = reload();
+                logTrace(() -> "Successfully reloaded element [ " + by.toString() + " ]");
             }
 
-            logTrace("Validate element [ " + by.toString() + " ] is not stale");
-            tempElement.isEnabled();
-            logTrace("Successfully validated element [ " + by.toString() + " ] is usable");
+            logTrace(() -> "Validate element [ " + by.toString() + " ] is not stale");
+            element.isEnabled();
+            logTrace(() -> "Successfully validated element [ " + by.toString() + " ] is usable");
             logTrace("Exiting ElementImpl#getWrappedElement");
-            return tempElement;
+            return element;
         } catch (StaleElementReferenceException | NullPointerException e) {
 
             try {
-                logTrace("Element [ " + by.toString() + " ] is stale, attempt to reload the element");
-                tempElement = reload();
-                logTrace("Successfully reloaded element [ " + by.toString() + " ]");
+                logTrace(() -> "Element [ " + by.toString() + " ] is stale, attempt to reload the element");
+                // Keep the new element so later calls do not look it up again
+                element = reload();
+                reloadedAfterStale = true;
+                logTrace(() -> "Successfully reloaded element [ " + by.toString() + " ]");
                 logTrace("Exiting ElementImpl#getWrappedElement");
-                return tempElement;
+                return element;
             } catch (NullPointerException sere) {
                 logTrace("Exiting ElementImpl#getWrappedElement");
                 return element;
             }
         } catch (NoSuchElementException nsee) {
-            logTrace("Failed to reload element [ " + by.toString() + " ]");
+            logTrace(() -> "Failed to reload element [ " + by.toString() + " ]");
             logTrace("Exiting ElementImpl#getWrappedElement");
             throw nsee;
         }
     }
 
+    /**
+     * @return true once the element has gone stale and been found again. Anything a wrapper found when it was created,
+     *         such as the options of a list, may be stale too.
+     */
+    public boolean isReloadedAfterStale() {
+        return reloadedAfterStale;
+    }
+
     @Override
     public OrasiDriver getWrappedDriver() {
         if (driver != null) {
@@ -420,6 +445,14 @@ public class ElementImpl implements Element {
         return by.toString();
     }
 
+    @Override
+    public ElementState readState(String... attributes) {
+        logTrace("Entering ElementImpl#readState");
+        ElementState state = getWrappedDriver().readElements(Collections.singletonList(getWrappedElement()), attributes).get(0);
+        logTrace("Exiting ElementImpl#readState");
+        return state;
+    }
+
     @Override
     public void highlight() {
         logTrace("Entering ElementImpl#highlight");
@@ -483,21 +516,9 @@ public class ElementImpl implements Element {
         interfaceLog("<i>Syncing to element [<b>" + getElementLocatorInfo()
                 + "</b> ] to be <b>VISIBLE</b> within [ <b>" + timeout + "</b> ] seconds.</i>");
 
-        StopWatch stopwatch = new StopWatch();
-        boolean found = false;
-        long timeLapse;
-
-        WebDriverWait wait = new WebDriverWait(driver, 1);
-        stopwatch.start();
-        while (((stopwatch.getTime()) / 1000.0) < timeout && !found) {
-            try {
-                found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExtendedExpectedConditions.elementToBeVisible(reload()));
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
-            }
-        }
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = sync(ExtendedExpectedConditions::elementToBeVisible, timeout);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
             logTrace("Element not <b>VISIBLE</b> and failTestOnSync is [ TRUE ]");
@@ -518,7 +539,7 @@ public class ElementImpl implements Element {
 
         interfaceLog("<i>Element [<b>" + getElementLocatorInfo() + " </b>] is <b>VISIBLE</b> on the page after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
         if (Highlight.getDebugMode()) {
-            Highlight.highlightSuccess(driver, reload());
+            Highlight.highlightSuccess(driver, result.getElement());
         }
         logTrace("Exiting ElementImpl#syncVisible");
         return found;
@@ -557,24 +578,12 @@ public class ElementImpl implements Element {
         } catch (ArrayIndexOutOfBoundsException aiobe) {
         }
 
-        StopWatch stopwatch = new StopWatch();
         interfaceLog("<i>Syncing to element [<b>" + getElementLocatorInfo()
                 + "</b> ] to be <b>HIDDEN</b> within [ <b>" + timeout + "</b> ] seconds.</i>");
 
-        boolean found = false;
-        long timeLapse;
-        stopwatch.start();
-        WebDriverWait wait = new WebDriverWait(driver, 1);
-        while (((stopwatch.getTime()) / 1000.0) < timeout && !found) {
-            try {
-                found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExtendedExpectedConditions.elementToBeHidden(reload()));
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
-            }
-        }
-
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = sync(ExtendedExpectedConditions::elementToBeHidden, timeout);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
             logTrace("Element not <b>HIDDEN</b> and failTestOnSync is [ TRUE ]");
@@ -619,9 +628,7 @@ public class ElementImpl implements Element {
     public boolean syncEnabled(Object... args) {
         logTrace("Entering ElementImpl#syncEnabled");
         int requestedTimeout = getWrappedDriver().getElementTimeout();
-        int currentElementTimeout = getWrappedDriver().getElementTimeout();
         boolean failTestOnSync = DEFAULT_SYNC_HANDLER;
-        driver.setElementTimeout(1);
 
         try {
             if (args[0] != null) {
@@ -633,32 +640,15 @@ public class ElementImpl implements Element {
         } catch (ArrayIndexOutOfBoundsException aiobe) {
         }
 
-        boolean found = false;
-        long timeLapse;
-        StopWatch stopwatch = new StopWatch();
         interfaceLog("<i>Syncing to element [<b>" + getElementLocatorInfo()
                 + "</b> ] to be <b>ENABLED</b> within [ <b>" + requestedTimeout + "</b> ] seconds.</i>");
-        stopwatch.start();
-        WebDriverWait wait = new WebDriverWait(driver, 1);
 
-        while (((stopwatch.getTime()) / 1000.0) < requestedTimeout && !found) {
-            try {
-                if (Highlight.getDebugMode()) {
-                    Highlight.highlightDebug(driver, reload());
-                }
-                found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExpectedConditions.elementToBeClickable(reload())) != null;
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
-            }
-        }
-
-        driver.setElementTimeout(currentElementTimeout);
-
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = sync(ExpectedConditions::elementToBeClickable, requestedTimeout);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
-            Highlight.highlightError(driver, element);
+            Highlight.highlightError(driver, result.getElement());
             interfaceLog("<i>Element [<b>" + getElementLocatorInfo()
                     + " </b>] is not <b>ENABLED</b> on the page after [ "
                     + (timeLapse) / 1000.0 + " ] seconds.</i>");
@@ -678,7 +668,7 @@ public class ElementImpl implements Element {
                 + " </b>] is <b>ENABLED</b> on the page after [ "
                 + (timeLapse) / 1000.0 + " ] seconds.</i>");
         if (Highlight.getDebugMode()) {
-            Highlight.highlightSuccess(driver, reload());
+            Highlight.highlightSuccess(driver, result.getElement());
         }
         logTrace("Exiting ElementImpl#syncEnabled");
         return found;
@@ -716,30 +706,15 @@ public class ElementImpl implements Element {
         } catch (ArrayIndexOutOfBoundsException aiobe) {
         }
 
-        boolean found = false;
-        long timeLapse;
-        StopWatch stopwatch = new StopWatch();
         interfaceLog("<i>Syncing to element [<b>" + getElementLocatorInfo()
                 + "</b> ] to be <b>DISABLED</b> within [ <b>" + timeout + "</b> ] seconds.</i>");
-        stopwatch.start();
-        WebDriverWait wait = new WebDriverWait(driver, 1);
 
-        while (((stopwatch.getTime()) / 1000.0) < timeout && !found) {
-            try {
-                if (Highlight.getDebugMode()) {
-                    Highlight.highlightDebug(driver, reload());
-                }
-                found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExpectedConditions.not(ExpectedConditions.elementToBeClickable(reload()))) != null;
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
-            }
-        }
-
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = sync(el -> ExpectedConditions.not(ExpectedConditions.elementToBeClickable(el)), timeout);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
-            Highlight.highlightError(driver, reload());
+            Highlight.highlightError(driver, result.getElement());
             interfaceLog("<i>Element [<b>" + getElementLocatorInfo()
                     + " </b>] is not <b>DISABLED</b> on the page after [ "
                     + (timeLapse) / 1000.0 + " ] seconds.</i>");
@@ -759,7 +734,7 @@ public class ElementImpl implements Element {
                 + " </b>] is <b>DISABLED</b> on the page after [ "
                 + (timeLapse) / 1000.0 + " ] seconds.</i>");
         if (Highlight.getDebugMode()) {
-            Highlight.highlightSuccess(driver, reload());
+            Highlight.highlightSuccess(driver, result.getElement());
         }
         logTrace("Exiting ElementImpl#syncDisabled");
         return found;
@@ -797,37 +772,16 @@ public class ElementImpl implements Element {
         } catch (ArrayIndexOutOfBoundsException aiobe) {
         }
 
-        boolean found = false;
-        long timeLapse;
-        StopWatch stopwatch = new StopWatch();
         interfaceLog("<i>Syncing to text [<b>" + text + "</b> ] in element [<b>"
                 + getElementLocatorInfo() + "</b> ] to be displayed within [ <b>" + timeout + "</b> ] seconds.</i>");
 
-        WebDriverWait wait = new WebDriverWait(driver, 0);
-        stopwatch.start();
-        if (Highlight.getDebugMode()) {
-            Highlight.highlightDebug(driver, reload());
-        }
-        do {
-            try {
-                if (wait.until(ExpectedConditions.textToBePresentInElement(reload(), text)) != null) {
-                    found = true;
-                } else if (wait.until(ExpectedConditions.textToBePresentInElementValue(reload(), text)) != null) {
-                    found = true;
-                }
-                if (found) {
-                    break;
-                }
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
-            }
-        } while (stopwatch.getTime() / 1000.0 < timeout);
-
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = syncInBrowser(JS_TEXT_IN_ELEMENT, el -> ExpectedConditions.or(ExpectedConditions.textToBePresentInElement(el, text),
+                ExpectedConditions.textToBePresentInElementValue(el, text)), timeout, text);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
-            Highlight.highlightError(driver, element);
+            Highlight.highlightError(driver, result.getElement());
             interfaceLog(
                     "<i>Element [<b>" + getElementLocatorInfo() + " </b>] did not contain the text [ " + text
                             + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
@@ -846,7 +800,7 @@ public class ElementImpl implements Element {
                 "<i>Element [<b>" + getElementLocatorInfo() + " </b>] contains the text [ " + text
                         + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
         if (Highlight.getDebugMode()) {
-            Highlight.highlightSuccess(driver, reload());
+            Highlight.highlightSuccess(driver, result.getElement());
         }
         logTrace("Exiting ElementImpl#syncTextInElement");
         return found;
@@ -884,36 +838,15 @@ public class ElementImpl implements Element {
         } catch (ArrayIndexOutOfBoundsException aiobe) {
         }
 
-        boolean found = false;
-        long timeLapse;
-        StopWatch stopwatch = new StopWatch();
         interfaceLog("<i>Syncing to text regular expression [<b>" + regex + "</b> ] in element [<b>"
                 + getElementLocatorInfo() + "</b> ] to be displayed within [ <b>" + timeout + "</b> ] seconds.</i>");
-        stopwatch.start();
-        WebDriverWait wait = new WebDriverWait(driver, 0);
-        do {
-
-            try {
-                if (Highlight.getDebugMode()) {
-                    Highlight.highlightDebug(driver, reload());
-                }
-                if (wait.until(ExtendedExpectedConditions.textToMatchInElement(reload(), regex)) != null) {
-                    found = true;
-                } else if (wait.until(ExtendedExpectedConditions.textToMatchInElementAttribute(reload(), "value", regex)) != null) {
-                    found = true;
-                }
-                if (found) {
-                    break;
-                }
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException e) {
-            }
-        } while (stopwatch.getTime() / 1000.0 < timeout);
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = sync(el -> ExpectedConditions.or(ExtendedExpectedConditions.textToMatchInElement(el, regex),
+                ExtendedExpectedConditions.textToMatchInElementAttribute(el, "value", regex)), timeout);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
-            Highlight.highlightError(driver, reload());
+            Highlight.highlightError(driver, result.getElement());
             interfaceLog(
                     "<i>Element [<b>" + getElementLocatorInfo() + " </b>] did not contain the text [ " + regex
                             + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
@@ -933,7 +866,7 @@ public class ElementImpl implements Element {
                 "<i>Element [<b>" + getElementLocatorInfo() + " </b>] contains the text [ " + regex
                         + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
         if (Highlight.getDebugMode()) {
-            Highlight.highlightSuccess(driver, reload());
+            Highlight.highlightSuccess(driver, result.getElement());
         }
         logTrace("Exiting ElementImpl#syncTextMatchesInElement");
         return found;
@@ -972,30 +905,16 @@ public class ElementImpl implements Element {
             }
         } catch (ArrayIndexOutOfBoundsException aiobe) {
         }
-        boolean found = false;
-        long timeLapse;
-        StopWatch stopwatch = new StopWatch();
         interfaceLog("<i>Syncing to attribute [<b> " + attribute + "</b> ] to contain [<b> " + value + "</b> ] in element [<b>"
                 + getElementLocatorInfo() + "</b> ] to be displayed within [ <b> " + timeout + "</b> ] seconds.</i>");
-        stopwatch.start();
-        WebDriverWait wait = new WebDriverWait(driver, 1);
 
-        while (((stopwatch.getTime()) / 1000.0) < timeout && !found) {
-            try {
-                if (Highlight.getDebugMode()) {
-                    Highlight.highlightDebug(driver, reload());
-                }
-                found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExtendedExpectedConditions.textToBePresentInElementAttribute(reload(), attribute, value));
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
-            }
-        }
-
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = syncInBrowser(JS_ATTRIBUTE_CONTAINS_VALUE, el -> ExtendedExpectedConditions.textToBePresentInElementAttribute(el, attribute, value),
+                timeout, attribute, value);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
-            Highlight.highlightError(driver, reload());
+            Highlight.highlightError(driver, result.getElement());
             interfaceLog(
                     "<i>Element [<b>" + getElementLocatorInfo() + " </b>] attribute [<b>" + attribute + "</b> ] did not contain the text [ " + value
                             + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
@@ -1015,7 +934,7 @@ public class ElementImpl implements Element {
                 "<i>Element [<b>" + getElementLocatorInfo() + " </b>] attribute [<b>" + attribute + "</b> ] contains the text [ " + value
                         + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
         if (Highlight.getDebugMode()) {
-            Highlight.highlightSuccess(driver, reload());
+            Highlight.highlightSuccess(driver, result.getElement());
         }
         logTrace("Exiting ElementImpl#syncAttributeContainsValue");
         return found;
@@ -1055,31 +974,15 @@ public class ElementImpl implements Element {
         } catch (ArrayIndexOutOfBoundsException aiobe) {
         }
 
-        boolean found = false;
-        long timeLapse;
-        StopWatch stopwatch = new StopWatch();
         interfaceLog("<i>Syncing to attribute [<b> " + attribute + "</b> ] to match the regular expression of [<b> " + regex + "</b> ] in element [<b>"
                 + getElementLocatorInfo() + "</b> ] to be displayed within [ <b> " + timeout + "</b> ] seconds.</i>");
-        WebDriverWait wait = new WebDriverWait(driver, 1);
 
-        stopwatch.start();
-        while (((stopwatch.getTime()) / 1000.0) < timeout && !found) {
-            try {
-                if (Highlight.getDebugMode()) {
-                    Highlight.highlightDebug(driver, reload());
-                }
-                found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExtendedExpectedConditions.textToMatchInElementAttribute(reload(), attribute, regex));
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
-                found = false;
-            }
-        }
-
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = sync(el -> ExtendedExpectedConditions.textToMatchInElementAttribute(el, attribute, regex), timeout);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
-            Highlight.highlightError(driver, reload());
+            Highlight.highlightError(driver, result.getElement());
             interfaceLog(
                     "<i>Element [<b>" + getElementLocatorInfo() + " </b>] attribute [<b>" + attribute + "</b> ] did not match the regular expression of [ " + regex
                             + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
@@ -1098,7 +1001,7 @@ public class ElementImpl implements Element {
                 "<i>Element [<b>" + getElementLocatorInfo() + " </b>] attribute [<b>" + attribute + "</b> ] matches the regular expression of [ " + regex
                         + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
         if (Highlight.getDebugMode()) {
-            Highlight.highlightSuccess(driver, reload());
+            Highlight.highlightSuccess(driver, result.getElement());
         }
         logTrace("Exiting ElementImpl#syncAttributeMatchesValue");
         return found;
@@ -1138,31 +1041,15 @@ public class ElementImpl implements Element {
         } catch (ArrayIndexOutOfBoundsException aiobe) {
         }
 
-        boolean found = false;
-        long timeLapse;
-        StopWatch stopwatch = new StopWatch();
         interfaceLog("<i>Syncing to CSS Property [<b> " + cssProperty + "</b> ] to contain [<b> " + value + "</b> ] in element [<b>"
                 + getElementLocatorInfo() + "</b> ] to be displayed within [ <b> " + timeout + "</b> ] seconds.</i>");
 
-        WebDriverWait wait = new WebDriverWait(driver, 1);
-        stopwatch.start();
-        while (((stopwatch.getTime()) / 1000.0) < timeout && !found) {
-            try {
-                if (Highlight.getDebugMode()) {
-                    Highlight.highlightDebug(driver, reload());
-                }
-                found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExtendedExpectedConditions.textToBePresentInElementCssProperty(reload(), cssProperty, value));
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
-                found = false;
-            }
-        }
-
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = sync(el -> ExtendedExpectedConditions.textToBePresentInElementCssProperty(el, cssProperty, value), timeout);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
-            Highlight.highlightError(driver, reload());
+            Highlight.highlightError(driver, result.getElement());
             interfaceLog(
                     "<i>Element [<b>" + getElementLocatorInfo() + " </b>] CSS Property [<b>" + cssProperty + "</b> ] did not contain the text [ " + value
                             + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
@@ -1180,7 +1067,7 @@ public class ElementImpl implements Element {
                 "<i>Element [<b>" + getElementLocatorInfo() + " </b>] CSS Property [<b>" + cssProperty + "</b> ] contains the text [ " + value
                         + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
         if (Highlight.getDebugMode()) {
-            Highlight.highlightSuccess(driver, reload());
+            Highlight.highlightSuccess(driver, result.getElement());
         }
         logTrace("Exiting ElementImpl#syncCssPropertyContainsValue");
         return found;
@@ -1220,30 +1107,15 @@ public class ElementImpl implements Element {
         } catch (ArrayIndexOutOfBoundsException aiobe) {
         }
 
-        boolean found = false;
-        long timeLapse;
-        StopWatch stopwatch = new StopWatch();
         interfaceLog("<i>Syncing to CSS Property [<b> " + cssProperty + "</b> ] to contain [<b> " + regex + "</b> ] in element [<b>"
                 + getElementLocatorInfo() + "</b> ] to be displayed within [ <b> " + timeout + "</b> ] seconds.</i>");
-        WebDriverWait wait = new WebDriverWait(driver, 0);
-        stopwatch.start();
-        while (((stopwatch.getTime()) / 1000.0) < timeout && !found) {
-            try {
-                if (Highlight.getDebugMode()) {
-                    Highlight.highlightDebug(driver, reload());
-                }
-                found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExtendedExpectedConditions.textToMatchInElementCssProperty(reload(), cssProperty, regex));
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
-                found = false;
-            }
-        }
-
-        stopwatch.stop();
-        timeLapse = stopwatch.getTime();
-        stopwatch.reset();
+        ElementSync.Result result = syncInBrowser(JS_CSS_PROPERTY_MATCHES_VALUE, el -> ExtendedExpectedConditions.textToMatchInElementCssProperty(el, cssProperty, regex),
+                timeout, cssProperty, regex);
+        boolean found = result.isSatisfied();
+        long timeLapse = result.getElapsedMillis();
 
         if (!found && failTestOnSync) {
-            Highlight.highlightError(driver, reload());
+            Highlight.highlightError(driver, result.getElement());
             interfaceLog(
                     "<i>Element [<b>" + getElementLocatorInfo() + " </b>] CSS Property [<b>" + cssProperty + "</b> ] did not match the regular expression of [ " + regex
                             + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
@@ -1262,17 +1134,57 @@ public class ElementImpl implements Element {
                 "<i>Element [<b>" + getElementLocatorInfo() + " </b>] CSS Property [<b>" + cssProperty + "</b> ] matches the regular expression of [ " + regex
                         + " ] after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
         if (Highlight.getDebugMode()) {
-            Highlight.highlightSuccess(driver, reload());
+            Highlight.highlightSuccess(driver, result.getElement());
         }
         logTrace("Exiting ElementImpl#syncCssPropertyMatchesValue");
         return found;
     }
 
+    /**
+     * Runs a sync through the shared sync engine. The element located by the sync
+     * is kept so later calls do not have to look it up again.
+     *
+     * @param condition
+     *            - builds the expected condition for the element being checked
+     * @param timeout
+     *            - the maximum time in seconds to wait
+     * @return Result of the sync
+     */
+    protected ElementSync.Result sync(Function<WebElement, ExpectedCondition<?>> condition, int timeout) {
+        ElementSync.Result result = new ElementSync(driver, by, element).until(condition, timeout);
+        if (result.getElement() != null) {
+            element = result.getElement();
+        }
+        return result;
+    }
+
+    /**
+     * Runs a sync in the browser through the shared sync engine, falling back to polling
+     * the given condition if the browser cannot run the wait script
+     *
+     * @param script
+     *            - JavaScript function body returning true when satisfied, see {@link ElementSync#untilInBrowser}
+     * @param fallback
+     *            - builds the equivalent expected condition used when polling
+     * @param timeout
+     *            - the maximum time in seconds to wait
+     * @param args
+     *            - arguments passed to the script
+     * @return Result of the sync
+     */
+    protected ElementSync.Result syncInBrowser(String script, Function<WebElement, ExpectedCondition<?>> fallback, int timeout, Object... args) {
+        ElementSync.Result result = new ElementSync(driver, by, element).untilInBrowser(script, fallback, timeout, args);
+        if (result.getElement() != null) {
+            element = result.getElement();
+        }
+        return result;
+    }
+
     @Beta
     protected WebElement reload() {
         logTrace("Entering ElementImpl#reload");
         WebElement el = null;
-        logTrace("Search DOM for element [ " + by.toString() + " ]");
+        logTrace(() -> "Search DOM for element [ " + by.toString() + " ]");
 
         try {
             WebDriverWait wait = new WebDriverWait(getWrappedDriver().getWebDriver(), getWrappedDriver().getElementTimeout());
@@ -1280,20 +1192,19 @@ public class ElementImpl implements Element {
         } catch (WebDriverException wde) {
             throw new NoSuchElementException("Failed locate element [ " + by.toString() + " ]");
         }
-        logTrace("Found element [ " + by.toString() + " ]");
+        logTrace(() -> "Found element [ " + by.toString() + " ]");
         logTrace("Exiting ElementImpl#reload");
         return el;
     }
 
     @Override
     @Beta
+    @SuppressWarnings("try")
     public boolean syncInFrame(Object... args) {
         logTrace("Entering ElementImpl#syncInFrame");
         final String action = "<b>FOUND IN FRAME</b>";
-        int originalDriverTimeout = getWrappedDriver().getElementTimeout();
         int timeout = getWrappedDriver().getElementTimeout();
         boolean failTestOnSync = DEFAULT_SYNC_HANDLER;
-        getWrappedDriver().setElementTimeout(0);
         try {
             if (args[0] != null) {
                 timeout = Integer.valueOf(args[0].toString());
@@ -1313,10 +1224,12 @@ public class ElementImpl implements Element {
 
         WebDriverWait wait = new WebDriverWait(driver, 1);
         stopwatch.start();
-        while (((stopwatch.getTime()) / 1000.0) < timeout && !found) {
-            try {
-                found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExtendedExpectedConditions.elementToFoundInFrame(by));
-            } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
+        try (TimeoutScope scope = getWrappedDriver().elementTimeoutScope(0, TimeUnit.SECONDS)) {
+            while (((stopwatch.getTime()) / 1000.0) < timeout && !found) {
+                try {
+                    found = wait.pollingEvery(MILLISECONDS_TO_POLL_FOR_ELEMENT, TimeUnit.MILLISECONDS).until(ExtendedExpectedConditions.elementToFoundInFrame(by));
+                } catch (NoSuchElementException | ClassCastException | StaleElementReferenceException | TimeoutException te) {
+                }
             }
         }
         stopwatch.stop();
@@ -1337,12 +1250,10 @@ public class ElementImpl implements Element {
                     + " </b>] is not " + action + " on the page after [ "
                     + (timeLapse) / 1000.0 + " ] seconds.</i>");
             logTrace("Exiting ElementImpl#syncInFrame");
-            getWrappedDriver().setElementTimeout(originalDriverTimeout);
             return found;
         }
 
         interfaceLog("<i>Element [<b>" + getElementLocatorInfo() + " </b>] is " + action + " on the page after [ " + (timeLapse) / 1000.0 + " ] seconds.</i>");
-        getWrappedDriver().setElementTimeout(originalDriverTimeout);
         logTrace("Exiting ElementImpl#syncInFrame");
         return found;
     }
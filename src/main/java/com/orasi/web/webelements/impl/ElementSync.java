@@ -0,0 +1,629 @@
+package com.orasi.web.webelements.impl;
+
+import static com.orasi.utils.TestReporter.logDebug;
+import static com.orasi.utils.TestReporter.logTrace;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.internal.Coordinates;
+import org.openqa.selenium.internal.Locatable;
+import org.openqa.selenium.internal.WrapsElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import com.orasi.utils.Sleeper;
+import com.orasi.utils.TestEventLog;
+import com.orasi.web.OrasiDriver;
+import com.orasi.web.OrasiDriver.TimeoutScope;
+import com.orasi.web.debugging.Highlight;
+
+/**
+ * Shared wait loop used by the Element sync methods. Conditions are evaluated against the
+ * element already located, and the element is only looked up again when it is missing or
+ * has gone stale. The time between polls starts small and backs off up to a maximum so
+ * quick syncs return fast while long syncs do not flood the driver with requests.
+ */
+public class ElementSync {
+    public static long DEFAULT_INITIAL_POLL_MILLISECONDS = 50;
+    public static long DEFAULT_MAX_POLL_MILLISECONDS = 1000;
+    public static double DEFAULT_BACKOFF_MULTIPLIER = 1.5;
+    public static boolean DEFAULT_WAIT_IN_BROWSER = true;
+
+    private static final long SCRIPT_TIMEOUT_MARGIN_MILLISECONDS = 500;
+    private static final long MINIMUM_SCRIPT_WAIT_MILLISECONDS = 250;
+    private static final String SCRIPT_ERROR = "ElementSync script error: ";
+    private static final String WAIT_SCRIPT = "var el = arguments[0], args = arguments[1], timeout = arguments[2], callback = arguments[arguments.length - 1];"
+            + "var condition = function() { <CONDITION> };"
+            + "var check = function() { try { return condition(); } catch (e) { return false; } };"
+            + "var attached = function() { return el.ownerDocument && el.ownerDocument.documentElement.contains(el); };"
+            + "if (!attached()) { callback(null); return; }"
+            // A condition that can not run at all, such as a Java only regular expression, is reported so the driver polls instead
+            + "try { if (condition()) { callback(true); return; } } catch (e) { callback('" + SCRIPT_ERROR + "' + e); return; }"
+            + "var done = false, observer = null, interval = null, timer = null;"
+            + "var finish = function(result) { if (done) { return; } done = true; if (observer) { observer.disconnect(); }"
+            + " clearInterval(interval); clearTimeout(timer); callback(result); };"
+            + "var recheck = function() { if (!attached()) { finish(null); } else if (check()) { finish(true); } };"
+            + "if (window.MutationObserver) { observer = new MutationObserver(recheck);"
+            + " observer.observe(el.ownerDocument, { attributes: true, childList: true, characterData: true, subtree: true }); }"
+            + "interval = setInterval(recheck, 100);"
+            + "timer = setTimeout(function() { finish(attached() ? check() : null); }, timeout);";
+
+    private final OrasiDriver driver;
+    private final By by;
+    private WebElement element;
+    private long initialPollMillis = DEFAULT_INITIAL_POLL_MILLISECONDS;
+    private long maxPollMillis = DEFAULT_MAX_POLL_MILLISECONDS;
+    private double backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+    private boolean waitInBrowser = DEFAULT_WAIT_IN_BROWSER;
+
+    /**
+     * @param driver
+     *            - driver used to locate the element
+     * @param by
+     *            - locator used when the element needs to be found again
+     * @param element
+     *            - previously located element to start with, may be null
+     */
+    public ElementSync(OrasiDriver driver, By by, WebElement element) {
+        this.driver = driver;
+        this.by = by;
+        this.element = element;
+    }
+
+    /**
+     * Override the default polling for this sync
+     *
+     * @param initialPollMillis
+     *            - time to wait after the first failed check
+     * @param maxPollMillis
+     *            - longest time to wait between checks
+     * @param backoffMultiplier
+     *            - amount the wait grows after each failed check, 1 for a fixed interval
+     */
+    public ElementSync pollingEvery(long initialPollMillis, long maxPollMillis, double backoffMultiplier) {
+        this.initialPollMillis = initialPollMillis;
+        this.maxPollMillis = Math.max(initialPollMillis, maxPollMillis);
+        this.backoffMultiplier = Math.max(1, backoffMultiplier);
+        return this;
+    }
+
+    /**
+     * Enable or disable waiting in the browser for {@link ElementSync#untilInBrowser}. When
+     * disabled the fallback condition is polled instead.
+     */
+    public ElementSync waitInBrowser(boolean waitInBrowser) {
+        this.waitInBrowser = waitInBrowser;
+        return this;
+    }
+
+    /**
+     * Waits until the condition built for the element is satisfied or the timeout expires.
+     * The condition is always checked at least once. A condition is satisfied when it returns
+     * TRUE or any non-null, non-Boolean value.
+     * Example usage: new ElementSync(driver, by, element).until(ExtendedExpectedConditions::elementToBeVisible, 10);
+     *
+     * @param condition
+     *            - builds the expected condition for the element being checked
+     * @param timeout
+     *            - the maximum time in seconds to wait
+     * @return Result of the sync, including elapsed time and number of driver calls made
+     */
+    public Result until(Function<WebElement, ExpectedCondition<?>> condition, int timeout) {
+        logTrace("Entering ElementSync#until");
+        Run run = new Run(timeout);
+        try {
+            poll(run, condition);
+        } finally {
+            run.close();
+        }
+        Result result = run.finish();
+        logTrace("Exiting ElementSync#until");
+        return result;
+    }
+
+    /**
+     * Waits in the browser until the script condition is satisfied or the timeout expires.
+     * A MutationObserver (backed by a short in-page interval for changes that do not mutate
+     * the DOM, such as typed values or computed styles) re-checks the condition as soon as
+     * the page changes, so only one driver call is made for most syncs. If the browser
+     * cannot run the async script, or the script condition throws the first time it is checked,
+     * the remaining time is spent polling the fallback condition. The fallback condition is
+     * also checked once more before reporting a failure.
+     * Example usage: untilInBrowser("return el.value.indexOf(args[0]) > -1;", fallback, 10, "text");
+     *
+     * @param script
+     *            - JavaScript function body returning true when satisfied. The element is
+     *            available as <b>el</b> and the script arguments as <b>args</b>
+     * @param fallback
+     *            - builds the equivalent expected condition used when polling
+     * @param timeout
+     *            - the maximum time in seconds to wait
+     * @param args
+     *            - arguments passed to the script
+     * @return Result of the sync, including elapsed time and number of driver calls made
+     */
+    public Result untilInBrowser(String script, Function<WebElement, ExpectedCondition<?>> fallback, int timeout, Object... args) {
+        logTrace("Entering ElementSync#untilInBrowser");
+        Run run = new Run(timeout);
+        try {
+            // Keep each script call inside the driver's script timeout
+            long chunk = TimeUnit.SECONDS.toMillis(driver.getScriptTimeout()) - SCRIPT_TIMEOUT_MARGIN_MILLISECONDS;
+            if (!waitInBrowser || chunk < MINIMUM_SCRIPT_WAIT_MILLISECONDS || !waitInBrowser(run, script, fallback, chunk, args)) {
+                poll(run, fallback);
+            }
+        } finally {
+            run.close();
+        }
+        Result result = run.finish();
+        logTrace("Exiting ElementSync#untilInBrowser");
+        return result;
+    }
+
+    private void poll(Run run, Function<WebElement, ExpectedCondition<?>> condition) {
+        while (true) {
+            if (run.counted == null || run.counted.isStale()) {
+                run.relocate();
+            }
+
+            if (run.counted != null) {
+                run.polls++;
+                run.satisfied = evaluate(condition, run.counted);
+                if (run.satisfied) {
+                    return;
+                }
+                if (run.counted.isStale() && run.remaining() > 0) {
+                    // Look the element up again right away rather than waiting for the next poll
+                    continue;
+                }
+            }
+
+            if (run.remaining() <= 0) {
+                return;
+            }
+            run.backoff();
+        }
+    }
+
+    /**
+     * @return false if the browser could not run the wait script and polling should be used instead
+     */
+    private boolean waitInBrowser(Run run, String script, Function<WebElement, ExpectedCondition<?>> fallback, long chunk, Object[] args) {
+        String waitScript = WAIT_SCRIPT.replace("<CONDITION>", script);
+        while (true) {
+            if (run.counted == null || run.counted.isStale()) {
+                run.relocate();
+            }
+
+            if (run.counted != null) {
+                run.polls++;
+                run.driverCalls++;
+                Object value;
+                try {
+                    value = driver.executeAsyncJavaScript(waitScript, run.counted.getWrappedElement(), Arrays.asList(args),
+                            Math.max(0, Math.min(chunk, run.remaining())));
+                } catch (StaleElementReferenceException sere) {
+                    value = null;
+                } catch (TimeoutException te) {
+                    value = Boolean.FALSE;
+                } catch (WebDriverException wde) {
+                    logDebug("Unable to wait for [ " + by + " ] in the browser, polling instead: " + wde.getMessage());
+                    return false;
+                }
+
+                if (Boolean.TRUE.equals(value)) {
+                    run.satisfied = true;
+                    return true;
+                } else if (value instanceof String && ((String) value).startsWith(SCRIPT_ERROR)) {
+                    logDebug("Unable to check [ " + by + " ] in the browser, polling instead: " + value);
+                    return false;
+                } else if (value == null) {
+                    // Script reports null when the element was removed from the page
+                    run.counted.markStale();
+                    if (run.remaining() > 0) {
+                        continue;
+                    }
+                }
+            }
+
+            if (run.remaining() <= 0) {
+                if (run.counted != null && !run.counted.isStale()) {
+                    // The browser and the driver may report values differently, so confirm with the driver before failing
+                    run.polls++;
+                    run.satisfied = evaluate(fallback, run.counted);
+                }
+                return true;
+            }
+            if (run.counted == null) {
+                run.backoff();
+            }
+        }
+    }
+
+    private CountingElement locate() {
+        try {
+            WebElement located = driver.getWebDriver().findElement(by);
+            if (Highlight.getDebugMode()) {
+                Highlight.highlightDebug(driver, located);
+            }
+            return new CountingElement(located);
+        } catch (WebDriverException e) {
+            return null;
+        }
+    }
+
+    private boolean evaluate(Function<WebElement, ExpectedCondition<?>> condition, CountingElement counted) {
+        try {
+            Object value = condition.apply(counted).apply(driver);
+            if (counted.isStale()) {
+                return false;
+            }
+            return value instanceof Boolean ? (Boolean) value : value != null;
+        } catch (WebDriverException | ClassCastException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * State of a single call to one of the until methods
+     */
+    private class Run {
+        private final long start = System.currentTimeMillis();
+        private final long deadline;
+        private long poll = initialPollMillis;
+        private int polls = 0;
+        private int lookups = 0;
+        private int driverCalls = 0;
+        private boolean satisfied = false;
+        private CountingElement counted = element == null ? null : new CountingElement(element);
+        private TimeoutScope scope = null;
+
+        Run(int timeout) {
+            deadline = start + TimeUnit.SECONDS.toMillis(timeout);
+        }
+
+        long remaining() {
+            // Stop once the thread is interrupted, rather than checking with the driver until the deadline
+            if (Thread.currentThread().isInterrupted()) {
+                return 0;
+            }
+            return deadline - System.currentTimeMillis();
+        }
+
+        void relocate() {
+            // Lookups should fail fast, the timeout is handled by the sync loop
+            if (scope == null) {
+                scope = driver.elementTimeoutScope(0, TimeUnit.SECONDS);
+            }
+            if (counted != null) {
+                driverCalls += counted.getCommandCount();
+            }
+            counted = locate();
+            lookups++;
+            driverCalls++;
+        }
+
+        void backoff() {
+            try {
+                Sleeper.poll(Math.max(0, Math.min(poll, remaining())));
+            } catch (InterruptedException e) {
+                logDebug("Sync for [ " + by + " ] interrupted");
+                Thread.currentThread().interrupt();
+            }
+            poll = Math.min(maxPollMillis, (long) (poll * backoffMultiplier));
+        }
+
+        void close() {
+            if (scope != null) {
+                scope.close();
+            }
+        }
+
+        Result finish() {
+            if (counted != null) {
+                driverCalls += counted.getCommandCount();
+            }
+            element = counted == null || counted.isStale() ? null : counted.getWrappedElement();
+            Result result = new Result(satisfied, element, System.currentTimeMillis() - start, polls, lookups, driverCalls);
+            logDebug("Sync for [ " + by + " ] " + (satisfied ? "satisfied" : "not satisfied") + " after [ " + result.getElapsedMillis()
+                    + " ] ms with [ " + polls + " ] checks and [ " + driverCalls + " ] driver calls");
+            if (TestEventLog.isEnabled()) {
+                TestEventLog.record(TestEventLog.Type.SYNC, "Sync " + (satisfied ? "satisfied" : "not satisfied") + " after [ " + polls + " ] checks",
+                        String.valueOf(by), result.getElapsedMillis(), satisfied);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Outcome of a single sync
+     */
+    public static class Result {
+        private final boolean satisfied;
+        private final WebElement element;
+        private final long elapsedMillis;
+        private final int polls;
+        private final int lookups;
+        private final int driverCalls;
+
+        Result(boolean satisfied, WebElement element, long elapsedMillis, int polls, int lookups, int driverCalls) {
+            this.satisfied = satisfied;
+            this.element = element;
+            this.elapsedMillis = elapsedMillis;
+            this.polls = polls;
+            this.lookups = lookups;
+            this.driverCalls = driverCalls;
+        }
+
+        public boolean isSatisfied() {
+            return satisfied;
+        }
+
+        /**
+         * @return the element as last located, or null if it could not be found
+         */
+        public WebElement getElement() {
+            return element;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedMillis / 1000.0;
+        }
+
+        /**
+         * @return number of times the condition was checked
+         */
+        public int getPolls() {
+            return polls;
+        }
+
+        /**
+         * @return number of times the element was looked up
+         */
+        public int getLookups() {
+            return lookups;
+        }
+
+        /**
+         * @return number of element lookups plus commands sent to the located element
+         */
+        public int getDriverCalls() {
+            return driverCalls;
+        }
+    }
+
+    /**
+     * Counts commands sent to the element and remembers if the element went stale.
+     * Many expected conditions swallow StaleElementReferenceException, so the
+     * staleness is recorded here before it can be hidden.
+     */
+    private static class CountingElement implements WebElement, WrapsElement, Locatable {
+        private final WebElement element;
+        private int commands = 0;
+        private boolean stale = false;
+
+        CountingElement(WebElement element) {
+            this.element = element;
+        }
+
+        boolean isStale() {
+            return stale;
+        }
+
+        void markStale() {
+            stale = true;
+        }
+
+        int getCommandCount() {
+            return commands;
+        }
+
+        @Override
+        public WebElement getWrappedElement() {
+            return element;
+        }
+
+        private void count() {
+            commands++;
+        }
+
+        private <T> T stale(StaleElementReferenceException sere) {
+            stale = true;
+            throw sere;
+        }
+
+        @Override
+        public void click() {
+            count();
+            try {
+                element.click();
+            } catch (StaleElementReferenceException sere) {
+                stale(sere);
+            }
+        }
+
+        @Override
+        public void submit() {
+            count();
+            try {
+                element.submit();
+            } catch (StaleElementReferenceException sere) {
+                stale(sere);
+            }
+        }
+
+        @Override
+        public void sendKeys(CharSequence... keysToSend) {
+            count();
+            try {
+                element.sendKeys(keysToSend);
+            } catch (StaleElementReferenceException sere) {
+                stale(sere);
+            }
+        }
+
+        @Override
+        public void clear() {
+            count();
+            try {
+                element.clear();
+            } catch (StaleElementReferenceException sere) {
+                stale(sere);
+            }
+        }
+
+        @Override
+        public String getTagName() {
+            count();
+            try {
+                return element.getTagName();
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public String getAttribute(String name) {
+            count();
+            try {
+                return element.getAttribute(name);
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public boolean isSelected() {
+            count();
+            try {
+                return element.isSelected();
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public boolean isEnabled() {
+            count();
+            try {
+                return element.isEnabled();
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public String getText() {
+            count();
+            try {
+                return element.getText();
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            count();
+            try {
+                return element.findElements(by);
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public WebElement findElement(By by) {
+            count();
+            try {
+                return element.findElement(by);
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public boolean isDisplayed() {
+            count();
+            try {
+                return element.isDisplayed();
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public Point getLocation() {
+            count();
+            try {
+                return element.getLocation();
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public Dimension getSize() {
+            count();
+            try {
+                return element.getSize();
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public Rectangle getRect() {
+            count();
+            try {
+                return element.getRect();
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public String getCssValue(String propertyName) {
+            count();
+            try {
+                return element.getCssValue(propertyName);
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public <X> X getScreenshotAs(OutputType<X> target) {
+            count();
+            try {
+                return element.getScreenshotAs(target);
+            } catch (StaleElementReferenceException sere) {
+                return stale(sere);
+            }
+        }
+
+        @Override
+        public Coordinates getCoordinates() {
+            return ((Locatable) element).getCoordinates();
+        }
+
+        @Override
+        public String toString() {
+            return element.toString();
+        }
+    }
+}
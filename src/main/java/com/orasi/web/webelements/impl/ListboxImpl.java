@@ -11,6 +11,7 @@ import org.openqa.selenium.WebElement;
 
 import com.orasi.web.OrasiDriver;
 import com.orasi.web.exceptions.OptionNotInListboxException;
+import com.orasi.web.webelements.ElementState;
 import com.orasi.web.webelements.Listbox;
 
 /**
@@ -55,8 +56,7 @@ public class ListboxImpl extends ElementImpl implements Listbox {
                         + "</b> ] from Listbox [  <b>" + getElementLocatorInfo() + " </b>]");
             } catch (NoSuchElementException e) {
                 String optionList = "";
-                List<WebElement> optionsList = innerSelect.getOptions();
-                for (WebElement option : optionsList) {
+                for (ElementState option : getWrappedDriver().readElements(innerSelect.getOptions())) {
                     optionList += option.getText() + " | ";
                 }
                 interfaceLog(" The value of <b>[ " + text + "</b> ] was not found in Listbox [  <b>"
@@ -95,8 +95,7 @@ public class ListboxImpl extends ElementImpl implements Listbox {
                         + "</b> ] from Listbox [  <b>" + getElementLocatorInfo() + " </b>]");
             } catch (NoSuchElementException e) {
                 String optionList = "";
-                List<WebElement> optionsList = innerSelect.getOptions();
-                for (WebElement option : optionsList) {
+                for (ElementState option : getWrappedDriver().readElements(innerSelect.getOptions(), "value")) {
                     optionList += option.getAttribute("value") + " | ";
                 }
                 interfaceLog(" The value of <b>[ " + value + "</b> ] was not found in Listbox [  <b>"
@@ -172,8 +171,7 @@ public class ListboxImpl extends ElementImpl implements Listbox {
     @Override
     public boolean isSelected(String option) {
         logTrace("Entering ListboxImpl#isSelected");
-        List<WebElement> selectedOptions = innerSelect.getAllSelectedOptions();
-        for (WebElement selectOption : selectedOptions) {
+        for (ElementState selectOption : getWrappedDriver().readElements(innerSelect.getAllSelectedOptions())) {
             if (selectOption.getText().equals(option)) {
                 logTrace("Exiting ListboxImpl#isSelected");
                 return true;
@@ -5,6 +5,7 @@ import static com.orasi.utils.TestReporter.logTrace;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.naming.directory.NoSuchAttributeException;
 
@@ -14,6 +15,8 @@ import org.openqa.selenium.WebElement;
 import org.testng.Assert;
 
 import com.orasi.web.OrasiDriver;
+import com.orasi.web.OrasiDriver.TimeoutScope;
+import com.orasi.web.webelements.ElementState;
 import com.orasi.web.webelements.RadioGroup;
 
 /**
@@ -35,16 +38,16 @@ public class RadioGroupImpl extends ElementImpl implements RadioGroup {
      * @throws NoSuchAttributeException
      */
 
+    @SuppressWarnings("try")
     public RadioGroupImpl(OrasiDriver driver, By by) {
         super(driver, by);
         logTrace("Entering RadioGroupImpl#init");
-        int timeout = driver.getElementTimeout();
-        driver.setElementTimeout(0);
-        this.radioButtons = element.findElements(By.tagName("input"));
-        if (radioButtons.size() == 0) {
-            radioButtons = driver.findWebElements(by);
+        try (TimeoutScope scope = driver.elementTimeoutScope(0, TimeUnit.SECONDS)) {
+            this.radioButtons = element.findElements(By.tagName("input"));
+            if (radioButtons.size() == 0) {
+                radioButtons = driver.findWebElements(by);
+            }
         }
-        driver.setElementTimeout(timeout);
         getNumberOfRadioButtons();
         getAllOptions();
         Assert.assertNotEquals(radioButtons.size(), 0,
@@ -105,7 +108,7 @@ public class RadioGroupImpl extends ElementImpl implements RadioGroup {
         stringOptions = FixedSizeList.decorate(Arrays.asList(new String[radioButtons.size()]));
         int loopCounter = 0;
 
-        for (WebElement option : radioButtons) {
+        for (ElementState option : getWrappedDriver().readElements(radioButtons, "value")) {
             stringOptions.set(loopCounter, option.getAttribute("value"));
             loopCounter++;
         }
@@ -215,15 +218,15 @@ public class RadioGroupImpl extends ElementImpl implements RadioGroup {
         int index = -1;
         String checked = null;
 
+        List<ElementState> states = getWrappedDriver().readElements(radioButtons, attributes);
         for (loopCounter = 0; loopCounter < numberOfRadioButtons; loopCounter++) {
             for (attributeLoopCounter = 0; attributeLoopCounter < attributes.length; attributeLoopCounter++) {
-                if (!(radioButtons.get(loopCounter).getAttribute(attributes[attributeLoopCounter]) == null)) {
-                    checked = radioButtons.get(loopCounter).getAttribute(attributes[attributeLoopCounter]);
+                checked = states.get(loopCounter).getAttribute(attributes[attributeLoopCounter]);
+                if (checked != null) {
                     if (checked.equalsIgnoreCase("true")) {
                         index = loopCounter;
-                        break;
-
                     }
+                    break;
                 }
             }
             if (checked != null) {
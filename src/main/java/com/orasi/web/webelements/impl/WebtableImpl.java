@@ -2,20 +2,58 @@ package com.orasi.web.webelements.impl;
 
 import static com.orasi.utils.TestReporter.logTrace;
 
-import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.openqa.selenium.By;
-import org.openqa.selenium.WebElement;
+import org.openqa.selenium.StaleElementReferenceException;
 
 import com.orasi.web.OrasiDriver;
+import com.orasi.web.OrasiDriver.TimeoutScope;
 import com.orasi.web.webelements.Element;
 import com.orasi.web.webelements.Webtable;
+import com.orasi.web.webelements.WebtableSnapshot;
 
 /**
  * Wrapper class like Select that wraps basic checkbox functionality.
  */
 public class WebtableImpl extends ElementImpl implements Webtable {
+    /**
+     * Reads the rows of the table in arguments[0], unless the hash of its markup still matches the fingerprint in
+     * arguments[1]
+     */
+    private static final String SNAPSHOT_SCRIPT = "var table = arguments[0], known = arguments[1], html = table.innerHTML, hash = 0;"
+            + "for (var h = 0; h < html.length; h++) { hash = (hash * 31 + html.charCodeAt(h)) | 0; }"
+            + "if (known == hash) { return null; }"
+            + "function cells(row) {"
+            + "  var out = [];"
+            + "  for (var i = 0; i < row.children.length; i++) {"
+            + "    var c = row.children[i];"
+            + "    if (c.tagName != 'TD' && c.tagName != 'TH') { continue; }"
+            + "    var text = c.innerText !== undefined ? c.innerText : c.textContent;"
+            + "    out.push({ text: String(text || '').replace(/\\u00a0/g, ' ').trim(), rowSpan: c.rowSpan || 1, colSpan: c.colSpan || 1, header: c.tagName == 'TH' });"
+            + "  }"
+            + "  return out;"
+            + "}"
+            + "var rows = [], header = null;"
+            + "for (var i = 0; i < table.children.length; i++) {"
+            + "  var child = table.children[i];"
+            + "  if (child.tagName == 'TR') { rows.push(cells(child)); }"
+            + "  else if (child.tagName == 'TBODY') { for (var j = 0; j < child.children.length; j++) { if (child.children[j].tagName == 'TR') { rows.push(cells(child.children[j])); } } }"
+            + "  else if (child.tagName == 'THEAD' && header === null) { for (var k = 0; k < child.children.length; k++) { if (child.children[k].tagName == 'TR') { header = cells(child.children[k]); break; } } }"
+            + "}"
+            + "if (header === null) {"
+            + "  header = [];"
+            + "  if (rows.length > 0 && rows[0].length > 0 && rows[0].every(function(c) { return c.header; })) { header = rows[0]; }"
+            + "}"
+            + "return { fingerprint: hash, rows: rows, header: header };";
+
+    /**
+     * Outside the 32 bit range of the markup hash, so it never matches a table
+     */
+    private static final long NO_FINGERPRINT = Long.MAX_VALUE;
+
+    private WebtableSnapshot snapshot;
 
     /**
      * Wraps a WebElement with checkbox functionality.
@@ -28,23 +66,43 @@ public class WebtableImpl extends ElementImpl implements Webtable {
         super(driver, by);
     }
 
-    private List<WebElement> getRowCollection() {
-        logTrace("Entering WebtableImpl#getRowCollection");
-        getWrappedDriver().setElementTimeout(1, TimeUnit.SECONDS);
-        List<WebElement> rowCollection = reload().findElements(By.xpath("tr|tbody/tr"));
-        getWrappedDriver().setElementTimeout(getWrappedDriver().getElementTimeout(), TimeUnit.SECONDS);
-        logTrace("Exiting WebtableImpl#getRowCollection");
-        return rowCollection;
+    /**
+     * Returns a snapshot of the table text and layout, reading the table again only when it has changed since the
+     * last snapshot. The browser compares a hash of the table markup to the one the snapshot was taken at, so
+     * checking the snapshot is still current takes one call.
+     *
+     * @return Snapshot of the table
+     */
+    @Override
+    public WebtableSnapshot getSnapshot() {
+        logTrace("Entering WebtableImpl#getSnapshot");
+        long knownFingerprint = snapshot == null ? NO_FINGERPRINT : snapshot.getFingerprint();
+        Object result;
+        try {
+            if (element == null) {
+                element = reload();
+            }
+            result = getWrappedDriver().executeJavaScript(SNAPSHOT_SCRIPT, element, knownFingerprint);
+        } catch (StaleElementReferenceException sere) {
+            logTrace("Table [ " + getElementLocatorInfo() + " ] is stale, reading the table again");
+            element = reload();
+            snapshot = null;
+            result = getWrappedDriver().executeJavaScript(SNAPSHOT_SCRIPT, element, NO_FINGERPRINT);
+        }
 
+        if (result != null) {
+            snapshot = new WebtableSnapshot(toMap(result));
+            logTrace("Read table [ " + getElementLocatorInfo() + " ] with [ " + snapshot.getRowCount() + " ] rows");
+        } else {
+            logTrace("Table [ " + getElementLocatorInfo() + " ] is unchanged, reusing snapshot");
+        }
+        logTrace("Exiting WebtableImpl#getSnapshot");
+        return snapshot;
     }
 
-    private List<WebElement> getColumnCollection(WebElement row) {
-        logTrace("Entering WebtableImpl#getColumnCollection");
-        getWrappedDriver().setElementTimeout(1, TimeUnit.MILLISECONDS);
-        List<WebElement> columnCollection = row.findElements(By.xpath("th|td"));
-        getWrappedDriver().setElementTimeout(getWrappedDriver().getElementTimeout(), TimeUnit.SECONDS);
-        logTrace("Exiting WebtableImpl#getColumnCollection");
-        return columnCollection;
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toMap(Object result) {
+        return (Map<String, Object>) result;
     }
 
     /**
@@ -57,7 +115,7 @@ public class WebtableImpl extends ElementImpl implements Webtable {
     @Override
     public int getRowCount() {
         logTrace("Entering WebtableImpl#getRowCount");
-        int rows = getRowCollection().size();
+        int rows = getSnapshot().getRowCount();
         logTrace("Exiting WebtableImpl#getRowCount");
         return rows;
     }
@@ -75,7 +133,7 @@ public class WebtableImpl extends ElementImpl implements Webtable {
     @Override
     public int getColumnCount(int row) {
         logTrace("Entering WebtableImpl#getColumnCount");
-        int columns = getColumnCollection(getRowCollection().get(row)).size();
+        int columns = getSnapshot().getRow(row + 1).size();
         logTrace("Exiting WebtableImpl#getColumnCount");
         return columns;
     }
@@ -95,12 +153,14 @@ public class WebtableImpl extends ElementImpl implements Webtable {
      * @return WebElement - the desired cell
      */
     @Override
+    @SuppressWarnings("try")
     public Element getCell(int row, int column) {
         logTrace("Entering WebtableImpl#getCell");
-        getWrappedDriver().setElementTimeout(1, TimeUnit.SECONDS);
-        Element cell = new ElementImpl(getWrappedDriver(), By.xpath(getElementIdentifier() + "/tbody/tr[" + row + "]/td[" + column + "]|" + getElementIdentifier() + "/tbody/tr[" + row + "]/th[" + column
-                + "]|" + getElementIdentifier() + "/tr[" + row + "]/td[" + column + "]|" + getElementIdentifier() + "/tr[" + row + "]/th[" + column + "]"));
-        getWrappedDriver().setElementTimeout(getWrappedDriver().getElementTimeout(), TimeUnit.SECONDS);
+        Element cell;
+        try (TimeoutScope scope = getWrappedDriver().elementTimeoutScope(1, TimeUnit.SECONDS)) {
+            cell = new ElementImpl(getWrappedDriver(), By.xpath(getElementIdentifier() + "/tbody/tr[" + row + "]/td[" + column + "]|" + getElementIdentifier() + "/tbody/tr[" + row + "]/th[" + column
+                    + "]|" + getElementIdentifier() + "/tr[" + row + "]/td[" + column + "]|" + getElementIdentifier() + "/tr[" + row + "]/th[" + column + "]"));
+        }
         logTrace("Exiting WebtableImpl#getCell");
         return cell;
     }
@@ -232,48 +292,7 @@ public class WebtableImpl extends ElementImpl implements Webtable {
     @Override
     public int getRowWithCellText(String text, int columnPosition, int startRow, boolean exact) {
         logTrace("Entering WebtableImpl#getRowWithCellText(String text, int columnPosition, int startRow, boolean exact)");
-        int currentRow = 1, rowFound = 0;
-
-        List<WebElement> rowCollection = getRowCollection();
-        for (WebElement rowElement : rowCollection) {
-            if (startRow > currentRow) {
-                currentRow++;
-            } else {
-                if (currentRow <= rowCollection.size()) {
-
-                    if (columnPosition == -1) {
-                        for (WebElement cell : getColumnCollection(rowElement)) {
-                            if (exact) {
-                                if (cell.getText().trim().equals(text)) {
-                                    logTrace("Exiting WebtableImpl#getRowWithCellText(String text, int columnPosition, int startRow, boolean exact)");
-                                    return currentRow;
-                                }
-                            } else {
-                                if (cell.getText().toLowerCase().trim().contains(text.toLowerCase())) {
-                                    logTrace("Exiting WebtableImpl#getRowWithCellText(String text, int columnPosition, int startRow, boolean exact)");
-                                    return currentRow;
-                                }
-                            }
-                        }
-                    } else {
-                        WebElement cell = rowElement.findElements(By.xpath("th|td")).get(columnPosition - 1);
-                        if (exact) {
-                            if (cell.getText().trim().equals(text)) {
-                                logTrace("Exiting WebtableImpl#getRowWithCellText(String text, int columnPosition, int startRow, boolean exact)");
-                                return currentRow;
-                            }
-                        } else {
-                            if (cell.getText().toLowerCase().trim().contains(text.toLowerCase())) {
-                                logTrace("Exiting WebtableImpl#getRowWithCellText(String text, int columnPosition, int startRow, boolean exact)");
-                                return currentRow;
-                            }
-                        }
-                    }
-                    currentRow++;
-                }
-            }
-        }
-
+        int rowFound = getSnapshot().getRowWithCellText(text, columnPosition, startRow, exact);
         logTrace("Exiting WebtableImpl#getRowWithCellText(String text, int columnPosition, int startRow, boolean exact)");
         return rowFound;
     }
@@ -312,18 +331,8 @@ public class WebtableImpl extends ElementImpl implements Webtable {
     @Override
     public int getColumnWithCellText(String text, int rowPosition) {
         logTrace("Entering WebtableImpl#getColumnWithCellText(String text, int rowPosition)");
-        int currentColumn = 1;
-        List<WebElement> columns = getColumnCollection(getRowCollection().get(rowPosition - 1));
-        for (WebElement cell : columns) {
-            if (currentColumn <= columns.size()) {
-                if (cell.getText().trim().equals(text)) {
-                    logTrace("Exiting WebtableImpl#getColumnWithCellText(String text, int rowPosition)");
-                    return currentColumn;
-                }
-                currentColumn++;
-            }
-        }
+        int column = getSnapshot().getColumnWithCellText(text, rowPosition);
         logTrace("Exiting WebtableImpl#getColumnWithCellText(String text, int rowPosition)");
-        return 0;
+        return column;
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.orasi.web.webelements.impl.internal;
+
+import static com.orasi.utils.TestReporter.logTrace;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.Locatable;
+import org.openqa.selenium.internal.WrapsElement;
+
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+import net.sf.cglib.proxy.NoOp;
+
+/**
+ * Generates a concrete class for each element interface used on a page (Element, Button, Listbox, etc.) in place of
+ * a JDK proxy. The class is generated once per interface and every page field after that is created from it
+ * directly. Calls on the element are made through generated method indexes instead of {@link Method#invoke}, while
+ * locating and rebuilding the element is still done by {@link ElementHandler}.
+ */
+final class ElementBindings {
+    private static final Map<Class<?>, Factory> FACTORIES = new ConcurrentHashMap<>();
+
+    /** Callback indexes used by {@link #FILTER} */
+    private static final int INTERCEPT = 0;
+    private static final int SKIP = 1;
+
+    /**
+     * Leave finalize and clone alone so generated elements are not finalizable and behave like the JDK proxy
+     */
+    private static final CallbackFilter FILTER = method -> {
+        if (method.getDeclaringClass().equals(Object.class)
+                && ("finalize".equals(method.getName()) || "clone".equals(method.getName()))) {
+            return SKIP;
+        }
+        return INTERCEPT;
+    };
+
+    private ElementBindings() {
+    }
+
+    /**
+     * Creates an instance of the generated class for the interface, routing all calls through the handler
+     *
+     * @param interfaceType
+     *            Element interface of the page field
+     * @param handler
+     *            Handler that locates and creates the element instance
+     * @return Generated element for the field
+     */
+    static <T> T create(Class<T> interfaceType, ElementHandler handler) {
+        Factory factory = FACTORIES.computeIfAbsent(interfaceType, ElementBindings::generate);
+        return interfaceType.cast(factory.newInstance(new Callback[] { new Interceptor(handler), NoOp.INSTANCE }));
+    }
+
+    private static Factory generate(Class<?> interfaceType) {
+        logTrace("Generating element binding for [ " + interfaceType.getName() + " ]");
+        Enhancer enhancer = new Enhancer();
+        enhancer.setClassLoader(interfaceType.getClassLoader());
+        enhancer.setInterfaces(new Class<?>[] { interfaceType, WebElement.class, WrapsElement.class, Locatable.class });
+        enhancer.setCallbackFilter(FILTER);
+        enhancer.setCallbackTypes(new Class<?>[] { MethodInterceptor.class, NoOp.class });
+        enhancer.setUseFactory(true);
+
+        // The prototype is only used to create the real instances, it should never be called
+        enhancer.setCallbacks(new Callback[] { (MethodInterceptor) (object, method, args, proxy) -> {
+            throw new IllegalStateException("Element binding prototype for [ " + interfaceType.getName() + " ] called");
+        }, NoOp.INSTANCE });
+        return (Factory) enhancer.create();
+    }
+
+    private static final class Interceptor implements MethodInterceptor {
+        private final ElementHandler handler;
+
+        private Interceptor(ElementHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public Object intercept(Object object, Method method, Object[] args, MethodProxy proxy) throws Throwable {
+            return handler.invoke(method, args, (element, objects) -> {
+                try {
+                    return proxy.invoke(element, objects);
+                } catch (Throwable throwable) {
+                    // Match Method#invoke so the handler sees element failures the same way for both bindings
+                    throw new InvocationTargetException(throwable);
+                }
+            });
+        }
+    }
+}
@@ -8,6 +8,8 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.internal.Locatable;
@@ -32,6 +34,10 @@ public class ElementDecorator implements FieldDecorator {
      * factory to use when generating ElementLocator.
      */
     protected CustomElementLocatorFactory factory;
+    /**
+     * Element interfaces that a binding could not be generated for
+     */
+    private static final Set<Class<?>> UNBOUND_TYPES = ConcurrentHashMap.newKeySet();
     protected OrasiDriver driver;
 
     /**
@@ -130,13 +136,26 @@ public class ElementDecorator implements FieldDecorator {
         final OrasiDriver driverRef = driver;
 
         logTrace("Create ElementHandler and embbed locator and driver in it");
-        InvocationHandler handler = new ElementHandler(interfaceType, locator, driverRef);
+        ElementHandler handler = new ElementHandler(interfaceType, locator, driverRef);
         logTrace("Successfully created ElementHandler");
 
-        T proxy;
-        logTrace("Create element proxy with ElementHandler information");
-        proxy = interfaceType.cast(Proxy.newProxyInstance(
-                loader, new Class[] { interfaceType, WebElement.class, WrapsElement.class, Locatable.class }, handler));
+        T proxy = null;
+        if (ElementFactory.DEFAULT_GENERATED_BINDINGS && !UNBOUND_TYPES.contains(interfaceType)) {
+            logTrace("Create element from generated binding with ElementHandler information");
+            try {
+                proxy = ElementBindings.create(interfaceType, handler);
+            } catch (RuntimeException | LinkageError e) {
+                // Generation is not possible for this type or class loader, so stay on the JDK proxy for it
+                logTrace("Unable to generate element binding for [ " + interfaceType.getName() + " ]: " + e.getMessage());
+                UNBOUND_TYPES.add(interfaceType);
+            }
+        }
+
+        if (proxy == null) {
+            logTrace("Create element proxy with ElementHandler information");
+            proxy = interfaceType.cast(Proxy.newProxyInstance(
+                    loader, new Class<?>[] { interfaceType, WebElement.class, WrapsElement.class, Locatable.class }, handler));
+        }
         logTrace("Successfully created element proxy");
         logTrace("Exiting ElementDecorator#proxyForLocator");
         return proxy;
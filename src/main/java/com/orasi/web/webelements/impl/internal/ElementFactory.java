@@ -2,6 +2,10 @@ package com.orasi.web.webelements.impl.internal;
 
 import static com.orasi.utils.TestReporter.logTrace;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
 import org.openqa.selenium.support.PageFactory;
 
 import com.orasi.web.OrasiDriver;
@@ -10,6 +14,11 @@ import com.orasi.web.OrasiDriver;
  * Element factory for wrapped elements. Similar to {@link org.openqa.selenium.support.PageFactory}
  */
 public class ElementFactory {
+    /**
+     * When true, page elements are created from classes generated once per element interface instead of JDK
+     * proxies, which avoids reflection on every element call. Set to false to always use JDK proxies.
+     */
+    public static boolean DEFAULT_GENERATED_BINDINGS = true;
 
     /**
      * See {@link org.openqa.selenium.support.PageFactory#initElements(org.openqa.selenium.support.pagefactory.FieldDecorator, Object)}
@@ -22,4 +31,23 @@ public class ElementFactory {
         logTrace("Successfully created Page Elements");
         logTrace("Exiting ElementFactory#initElements");
     }
-}
\ No newline at end of file
+
+    /**
+     * Element lists on a page are found once and reused until they go stale. Use this to find the elements of a list
+     * field again, such as after rows were added to a table without the existing rows being replaced.
+     *
+     * @param elements
+     *            List field created by {@link #initElements(OrasiDriver, Object)}
+     * @return True if the list will be found again on next use, false if it is not a page element list
+     */
+    public static boolean refresh(List<?> elements) {
+        if (elements != null && Proxy.isProxyClass(elements.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(elements);
+            if (handler instanceof ElementListHandler) {
+                ((ElementListHandler) handler).refresh();
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -10,22 +10,28 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
 
 import com.orasi.web.OrasiDriver;
 import com.orasi.web.WebException;
-import com.orasi.web.by.angular.AngularElementLocator;
 import com.orasi.web.webelements.Element;
+import com.orasi.web.webelements.impl.ElementImpl;
 
 /**
  * Replaces DefaultLocatingElementHandler. Simply opens it up to descendants of the WebElement interface, and other
  * mix-ins of WebElement and Locatable, etc. Saves the wrapping type for calling the constructor of the wrapped classes.
+ * The locator, constructor and element instance are created once per proxy and the element instance is only
+ * rebuilt when a call fails because its element has gone stale, or after the instance had to find its element again.
  */
 public class ElementHandler implements InvocationHandler {
     private final ElementLocator locator;
     private final Class<?> wrappingType;
     private OrasiDriver driver;
+    private By by;
+    private Constructor<?> constructor;
+    private Object element;
 
     /**
      * Generates a handler to retrieve the WebElement from a locator for a given WebElement interface descendant.
@@ -56,23 +62,18 @@ public class ElementHandler implements InvocationHandler {
         this.wrappingType = getWrapperClass(interfaceType);
     }
 
-    @SuppressWarnings("rawtypes")
     @Override
     public Object invoke(Object object, Method method, Object[] objects) throws Throwable {
-        logTrace("Entering ElementHandler#invoke");
-        logTrace("Attempting to invoke method [ " + method.getName() + " ]");
-
-        By by = null;
-        Field elementField = null;
+        return invoke(method, objects, method::invoke);
+    }
 
-        logTrace("Get locator By information");
-        try {
-            elementField = locator.getClass().getDeclaredField("by");
-            elementField.setAccessible(true);
-            by = (By) elementField.get(locator);
-        } catch (Exception e) {
-            throw new WebException("Failed to obtain element locator", driver);
-        }
+    /**
+     * Routes a call on the page element to the element instance. Shared by the JDK proxy and the generated element
+     * bindings, which only differ in how the method is called on the element instance.
+     */
+    Object invoke(Method method, Object[] objects, ElementCall call) throws Throwable {
+        logTrace("Entering ElementHandler#invoke");
+        logTrace(() -> "Attempting to invoke method [ " + method.getName() + " ]");
 
         if ("getWrappedElement".equals(method.getName())) {
             logTrace("Returning internal element");
@@ -84,24 +85,30 @@ public class ElementHandler implements InvocationHandler {
             return driver;
         }
 
-        logTrace("Generate constructor for element");
-        Constructor cons = null;
-        cons = wrappingType.getConstructor(OrasiDriver.class, By.class);
-        logTrace("Successfully created constructor");
+        Object response;
+        try {
+            response = invokeElement(getElement(), method, objects, call);
+        } catch (StaleElementReferenceException sere) {
+            // Wrappers can hold on to elements found when they were created, so build a new one and try again
+            logTrace(() -> "Element [ " + by + " ] is stale, creating new element instance");
+            element = null;
+            response = invokeElement(getElement(), method, objects, call);
+        }
 
-        logTrace("Creating new instance of element");
-        Object thing = null;
-        if (locator instanceof AngularElementLocator) {
-            thing = cons.newInstance(driver, by);
-        } else {
-            thing = cons.newInstance(driver, by);
+        if (element instanceof ElementImpl && ((ElementImpl) element).isReloadedAfterStale()) {
+            // The page changed under the element, so build a new instance next time rather than reuse what it found
+            logTrace(() -> "Element [ " + by + " ] was reloaded, creating new element instance on next call");
+            element = null;
         }
-        logTrace("Successfully created element instance");
+        logTrace("Exitting ElementHandler#invoke");
+        return response;
+    }
+
+    private Object invokeElement(Object thing, Method method, Object[] objects, ElementCall call) throws Throwable {
         try {
-            logTrace("Calling method [ " + method.getName() + " ]");
-            Object response = method.invoke(wrappingType.cast(thing), objects);
-            logTrace("Successfully called method [ " + method.getName() + " ]");
-            logTrace("Exitting ElementHandler#invoke");
+            logTrace(() -> "Calling method [ " + method.getName() + " ]");
+            Object response = call.call(thing, objects);
+            logTrace(() -> "Successfully called method [ " + method.getName() + " ]");
             return response;
         } catch (InvocationTargetException e) {
             // Unwrap the underlying exception
@@ -110,4 +117,47 @@ public class ElementHandler implements InvocationHandler {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the element instance for this proxy, creating it on first use or after it was found to be stale
+     */
+    private Object getElement() throws Throwable {
+        if (element != null) {
+            return element;
+        }
+
+        if (by == null) {
+            logTrace("Get locator By information");
+            try {
+                Field elementField = locator.getClass().getDeclaredField("by");
+                elementField.setAccessible(true);
+                by = (By) elementField.get(locator);
+            } catch (Exception e) {
+                throw new WebException("Failed to obtain element locator", driver);
+            }
+        }
+
+        if (constructor == null) {
+            logTrace("Generate constructor for element");
+            constructor = wrappingType.getConstructor(OrasiDriver.class, By.class);
+            logTrace("Successfully created constructor");
+        }
+
+        logTrace("Creating new instance of element");
+        try {
+            element = wrappingType.cast(constructor.newInstance(driver, by));
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        logTrace("Successfully created element instance");
+        return element;
+    }
+
+    /**
+     * Calls a method on the element instance
+     */
+    @FunctionalInterface
+    interface ElementCall {
+        Object call(Object element, Object[] objects) throws Throwable;
+    }
+}
@@ -8,10 +8,11 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
@@ -22,12 +23,20 @@ import com.orasi.web.webelements.Element;
 
 /**
  * Wraps a list of WebElements in multiple wrapped elements.
+ * <p/>
+ * The elements are found once and kept as a snapshot. Each element is only wrapped the first time it is retrieved
+ * from the list. The snapshot is found again when its first element has gone stale, when it was empty, or when
+ * {@link ElementFactory#refresh(List)} is called. Elements added or removed behind a first element that is still on
+ * the page are only seen after a refresh.
  */
 public class ElementListHandler implements InvocationHandler {
 
     private final ElementLocator locator;
     private final Class<?> wrappingType;
     private OrasiDriver driver;
+    private By by;
+    private Constructor<?> constructor;
+    private ElementSnapshot snapshot;
 
     /**
      * Given an interface and a locator, apply a wrapper over a list of elements.
@@ -71,23 +80,10 @@ public class ElementListHandler implements InvocationHandler {
      * @throws Throwable
      *             when frightened.
      */
-    @SuppressWarnings("rawtypes")
     @Override
     public Object invoke(Object o, Method method, Object[] objects) throws Throwable {
         logTrace("Entering ElementListHandler#invoke");
-        logTrace("Attempting to invoke method [ " + method.getName() + " ]");
-
-        By by = null;
-        Field elementField = null;
-
-        logTrace("Get locator By information");
-        try {
-            elementField = locator.getClass().getDeclaredField("by");
-            elementField.setAccessible(true);
-            by = (By) elementField.get(locator);
-        } catch (Exception e) {
-            throw new WebException("Failed to obtain element locator", driver);
-        }
+        logTrace(() -> "Attempting to invoke method [ " + method.getName() + " ]");
 
         if ("getWrappedElement".equals(method.getName())) {
             logTrace("Returning internal element");
@@ -99,22 +95,11 @@ public class ElementListHandler implements InvocationHandler {
             return driver;
         }
 
-        logTrace("Generate constructor for element");
-        Constructor cons = null;
-        cons = wrappingType.getConstructor(OrasiDriver.class, By.class, WebElement.class);
-        logTrace("Successfully created constructor");
-
-        List<Object> wrappedList = new ArrayList<Object>();
-
-        for (WebElement element : locator.findElements()) {
-            Object thing = cons.newInstance(driver, by, element);
-            wrappedList.add(wrappingType.cast(thing));
-        }
-        logTrace("Successfully created element instance");
+        List<Object> wrappedList = getSnapshot();
         try {
-            logTrace("Calling method [ " + method.getName() + " ]");
+            logTrace(() -> "Calling method [ " + method.getName() + " ]");
             Object response = method.invoke(wrappedList, objects);
-            logTrace("Successfully called method [ " + method.getName() + " ]");
+            logTrace(() -> "Successfully called method [ " + method.getName() + " ]");
             logTrace("Exitting ElementListHandler#invoke");
             return response;
         } catch (InvocationTargetException e) {
@@ -125,4 +110,98 @@ public class ElementListHandler implements InvocationHandler {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Drops the current snapshot so the elements are found again on the next call to the list
+     */
+    public void refresh() {
+        logTrace(() -> "Refreshing element list [ " + by + " ]");
+        snapshot = null;
+    }
+
+    /**
+     * Returns the current snapshot, finding the elements again if there is none or it is no longer attached to the
+     * page
+     */
+    private List<Object> getSnapshot() throws Throwable {
+        if (snapshot != null && !snapshot.isStale()) {
+            logTrace("Reusing element list snapshot");
+            return snapshot;
+        }
+
+        if (by == null) {
+            logTrace("Get locator By information");
+            try {
+                Field elementField = locator.getClass().getDeclaredField("by");
+                elementField.setAccessible(true);
+                by = (By) elementField.get(locator);
+            } catch (Exception e) {
+                throw new WebException("Failed to obtain element locator", driver);
+            }
+        }
+
+        if (constructor == null) {
+            logTrace("Generate constructor for element");
+            constructor = wrappingType.getConstructor(OrasiDriver.class, By.class, WebElement.class);
+            logTrace("Successfully created constructor");
+        }
+
+        logTrace(() -> "Finding elements for list [ " + by + " ]");
+        snapshot = new ElementSnapshot(locator.findElements());
+        return snapshot;
+    }
+
+    /**
+     * Read only view over the found elements, wrapping each one on first access
+     */
+    private class ElementSnapshot extends AbstractList<Object> {
+        private final List<WebElement> elements;
+        private final Object[] wrapped;
+
+        private ElementSnapshot(List<WebElement> elements) {
+            this.elements = elements;
+            this.wrapped = new Object[elements.size()];
+        }
+
+        /**
+         * An empty list is always found again, since elements may have been added since. Otherwise only the first
+         * element is checked, with one driver call, as it is removed from the page along with the rest when the list
+         * is re-rendered.
+         */
+        private boolean isStale() {
+            if (elements.isEmpty()) {
+                return true;
+            }
+
+            try {
+                elements.get(0).isEnabled();
+                return false;
+            } catch (StaleElementReferenceException sere) {
+                logTrace(() -> "Element list [ " + by + " ] is stale");
+                return true;
+            }
+        }
+
+        @Override
+        public Object get(int index) {
+            if (wrapped[index] == null) {
+                logTrace(() -> "Creating new instance of element at index [ " + index + " ]");
+                try {
+                    wrapped[index] = wrappingType.cast(constructor.newInstance(driver, by, elements.get(index)));
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new WebException("Failed to create element at index [ " + index + " ]", driver);
+                } catch (ReflectiveOperationException e) {
+                    throw new WebException("Failed to create element at index [ " + index + " ]", driver);
+                }
+            }
+            return wrapped[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+    }
+}
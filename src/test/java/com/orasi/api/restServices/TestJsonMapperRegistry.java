@@ -0,0 +1,107 @@
+package com.orasi.api.restServices;
+
+import java.io.IOException;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.orasi.api.APIBaseTest;
+import com.orasi.api.restServices.exceptions.RestException;
+import com.orasi.api.restServices.helpers.PostRequest;
+import com.orasi.api.restServices.helpers.PostsResponse;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestJsonMapperRegistry extends APIBaseTest {
+    private static final String UNKNOWN_PROPERTY = "{\"userId\":1,\"id\":1,\"blah\":1}";
+
+    @AfterMethod(alwaysRun = true)
+    public void resetRegistry() {
+        JsonMapperRegistry.getInstance().reset();
+    }
+
+    @Features("API")
+    @Stories("JsonMapperRegistry")
+    @Title("readerCached")
+    @Test
+    public void readerCached() {
+        JsonMapperRegistry registry = JsonMapperRegistry.getInstance();
+        Assert.assertSame(registry.getReader(PostsResponse.class), registry.getReader(PostsResponse.class));
+        Assert.assertSame(registry.getPrettyWriter(PostRequest.class), registry.getPrettyWriter(PostRequest.class));
+        Assert.assertNotSame(registry.getReader(PostsResponse.class, true), registry.getReader(PostsResponse.class, false));
+    }
+
+    @Features("API")
+    @Stories("JsonMapperRegistry")
+    @Title("unknownProperties")
+    @Test
+    public void unknownProperties() throws IOException {
+        JsonMapperRegistry registry = JsonMapperRegistry.getInstance();
+        PostsResponse post = registry.getReader(PostsResponse.class, false).readValue(UNKNOWN_PROPERTY);
+        Assert.assertEquals(post.getId(), 1);
+
+        registry.setFailOnUnknownProperties(false);
+        post = registry.getReader(PostsResponse.class).readValue(UNKNOWN_PROPERTY);
+        Assert.assertEquals(post.getUserId(), 1);
+    }
+
+    @Features("API")
+    @Stories("JsonMapperRegistry")
+    @Title("unknownPropertiesFail")
+    @Test(expectedExceptions = IOException.class)
+    public void unknownPropertiesFail() throws IOException {
+        JsonMapperRegistry.getInstance().getReader(PostsResponse.class).readValue(UNKNOWN_PROPERTY);
+    }
+
+    @Features("API")
+    @Stories("JsonMapperRegistry")
+    @Title("registerModule")
+    @Test
+    public void registerModule() throws IOException {
+        JsonMapperRegistry registry = JsonMapperRegistry.getInstance();
+        ObjectReader before = registry.getReader(PostsResponse.class);
+
+        SimpleModule module = new SimpleModule("UpperCaseStrings");
+        module.addDeserializer(String.class, new JsonDeserializer<String>() {
+            @Override
+            public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                return parser.getText().toUpperCase();
+            }
+        });
+        registry.registerModule(module);
+
+        Assert.assertNotSame(registry.getReader(PostsResponse.class), before);
+        PostsResponse post = registry.getReader(PostsResponse.class).readValue("{\"id\":1,\"title\":\"blah\"}");
+        Assert.assertEquals(post.getTitle(), "BLAH");
+    }
+
+    @Features("API")
+    @Stories("JsonMapperRegistry")
+    @Title("getJsonFromObject")
+    @Test
+    public void getJsonFromObject() {
+        PostRequest request = new PostRequest();
+        request.setUserId(1);
+        request.setTitle("blah");
+        String json = RestService.getJsonFromObject(request);
+        Assert.assertTrue(json.contains("\"title\" : \"blah\""), json);
+        Assert.assertEquals(RestService.getJsonFromObject(null), "null");
+    }
+
+    @Features("API")
+    @Stories("JsonMapperRegistry")
+    @Title("getJsonFromObjectExpectError")
+    @Test(expectedExceptions = RestException.class)
+    public void getJsonFromObjectExpectError() {
+        // An object with no properties cannot be serialized
+        RestService.getJsonFromObject(new Object());
+    }
+}
@@ -0,0 +1,131 @@
+package com.orasi.api.restServices;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.orasi.api.APIBaseTest;
+import com.orasi.api.restServices.exceptions.RestException;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestJsonPathQuery extends APIBaseTest {
+    private static final String JSON = "{\"id\":1,\"user\":{\"name\":\"blah\",\"roles\":[\"admin\",\"developer\"]},"
+            + "\"a/b\":\"slash\",\"0\":\"zero\",\"posts\":[{\"title\":\"first\"},{\"title\":\"second\",\"tags\":{\"x\":true}}]}";
+
+    private RestResponse response(String json) {
+        HttpResponse httpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, ResponseCodes.OK, "OK");
+        httpResponse.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+        return new RestResponse(new HttpGet("http://localhost/posts"), httpResponse, "0:00:00.001");
+    }
+
+    private JsonNode tree() throws IOException {
+        return JsonMapperRegistry.getInstance().getMapper().readTree(JSON);
+    }
+
+    @Features("API")
+    @Stories("JsonPathQuery")
+    @Title("compileCached")
+    @Test
+    public void compileCached() {
+        Assert.assertSame(JsonPathQuery.compile("$.user.name"), JsonPathQuery.compile("$.user.name"));
+    }
+
+    @Features("API")
+    @Stories("JsonPathQuery")
+    @Title("jsonPointer")
+    @Test
+    public void jsonPointer() throws IOException {
+        JsonNode tree = tree();
+        Assert.assertEquals(JsonPathQuery.compile("/user/name").evaluate(tree).asText(), "blah");
+        Assert.assertEquals(JsonPathQuery.compile("/user/roles/1").evaluate(tree).asText(), "developer");
+        Assert.assertEquals(JsonPathQuery.compile("/a~1b").evaluate(tree).asText(), "slash");
+        Assert.assertEquals(JsonPathQuery.compile("/0").evaluate(tree).asText(), "zero");
+        Assert.assertEquals(JsonPathQuery.compile("").evaluate(tree), tree);
+        Assert.assertNull(JsonPathQuery.compile("/user/missing").evaluate(tree));
+    }
+
+    @Features("API")
+    @Stories("JsonPathQuery")
+    @Title("jsonPath")
+    @Test
+    public void jsonPath() throws IOException {
+        JsonNode tree = tree();
+        Assert.assertEquals(JsonPathQuery.compile("$.posts[1].title").evaluate(tree).asText(), "second");
+        Assert.assertEquals(JsonPathQuery.compile("$['user']['roles'][0]").evaluate(tree).asText(), "admin");
+        Assert.assertNull(JsonPathQuery.compile("$.posts[5].title").evaluate(tree));
+        Assert.assertNull(JsonPathQuery.compile("$.user[0]").evaluate(tree));
+    }
+
+    @Features("API")
+    @Stories("JsonPathQuery")
+    @Title("evaluateManyInOnePass")
+    @Test
+    public void evaluateManyInOnePass() throws IOException {
+        JsonPathQuery title = JsonPathQuery.compile("$.posts[1].title");
+        JsonPathQuery posts = JsonPathQuery.compile("/posts");
+        JsonPathQuery tag = JsonPathQuery.compile("/posts/1/tags/x");
+        JsonPathQuery missing = JsonPathQuery.compile("$.missing");
+        try (JsonParser parser = JsonMapperRegistry.getInstance().getMapper().getFactory().createParser(JSON)) {
+            Map<JsonPathQuery, JsonNode> found = JsonPathQuery.evaluate(parser, Arrays.asList(title, posts, tag, missing));
+            Assert.assertEquals(found.get(title).asText(), "second");
+            Assert.assertEquals(found.get(posts).size(), 2);
+            Assert.assertTrue(found.get(tag).asBoolean());
+            Assert.assertFalse(found.containsKey(missing));
+        }
+    }
+
+    @Features("API")
+    @Stories("JsonPathQuery")
+    @Title("unsupportedPath")
+    @Test(expectedExceptions = RestException.class)
+    public void unsupportedPath() {
+        JsonPathQuery.compile("$.posts[*].title");
+    }
+
+    @Features("API")
+    @Stories("JsonPathQuery")
+    @Title("invalidPath")
+    @Test(expectedExceptions = RestException.class)
+    public void invalidPath() {
+        JsonPathQuery.compile("posts.title");
+    }
+
+    @Features("API")
+    @Stories("JsonPathQuery")
+    @Title("getValuesByPath")
+    @Test
+    public void getValuesByPath() {
+        Map<String, String> values = response(JSON).getValuesByPath("$.id", "/user/roles", "$.posts[0].title", "$.missing");
+        Assert.assertEquals(values.keySet().toArray(), new String[] { "$.id", "/user/roles", "$.posts[0].title", "$.missing" });
+        Assert.assertEquals(values.get("$.id"), "1");
+        Assert.assertEquals(values.get("/user/roles"), "[\"admin\",\"developer\"]");
+        Assert.assertEquals(values.get("$.posts[0].title"), "first");
+        Assert.assertNull(values.get("$.missing"));
+        Assert.assertEquals(response(JSON).getValueByPath("/user/name"), "blah");
+    }
+
+    @Features("API")
+    @Stories("JsonPathQuery")
+    @Title("validateValueByPath")
+    @Test
+    public void validateValueByPath() {
+        RestResponse response = response(JSON);
+        Assert.assertTrue(response.validateValueByPath(new Object[][] { { "$.id", "1" }, { "/user/name", "bl.*" }, { "$.posts[1].title", "second" } }));
+        Assert.assertFalse(response.validateValueByPath(new Object[][] { { "$.id", "1" }, { "/user/name", "other" } }));
+        Assert.assertFalse(response.validateValueByPath(new Object[][] { { "$.missing", ".*" } }));
+    }
+}
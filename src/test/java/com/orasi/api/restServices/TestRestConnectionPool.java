@@ -0,0 +1,259 @@
+package com.orasi.api.restServices;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orasi.api.APIBaseTest;
+import com.orasi.api.restServices.exceptions.RestException;
+import com.orasi.utils.Sleeper;
+import com.sun.net.httpserver.HttpServer;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestRestConnectionPool extends APIBaseTest {
+    private HttpServer server;
+    private String url;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/posts", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/hold", exchange -> {
+            inFlight.incrementAndGet();
+            Sleeper.sleep(1500);
+            inFlight.decrementAndGet();
+            byte[] body = "held".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/cookie", exchange -> {
+            String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+            byte[] body = (cookie == null ? "" : cookie).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Set-Cookie", "session=abc; Path=/");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            Sleeper.sleep(50);
+            inFlight.decrementAndGet();
+            byte[] body = exchange.getRequestURI().getQuery().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(10));
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/posts";
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        RestConnectionPool.getInstance().shutdown();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @BeforeMethod
+    public void clearPorts() {
+        RestConnectionPool.getInstance().shutdown();
+        clientPorts.clear();
+        maxInFlight.set(0);
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("reuseConnection")
+    @Test
+    public void reuseConnection() {
+        RestService rest = new RestService();
+        for (int request = 0; request < 10; request++) {
+            RestResponse response = rest.sendGetRequest(url);
+            Assert.assertEquals(response.getStatusCode(), ResponseCodes.OK);
+            Assert.assertEquals(response.getResponse(), "{\"id\":1}");
+        }
+
+        Assert.assertEquals(clientPorts.size(), 1, "All requests should use the same connection");
+        Assert.assertEquals(RestConnectionPool.getInstance().getTotalStats().getLeased(), 0);
+        Assert.assertEquals(RestConnectionPool.getInstance().getTotalStats().getAvailable(), 1);
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("cookiesNotShared")
+    @Test
+    public void cookiesNotShared() {
+        String cookieUrl = url.replace("/posts", "/cookie");
+        RestService rest = new RestService();
+        Assert.assertEquals(rest.sendGetRequest(cookieUrl).getResponse(), "");
+        Assert.assertEquals(rest.sendGetRequest(cookieUrl).getResponse(), "", "Cookie from the first request should not be sent");
+        Assert.assertEquals(new RestService().sendGetRequest(cookieUrl).getResponse(), "");
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("shareAcrossThreads")
+    @Test
+    public void shareAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int request = 0; request < 40; request++) {
+                statuses.add(executor.submit(() -> new RestService().sendGetRequest(url).getStatusCode()));
+            }
+            for (Future<Integer> status : statuses) {
+                Assert.assertEquals(status.get().intValue(), ResponseCodes.OK);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertTrue(clientPorts.size() <= 4, "Expected at most one connection per thread but found " + clientPorts.size());
+        Assert.assertEquals(RestConnectionPool.getInstance().getTotalStats().getLeased(), 0);
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("shutdown")
+    @Test
+    public void shutdown() {
+        RestConnectionPool pool = RestConnectionPool.getInstance();
+        new RestService().sendGetRequest(url);
+        pool.shutdown();
+        Assert.assertEquals(pool.getTotalStats().getAvailable(), 0);
+
+        Assert.assertEquals(new RestService().sendGetRequest(url).getStatusCode(), ResponseCodes.OK);
+        Assert.assertEquals(clientPorts.size(), 2, "A new connection should be opened after shutdown");
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("sendGetRequestAsync")
+    @Test
+    public void sendGetRequestAsync() {
+        RestService rest = new RestService();
+        CompletableFuture<RestResponse> first = rest.sendGetRequestAsync(url.replace("/posts", "/slow?first"));
+        CompletableFuture<RestResponse> second = rest.sendGetRequestAsync(url.replace("/posts", "/slow?second"));
+
+        Assert.assertEquals(first.join().getResponse(), "first");
+        Assert.assertEquals(second.join().getResponse(), "second");
+        Assert.assertFalse(first.join().getExecutionTime().isEmpty());
+        Assert.assertEquals(maxInFlight.get(), 2, "Both requests should be sent at the same time");
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("changeSettingsDuringRequest")
+    @Test
+    public void changeSettingsDuringRequest() {
+        RestConnectionPool pool = RestConnectionPool.getInstance();
+        // Sent from another thread, as another TestNG thread would, rather than the pool's own async threads
+        CompletableFuture<RestResponse> held = CompletableFuture.supplyAsync(() -> new RestService().sendGetRequest(url.replace("/posts", "/hold")));
+        while (inFlight.get() == 0 && !held.isDone()) {
+            Sleeper.sleep(10);
+        }
+
+        try {
+            pool.setIdleTimeout(RestConnectionPool.DEFAULT_IDLE_TIMEOUT + 1);
+            Assert.assertEquals(pool.getTotalStats().getLeased(), 0, "Settings should apply to a new client");
+            Assert.assertEquals(new RestService().sendGetRequest(url).getStatusCode(), ResponseCodes.OK);
+            Assert.assertEquals(held.join().getResponse(), "held", "Request on the old client should finish");
+        } finally {
+            pool.setIdleTimeout(RestConnectionPool.DEFAULT_IDLE_TIMEOUT);
+        }
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("sendGetRequestAsyncFailure")
+    @Test
+    public void sendGetRequestAsyncFailure() {
+        try {
+            new RestService().sendGetRequestAsync("ht://localhost/posts").join();
+            Assert.fail("Expected the request to fail");
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof RestException);
+        }
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("sendBatch")
+    @Test
+    public void sendBatch() {
+        RestService rest = new RestService();
+        List<Supplier<RestResponse>> requests = new ArrayList<>();
+        for (int request = 0; request < 12; request++) {
+            String query = "request" + request;
+            requests.add(() -> rest.sendGetRequest(url.replace("/posts", "/slow?" + query)));
+        }
+
+        List<RestResponse> responses = rest.sendBatch(requests, 3);
+        Assert.assertEquals(responses.size(), 12);
+        for (int request = 0; request < 12; request++) {
+            Assert.assertEquals(responses.get(request).getResponse(), "request" + request);
+        }
+        Assert.assertTrue(maxInFlight.get() <= 3, "Expected at most 3 requests at a time but found " + maxInFlight.get());
+        Assert.assertTrue(maxInFlight.get() > 1, "Expected requests to be sent at the same time");
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("sendBatchFailure")
+    @Test(expectedExceptions = RestException.class, expectedExceptionsMessageRegExp = ".*Request \\[ 2 \\] of batch failed.*")
+    public void sendBatchFailure() {
+        RestService rest = new RestService();
+        List<Supplier<RestResponse>> requests = new ArrayList<>();
+        requests.add(() -> rest.sendGetRequest(url));
+        requests.add(() -> rest.sendGetRequest("ht://localhost/posts"));
+        requests.add(() -> rest.sendGetRequest(url));
+        rest.sendBatch(requests, 2);
+    }
+
+    @Features("API")
+    @Stories("RestConnectionPool")
+    @Title("invalidMaxTotal")
+    @Test(expectedExceptions = RestException.class)
+    public void invalidMaxTotal() {
+        RestConnectionPool.getInstance().setMaxTotal(0);
+    }
+}
@@ -0,0 +1,185 @@
+package com.orasi.api.restServices;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.orasi.api.APIBaseTest;
+import com.orasi.api.restServices.Headers.HeaderType;
+import com.orasi.api.restServices.exceptions.RestException;
+import com.orasi.api.restServices.helpers.PostsResponse;
+import com.orasi.utils.TestReporter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestRestResponseStreaming extends APIBaseTest {
+    private static final int POSTS = 1000;
+    private HttpServer server;
+    private String url;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        StringBuilder posts = new StringBuilder("[");
+        for (int post = 1; post <= POSTS; post++) {
+            posts.append(post == 1 ? "" : ",").append("{\"id\":").append(post).append(",\"userId\":1,\"title\":\"title ").append(post)
+                    .append("\",\"body\":\"body\"}");
+        }
+        byte[] list = posts.append("]").toString().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/posts", exchange -> respond(exchange, "application/json", list));
+        server.createContext("/posts/1", exchange -> respond(exchange, "application/json",
+                "{\"id\":1,\"userId\":1,\"title\":\"title 1\",\"body\":\"body\"}".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/invalid", exchange -> respond(exchange, "application/json", "{\"id\":".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/error", exchange -> respond(exchange, "application/json",
+                "<html><body>Internal Server Error</body></html>".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/text", exchange -> respond(exchange, "text/plain", "plain text".getBytes(StandardCharsets.UTF_8)));
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        RestConnectionPool.getInstance().shutdown();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private RestService streamingService(int maxRetained) {
+        RestService rest = new RestService();
+        rest.setStreamResponses(true);
+        rest.setMaxRetainedBodyLength(maxRetained);
+        return rest;
+    }
+
+    @Features("API")
+    @Stories("RestServices")
+    @Title("streamJsonToTree")
+    @Test
+    public void streamJsonToTree() {
+        TestReporter.setDebugLevel(TestReporter.INFO);
+        RestResponse response = streamingService(100).sendGetRequest(url + "/posts");
+
+        Assert.assertTrue(response.isStreamed());
+        Assert.assertEquals(response.getResponseFormat(), "json");
+        JsonNode posts = response.mapJSONToTree();
+        Assert.assertEquals(posts.size(), POSTS);
+        Assert.assertEquals(posts.get(POSTS - 1).get("id").asInt(), POSTS);
+        Assert.assertTrue(response.getResponse().startsWith("[{\"id\":1,"), response.getResponse());
+        Assert.assertTrue(response.getResponse().contains("... [ truncated "), "Retained body should be capped");
+        Assert.assertTrue(response.getResponse().length() < 200);
+    }
+
+    @Features("API")
+    @Stories("RestServices")
+    @Title("streamJsonToObject")
+    @Test
+    public void streamJsonToObject() {
+        RestResponse response = streamingService(RestService.DEFAULT_MAX_RETAINED_BODY_LENGTH).sendGetRequest(url + "/posts/1");
+
+        PostsResponse post = response.mapJSONToObject(PostsResponse.class);
+        Assert.assertEquals(post.getId(), 1);
+        Assert.assertEquals(post.getTitle(), "title 1");
+    }
+
+    @Features("API")
+    @Stories("RestServices")
+    @Title("streamWithoutLogging")
+    @Test
+    public void streamWithoutLogging() {
+        TestReporter.setDebugLevel(TestReporter.NONE);
+        RestResponse response = streamingService(100).sendGetRequest(url + "/posts");
+
+        // Nothing was kept while reading, so the report text comes from the parsed tree with the same cap
+        Assert.assertEquals(response.mapJSONToTree().size(), POSTS);
+        Assert.assertTrue(response.getResponse().startsWith("[{\"id\":1,"), response.getResponse());
+        Assert.assertTrue(response.getResponse().contains("... [ truncated "));
+    }
+
+    @Features("API")
+    @Stories("RestServices")
+    @Title("streamMatchesBuffered")
+    @Test
+    public void streamMatchesBuffered() {
+        RestResponse streamed = streamingService(RestService.DEFAULT_MAX_RETAINED_BODY_LENGTH).sendGetRequest(url + "/posts/1");
+        RestResponse buffered = new RestService().sendGetRequest(url + "/posts/1");
+
+        Assert.assertFalse(buffered.isStreamed());
+        Assert.assertEquals(streamed.getResponse(), buffered.getResponse());
+        Assert.assertEquals(streamed.mapJSONToTree(), buffered.mapJSONToTree());
+        Assert.assertEquals(streamed.getResponseAsXML(), buffered.getResponseAsXML());
+    }
+
+    @Features("API")
+    @Stories("RestServices")
+    @Title("streamRequestBody")
+    @Test
+    public void streamRequestBody() {
+        StringBuilder json = new StringBuilder("{\"title\":\"");
+        for (int character = 0; character < 500; character++) {
+            json.append('a');
+        }
+        json.append("\"}");
+
+        RestResponse response = streamingService(50).sendPostRequest(url + "/posts/1", HeaderType.JSON, json.toString());
+        Assert.assertTrue(response.getRequestBody().startsWith("{\"title\":\"aaa"));
+        Assert.assertTrue(response.getRequestBody().contains("... [ truncated 462 bytes ]"), response.getRequestBody());
+    }
+
+    @Features("API")
+    @Stories("RestServices")
+    @Title("streamText")
+    @Test
+    public void streamText() {
+        RestResponse response = streamingService(RestService.DEFAULT_MAX_RETAINED_BODY_LENGTH).sendGetRequest(url + "/text");
+        Assert.assertEquals(response.getResponse(), "plain text");
+    }
+
+    @Features("API")
+    @Stories("RestServices")
+    @Title("streamInvalidJson")
+    @Test(expectedExceptions = RestException.class)
+    public void streamInvalidJson() {
+        RestResponse response = streamingService(RestService.DEFAULT_MAX_RETAINED_BODY_LENGTH).sendGetRequest(url + "/invalid");
+        Assert.assertEquals(response.getStatusCode(), ResponseCodes.OK);
+        response.mapJSONToTree();
+    }
+
+    @Features("API")
+    @Stories("RestServices")
+    @Title("streamInvalidJsonKeepsBody")
+    @Test
+    public void streamInvalidJsonKeepsBody() {
+        TestReporter.setDebugLevel(TestReporter.NONE);
+        RestResponse response = streamingService(RestService.DEFAULT_MAX_RETAINED_BODY_LENGTH).sendGetRequest(url + "/error");
+        Assert.assertEquals(response.getResponse(), "<html><body>Internal Server Error</body></html>");
+    }
+
+    @Features("API")
+    @Stories("RestServices")
+    @Title("invalidMaxRetainedBodyLength")
+    @Test(expectedExceptions = RestException.class)
+    public void invalidMaxRetainedBodyLength() {
+        new RestService().setMaxRetainedBodyLength(-1);
+    }
+}
@@ -307,8 +307,8 @@ public class TestRestService extends APIBaseTest {
     @Title("getJsonFromObjectExpectError")
     @Test(expectedExceptions = RestException.class)
     public void getJsonFromObjectExpectError() {
-        RestService rest = new RestService();
-        RestService.getJsonFromObject(rest);
+        // An object with no properties cannot be serialized
+        RestService.getJsonFromObject(new Object());
     }
 
     @Features("API")
@@ -0,0 +1,244 @@
+package com.orasi.api.soapServices;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.soap.SOAPConstants;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orasi.api.APIBaseTest;
+import com.orasi.api.soapServices.exceptions.SoapException;
+import com.orasi.api.soapServices.helpers.GetInfoByZip;
+import com.orasi.utils.Sleeper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestSoapConnectionPool extends APIBaseTest {
+    private static final String RESPONSE = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+            + "<soap:Body><GetInfoByZIPResponse xmlns=\"http://www.webserviceX.NET\"><GetInfoByZIPResult><NewDataSet>"
+            + "<Table><CITY>Greensboro</CITY><STATE>NC</STATE><ZIP>27410</ZIP></Table>"
+            + "</NewDataSet></GetInfoByZIPResult></GetInfoByZIPResponse></soap:Body></soap:Envelope>";
+    private static final String FAULT = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\"><soap:Body><soap:Fault>"
+            + "<soap:Code><soap:Value>soap:Receiver</soap:Value></soap:Code><soap:Reason><soap:Text xml:lang=\"en\">Failed</soap:Text></soap:Reason>"
+            + "</soap:Fault></soap:Body></soap:Envelope>";
+
+    private HttpServer server;
+    private String url;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final List<String> cookies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger slowRequests = new AtomicInteger();
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/zip", exchange -> respond(exchange, 200, RESPONSE));
+        server.createContext("/fault", exchange -> respond(exchange, 500, FAULT));
+        server.createContext("/cookie", exchange -> {
+            String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+            if (cookie != null) {
+                cookies.add(cookie);
+            }
+            exchange.getResponseHeaders().add("Set-Cookie", "session=abc; Path=/");
+            respond(exchange, 200, RESPONSE);
+        });
+        server.createContext("/missing", exchange -> respond(exchange, 404, "Not Found"));
+        server.createContext("/slow", exchange -> {
+            slowRequests.incrementAndGet();
+            Sleeper.sleep(2000);
+            respond(exchange, 200, RESPONSE);
+        });
+        server.setExecutor(Executors.newFixedThreadPool(5));
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try (InputStream in = exchange.getRequestBody()) {
+            IOUtils.toByteArray(in);
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/soap+xml; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        SoapConnectionPool.getInstance().shutdown();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @BeforeMethod
+    public void clearPorts() {
+        SoapConnectionPool.getInstance().shutdown();
+        clientPorts.clear();
+        cookies.clear();
+        slowRequests.set(0);
+    }
+
+    private GetInfoByZip service(String path) {
+        GetInfoByZip getInfo = new GetInfoByZip();
+        getInfo.setSoapVersion();
+        getInfo.setServiceURL(url + path);
+        return getInfo;
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("messageFactoryShared")
+    @Test
+    public void messageFactoryShared() {
+        SoapConnectionPool pool = SoapConnectionPool.getInstance();
+        Assert.assertSame(pool.getMessageFactory(SOAPConstants.SOAP_1_2_PROTOCOL), pool.getMessageFactory(SOAPConstants.SOAP_1_2_PROTOCOL));
+        Assert.assertNotSame(pool.getMessageFactory(SOAPConstants.SOAP_1_1_PROTOCOL), pool.getMessageFactory(SOAPConstants.SOAP_1_2_PROTOCOL));
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("connectionSharedPerEndpoint")
+    @Test
+    public void connectionSharedPerEndpoint() {
+        SoapConnectionPool pool = SoapConnectionPool.getInstance();
+        Assert.assertSame(pool.getConnection(SOAPConstants.SOAP_1_2_PROTOCOL, url + "/zip"), pool.getConnection(SOAPConstants.SOAP_1_2_PROTOCOL, url + "/zip"));
+        Assert.assertNotSame(pool.getConnection(SOAPConstants.SOAP_1_2_PROTOCOL, url + "/zip"), pool.getConnection(SOAPConstants.SOAP_1_1_PROTOCOL, url + "/zip"));
+        Assert.assertNotSame(pool.getConnection(SOAPConstants.SOAP_1_2_PROTOCOL, url + "/zip"), pool.getConnection(SOAPConstants.SOAP_1_2_PROTOCOL, url + "/fault"));
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("sendRequestKeepsConnectionAlive")
+    @Test
+    public void sendRequestKeepsConnectionAlive() {
+        for (int request = 0; request < 5; request++) {
+            GetInfoByZip getInfo = service("/zip");
+            getInfo.sendRequest();
+            Assert.assertEquals(getInfo.getResponseStatusCode(), "200");
+            Assert.assertEquals(getInfo.getNumberOfResults(), 1);
+        }
+        Assert.assertEquals(clientPorts.size(), 1, "Requests should share one connection");
+        Assert.assertEquals(SoapConnectionPool.getInstance().getTotalStats().getAvailable(), 1);
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("sendRequestWithoutCookies")
+    @Test
+    public void sendRequestWithoutCookies() {
+        service("/cookie").sendRequest();
+        service("/cookie").sendRequest();
+        Assert.assertTrue(cookies.isEmpty(), "Cookies should not be kept between requests: " + cookies);
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("sendRequestFault")
+    @Test
+    public void sendRequestFault() {
+        GetInfoByZip getInfo = service("/fault");
+        getInfo.sendRequest();
+        Assert.assertNotEquals(getInfo.getResponseStatusCode(), "200");
+        Assert.assertTrue(getInfo.getResponse().contains("Failed"));
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("sendRequestBadStatus")
+    @Test(expectedExceptions = SoapException.class)
+    public void sendRequestBadStatus() {
+        service("/missing").sendRequest();
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("sendRequestReadTimeout")
+    @Test(expectedExceptions = SoapException.class)
+    public void sendRequestReadTimeout() {
+        SoapConnectionPool.getInstance().setReadTimeout(1);
+        try {
+            service("/slow").sendRequest();
+        } finally {
+            SoapConnectionPool.getInstance().setReadTimeout(SoapConnectionPool.DEFAULT_READ_TIMEOUT);
+        }
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("shutdownClosesConnections")
+    @Test
+    public void shutdownClosesConnections() {
+        SoapConnectionPool pool = SoapConnectionPool.getInstance();
+        service("/zip").sendRequest();
+        Object connection = pool.getConnection(SOAPConstants.SOAP_1_2_PROTOCOL, url + "/zip");
+
+        pool.shutdown();
+        Assert.assertEquals(pool.getTotalStats().getAvailable(), 0);
+        Assert.assertNotSame(pool.getConnection(SOAPConstants.SOAP_1_2_PROTOCOL, url + "/zip"), connection);
+
+        service("/zip").sendRequest();
+        Assert.assertEquals(clientPorts.size(), 2);
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("changeSettingsDuringAsyncRequest")
+    @Test
+    public void changeSettingsDuringAsyncRequest() {
+        SoapConnectionPool pool = SoapConnectionPool.getInstance();
+        CompletableFuture<SoapService> slow = service("/slow").sendRequestAsync();
+        while (slowRequests.get() == 0 && !slow.isDone()) {
+            Sleeper.sleep(10);
+        }
+
+        // The setter waits for the slow request to finish before closing the client
+        CompletableFuture<Void> setter = CompletableFuture.runAsync(() -> pool.setIdleTimeout(SoapConnectionPool.DEFAULT_IDLE_TIMEOUT + 1));
+        try {
+            Sleeper.sleep(200);
+            long start = System.currentTimeMillis();
+            Assert.assertEquals(pool.getIdleTimeout(), SoapConnectionPool.DEFAULT_IDLE_TIMEOUT + 1);
+            Assert.assertNotNull(pool.getExecutor());
+            GetInfoByZip getInfo = service("/zip");
+            getInfo.sendRequest();
+            Assert.assertEquals(getInfo.getResponseStatusCode(), "200");
+            Assert.assertTrue(System.currentTimeMillis() - start < 1000, "Pool should not be locked while the setter waits");
+            Assert.assertFalse(slow.isDone(), "Slow request should still be in flight");
+
+            Assert.assertEquals(slow.join().getResponseStatusCode(), "200");
+            setter.join();
+        } finally {
+            pool.setIdleTimeout(SoapConnectionPool.DEFAULT_IDLE_TIMEOUT);
+        }
+    }
+
+    @Features("API")
+    @Stories("SoapConnectionPool")
+    @Title("invalidMaxTotal")
+    @Test(expectedExceptions = SoapException.class)
+    public void invalidMaxTotal() {
+        SoapConnectionPool.getInstance().setMaxTotal(0);
+    }
+}
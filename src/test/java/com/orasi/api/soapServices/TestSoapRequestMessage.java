@@ -0,0 +1,98 @@
+package com.orasi.api.soapServices;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.MimeHeaders;
+import javax.xml.soap.SOAPConstants;
+import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPMessage;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import com.orasi.api.APIBaseTest;
+import com.orasi.api.soapServices.helpers.GetInfoByZip;
+import com.orasi.utils.XMLTools;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestSoapRequestMessage extends APIBaseTest {
+    private static final String RESPONSE = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+            + "<soap:Body><GetInfoByZIPResponse xmlns=\"http://www.webserviceX.NET\"><GetInfoByZIPResult><NewDataSet>"
+            + "<Table><CITY>Greensboro</CITY><STATE>NC</STATE><ZIP>27410</ZIP></Table>"
+            + "</NewDataSet></GetInfoByZIPResult></GetInfoByZIPResponse></soap:Body></soap:Envelope>";
+
+    private static MessageFactory factory() throws SOAPException {
+        return MessageFactory.newInstance(SOAPConstants.SOAP_1_2_PROTOCOL);
+    }
+
+    private static byte[] bytes(SOAPMessage message) throws SOAPException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Message built the way sendRequest did before, from the request String
+     */
+    private static SOAPMessage fromString(SoapService service) throws SOAPException, IOException {
+        return factory().createMessage(new MimeHeaders(), new ByteArrayInputStream(service.getRequest().getBytes(Charset.defaultCharset())));
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("requestMessageMatchesString")
+    @Test
+    public void requestMessageMatchesString() throws SOAPException, IOException {
+        GetInfoByZip getInfo = new GetInfoByZip();
+        Assert.assertEquals(bytes(getInfo.createRequestMessage(factory())), bytes(fromString(getInfo)));
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("requestMessageMatchesStringAfterUpdate")
+    @Test
+    public void requestMessageMatchesStringAfterUpdate() throws SOAPException, IOException {
+        GetInfoByZip getInfo = new GetInfoByZip();
+        getInfo.setZip("12345");
+        getInfo.addRequestHeader("blah", "blah");
+
+        byte[] message = bytes(getInfo.createRequestMessage(factory()));
+        Assert.assertEquals(message, bytes(fromString(getInfo)));
+        Assert.assertTrue(new String(message, StandardCharsets.UTF_8).contains(">12345<"));
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("requestMessageKeepsUnicode")
+    @Test
+    public void requestMessageKeepsUnicode() throws SOAPException, IOException {
+        GetInfoByZip getInfo = new GetInfoByZip();
+        getInfo.setZip("Z\u00fcrich \u6771\u4eac");
+
+        SOAPMessage message = getInfo.createRequestMessage(factory());
+        Assert.assertEquals(message.getSOAPBody().getTextContent().trim(), "Z\u00fcrich \u6771\u4eac");
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("responseDocumentMatchesString")
+    @Test
+    public void responseDocumentMatchesString() throws SOAPException, IOException {
+        SOAPMessage response = factory().createMessage(new MimeHeaders(), new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+
+        Document fromMessage = XMLTools.makeXMLDocument(response);
+        Document fromString = XMLTools.makeXMLDocument(new String(bytes(response), StandardCharsets.ISO_8859_1));
+        Assert.assertTrue(fromMessage.isEqualNode(fromString));
+        Assert.assertEquals(XMLTools.getValueByXpath(fromMessage, "/Envelope/Body/GetInfoByZIPResponse/GetInfoByZIPResult/NewDataSet/Table/CITY"),
+                "Greensboro");
+    }
+}
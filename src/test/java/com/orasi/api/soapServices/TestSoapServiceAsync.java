@@ -0,0 +1,225 @@
+package com.orasi.api.soapServices;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orasi.api.APIBaseTest;
+import com.orasi.api.soapServices.exceptions.SoapException;
+import com.orasi.api.soapServices.helpers.GetInfoByZip;
+import com.orasi.utils.Sleeper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestSoapServiceAsync extends APIBaseTest {
+    private static final String ZIP_XPATH = "/Envelope/Body/GetInfoByZIP/USZip";
+    private static final String RESPONSE_ZIP_XPATH = "/Envelope/Body/GetInfoByZIPResponse/GetInfoByZIPResult/NewDataSet/Table/ZIP";
+    private static final Pattern ZIP = Pattern.compile("<web:USZip>([^<]*)</web:USZip>");
+
+    private HttpServer server;
+    private String url;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/zip", this::respond);
+        server.createContext("/missing", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                IOUtils.toByteArray(in);
+            }
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(10));
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Echoes the zip of the request back in the response, after a short delay so requests overlap
+     */
+    private void respond(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        String request;
+        try (InputStream in = exchange.getRequestBody()) {
+            request = IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+        Sleeper.sleep(50);
+        inFlight.decrementAndGet();
+
+        Matcher zip = ZIP.matcher(request);
+        byte[] body = ("<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\"><soap:Body>"
+                + "<GetInfoByZIPResponse xmlns=\"http://www.webserviceX.NET\"><GetInfoByZIPResult><NewDataSet><Table><ZIP>"
+                + (zip.find() ? zip.group(1) : "") + "</ZIP></Table></NewDataSet></GetInfoByZIPResult></GetInfoByZIPResponse>"
+                + "</soap:Body></soap:Envelope>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/soap+xml; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        SoapConnectionPool.getInstance().shutdown();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @BeforeMethod
+    public void resetCounts() {
+        maxInFlight.set(0);
+    }
+
+    private GetInfoByZip service(String path) {
+        GetInfoByZip getInfo = new GetInfoByZip();
+        getInfo.setSoapVersion();
+        getInfo.setServiceURL(url + path);
+        return getInfo;
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("sendRequestAsync")
+    @Test
+    public void sendRequestAsync() {
+        GetInfoByZip getInfo = service("/zip");
+        getInfo.setZip("12345");
+
+        CompletableFuture<SoapService> future = getInfo.sendRequestAsync();
+        Assert.assertSame(future.join(), getInfo);
+        Assert.assertEquals(getInfo.getResponseStatusCode(), "200");
+        Assert.assertEquals(getInfo.getResponseNodeValueByXPath(RESPONSE_ZIP_XPATH), "12345");
+        Assert.assertNotNull(getInfo.getExecutionTime());
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("sendRequestAsyncFailure")
+    @Test
+    public void sendRequestAsyncFailure() {
+        try {
+            service("/missing").sendRequestAsync().join();
+            Assert.fail("Expected the request to fail");
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof SoapException);
+        }
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("copyIsIndependent")
+    @Test
+    public void copyIsIndependent() {
+        GetInfoByZip getInfo = service("/zip");
+        getInfo.addRequestHeader("blah", "blah");
+
+        SoapService copy = getInfo.copy();
+        Assert.assertEquals(copy.getClass(), GetInfoByZip.class);
+        copy.setRequestNodeValueByXPath(ZIP_XPATH, "54321");
+        Assert.assertEquals(copy.getRequestNodeValueByXPath(ZIP_XPATH), "54321");
+        Assert.assertEquals(getInfo.getRequestZip(), "27410");
+        Assert.assertEquals(copy.getServiceURL(), getInfo.getServiceURL());
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("sendBatch")
+    @Test
+    public void sendBatch() {
+        GetInfoByZip template = service("/zip");
+        List<Object[][]> scenarios = new ArrayList<>();
+        for (int scenario = 0; scenario < 20; scenario++) {
+            scenarios.add(new Object[][] { { ZIP_XPATH, String.valueOf(10000 + scenario) } });
+        }
+
+        List<GetInfoByZip> results = SoapService.sendBatch(template, scenarios, 3);
+        Assert.assertEquals(results.size(), 20);
+        for (int scenario = 0; scenario < 20; scenario++) {
+            GetInfoByZip result = results.get(scenario);
+            Assert.assertEquals(result.getResponseStatusCode(), "200");
+            Assert.assertEquals(result.getResponseNodeValueByXPath(RESPONSE_ZIP_XPATH), String.valueOf(10000 + scenario));
+            Assert.assertNotNull(result.getExecutionTime());
+        }
+        Assert.assertEquals(template.getRequestZip(), "27410", "Template should not be changed");
+        Assert.assertTrue(maxInFlight.get() <= 3, "No more than 3 requests at a time, found " + maxInFlight.get());
+        Assert.assertTrue(maxInFlight.get() > 1, "Requests should be sent in parallel");
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("sendBatchAboveMaxPerRoute")
+    @Test
+    public void sendBatchAboveMaxPerRoute() {
+        List<Object[][]> scenarios = new ArrayList<>();
+        for (int scenario = 0; scenario < 8; scenario++) {
+            scenarios.add(new Object[][] { { ZIP_XPATH, String.valueOf(20000 + scenario) } });
+        }
+
+        SoapConnectionPool.getInstance().setMaxPerRoute(2);
+        try {
+            List<GetInfoByZip> results = SoapService.sendBatch(service("/zip"), scenarios, 10);
+            Assert.assertEquals(results.size(), 8);
+            Assert.assertEquals(results.get(7).getResponseNodeValueByXPath(RESPONSE_ZIP_XPATH), "20007");
+            Assert.assertTrue(maxInFlight.get() <= 2, "No more than 2 requests at a time, found " + maxInFlight.get());
+        } finally {
+            SoapConnectionPool.getInstance().setMaxPerRoute(SoapConnectionPool.DEFAULT_MAX_PER_ROUTE);
+        }
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("sendBatchFromFile")
+    @Test
+    public void sendBatchFromFile() {
+        List<GetInfoByZip> results = SoapService.sendBatch(service("/zip"), "/excelsheets/GetInfoByZipRequest_csv.csv", Arrays.asList("Main", "Main"), 2);
+        Assert.assertEquals(results.size(), 2);
+        for (GetInfoByZip result : results) {
+            Assert.assertEquals(result.getResponseNodeValueByXPath(RESPONSE_ZIP_XPATH), "27410");
+        }
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("sendBatchFailure")
+    @Test(expectedExceptions = SoapException.class)
+    public void sendBatchFailure() {
+        List<Object[][]> scenarios = new ArrayList<>();
+        scenarios.add(new Object[][] { { ZIP_XPATH, "12345" } });
+        SoapService.sendBatch(service("/missing"), scenarios, 2);
+    }
+
+    @Features("API")
+    @Stories("SoapServices")
+    @Title("sendBatchInvalidMaxConcurrent")
+    @Test(expectedExceptions = SoapException.class)
+    public void sendBatchInvalidMaxConcurrent() {
+        SoapService.sendBatch(service("/zip"), new ArrayList<Object[][]>(), 0);
+    }
+}
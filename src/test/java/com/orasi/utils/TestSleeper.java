@@ -0,0 +1,118 @@
+package com.orasi.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.orasi.web.WebBaseTest;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestSleeper extends WebBaseTest {
+    /**
+     * Moves time forward instead of waiting
+     */
+    private static class FakeClock implements Sleeper.Clock {
+        private long now = 0;
+
+        @Override
+        public long millis() {
+            return now;
+        }
+
+        @Override
+        public void park(long millis) {
+            now += millis;
+        }
+    }
+
+    @AfterMethod(groups = { "regression", "utils", "Sleeper" })
+    public void resetClock() {
+        Sleeper.setClock(null);
+        Thread.interrupted();
+    }
+
+    @Features("Utilities")
+    @Stories("Sleeper")
+    @Title("sleep")
+    @Test(groups = { "regression", "utils", "Sleeper" })
+    public void sleep() {
+        long start = System.currentTimeMillis();
+        Sleeper.sleep(200);
+        Assert.assertTrue(System.currentTimeMillis() - start >= 200);
+        Assert.assertEquals(Sleeper.getSleepCount(), 1);
+        Assert.assertTrue(Sleeper.getSleepTime() >= 200);
+    }
+
+    @Features("Utilities")
+    @Stories("Sleeper")
+    @Title("fakeClock")
+    @Test(groups = { "regression", "utils", "Sleeper" })
+    public void fakeClock() {
+        Sleeper.setClock(new FakeClock());
+        int level = TestReporter.getDebugLevel();
+        TestReporter.setDebugLevel(TestReporter.DEBUG);
+        long start = System.currentTimeMillis();
+        try {
+            Sleeper.sleep(60000);
+            Sleeper.sleep(500);
+        } finally {
+            TestReporter.setDebugLevel(level);
+        }
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+        Assert.assertEquals(Sleeper.getSleepCount(), 2);
+        Assert.assertEquals(Sleeper.getSleepTime(), 60500);
+        Assert.assertEquals(Sleeper.getSleepTimeByCaller().size(), 2);
+        for (String caller : Sleeper.getSleepTimeByCaller().keySet()) {
+            Assert.assertTrue(caller.startsWith(TestSleeper.class.getName() + "#fakeClock"), caller);
+        }
+    }
+
+    @Features("Utilities")
+    @Stories("Sleeper")
+    @Title("pollNotCounted")
+    @Test(groups = { "regression", "utils", "Sleeper" })
+    public void pollNotCounted() throws InterruptedException {
+        Sleeper.setClock(new FakeClock());
+        Sleeper.poll(500);
+        Assert.assertEquals(Sleeper.getSleepCount(), 0);
+        Assert.assertEquals(Sleeper.getSleepTime(), 0);
+    }
+
+    @Features("Utilities")
+    @Stories("Sleeper")
+    @Title("pollInterrupted")
+    @Test(groups = { "regression", "utils", "Sleeper" }, expectedExceptions = InterruptedException.class)
+    public void pollInterrupted() throws InterruptedException {
+        Sleeper.setClock(new FakeClock());
+        Thread.currentThread().interrupt();
+        Sleeper.poll(0);
+    }
+
+    @Features("Utilities")
+    @Stories("Sleeper")
+    @Title("sleepInterrupted")
+    @Test(groups = { "regression", "utils", "Sleeper" })
+    public void sleepInterrupted() {
+        Thread.currentThread().interrupt();
+        long start = System.currentTimeMillis();
+        Sleeper.sleep(10000);
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+        Assert.assertTrue(Thread.interrupted());
+    }
+
+    @Features("Utilities")
+    @Stories("Sleeper")
+    @Title("sleepInterruptibly")
+    @Test(groups = { "regression", "utils", "Sleeper" }, expectedExceptions = InterruptedException.class)
+    public void sleepInterruptibly() throws InterruptedException {
+        Thread thread = Thread.currentThread();
+        new Thread(() -> {
+            Sleeper.sleep(100);
+            thread.interrupt();
+        }).start();
+        Sleeper.sleepInterruptibly(10000);
+    }
+}
@@ -0,0 +1,96 @@
+package com.orasi.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orasi.web.WebBaseTest;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestTestEventLog extends WebBaseTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void closeEventLog() {
+        TestEventLog.close();
+    }
+
+    @Features("Utilities")
+    @Stories("TestEventLog")
+    @Title("writeEvents")
+    @Test
+    public void writeEvents() throws IOException {
+        File file = File.createTempFile("events", ".jsonl");
+        file.deleteOnExit();
+        TestEventLog.open(file.getAbsolutePath());
+        Assert.assertTrue(TestEventLog.isEnabled());
+
+        TestReporter.logStep("Open the <b>login</b> page");
+        TestReporter.interfaceLog("Clicked Button [ <b>btnLogin</b>]");
+        TestReporter.assertTrue(true, "Logged in");
+        TestEventLog.record(TestEventLog.Type.SYNC, "Sync satisfied", "By.id: btnLogin", 25, true);
+        TestEventLog.close();
+
+        List<JsonNode> events = readEvents(file);
+        Assert.assertEquals(events.size(), 4);
+
+        JsonNode step = events.get(0);
+        Assert.assertEquals(step.get("type").asText(), "STEP");
+        Assert.assertEquals(step.get("message").asText(), "Open the login page");
+        Assert.assertEquals(step.get("test").asText(), "TestTestEventLog#writeEvents");
+        Assert.assertEquals(step.get("thread").asText(), Thread.currentThread().getName());
+        Assert.assertTrue(step.get("timestamp").asLong() > 0);
+        Assert.assertFalse(step.has("locator"));
+        Assert.assertFalse(step.has("passed"));
+
+        JsonNode action = events.get(1);
+        Assert.assertEquals(action.get("type").asText(), "INTERFACE");
+        Assert.assertEquals(action.get("locator").asText(), "btnLogin");
+        Assert.assertTrue(action.get("passed").asBoolean());
+
+        JsonNode assertion = events.get(2);
+        Assert.assertEquals(assertion.get("type").asText(), "ASSERTION");
+        Assert.assertEquals(assertion.get("message").asText(), "Assert True - Logged in");
+        Assert.assertTrue(assertion.get("passed").asBoolean());
+
+        JsonNode sync = events.get(3);
+        Assert.assertEquals(sync.get("type").asText(), "SYNC");
+        Assert.assertEquals(sync.get("locator").asText(), "By.id: btnLogin");
+        Assert.assertEquals(sync.get("duration").asLong(), 25);
+    }
+
+    @Features("Utilities")
+    @Stories("TestEventLog")
+    @Title("disabled")
+    @Test
+    public void disabled() throws IOException {
+        File file = File.createTempFile("events", ".jsonl");
+        file.deleteOnExit();
+        TestEventLog.open(file.getAbsolutePath());
+        TestEventLog.close();
+        Assert.assertFalse(TestEventLog.isEnabled());
+
+        TestReporter.logStep("Not recorded");
+        Assert.assertTrue(readEvents(file).isEmpty());
+    }
+
+    private List<JsonNode> readEvents(File file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            events.add(mapper.readTree(line));
+        }
+        return events;
+    }
+}
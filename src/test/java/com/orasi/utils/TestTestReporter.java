@@ -353,6 +353,78 @@ public class TestTestReporter extends WebBaseTest {
         Assert.assertTrue(logHelper(Reporter.getOutput(), log));
     }
 
+    @Test(dependsOnMethods = { "testSetDebugLevel" })
+    public void testLogTraceSupplier() {
+        TestReporter.setDebugLevel(TestReporter.TRACE);
+        String log = "testLogTraceSupplier";
+        TestReporter.logTrace(() -> log + " message");
+        Assert.assertTrue(logHelper(Reporter.getOutput(), "TRACE :: com.orasi.utils.TestTestReporter#testLogTraceSupplier > " + log + " message"));
+    }
+
+    @Test(dependsOnMethods = { "testSetDebugLevel" })
+    public void testLogTraceSupplierNotBuilt() {
+        int level = TestReporter.getDebugLevel();
+        TestReporter.setDebugLevel(TestReporter.INFO);
+        try {
+            Assert.assertFalse(TestReporter.isTraceEnabled());
+            Assert.assertFalse(TestReporter.isDebugEnabled());
+            Assert.assertTrue(TestReporter.isInfoEnabled());
+            TestReporter.logTrace(() -> {
+                throw new AssertionError("Trace message built when TRACE is off");
+            });
+            TestReporter.logDebug(() -> {
+                throw new AssertionError("Debug message built when DEBUG is off");
+            });
+        } finally {
+            TestReporter.setDebugLevel(level);
+        }
+    }
+
+    @Test
+    public void testAsyncReporting() {
+        TestReporter.setAsyncReporting(true);
+        try {
+            Assert.assertTrue(TestReporter.isAsyncReporting());
+            for (int line = 1; line <= 50; line++) {
+                TestReporter.log("testAsyncReporting line " + line);
+            }
+            TestReporter.flush();
+
+            List<String> output = Reporter.getOutput(Reporter.getCurrentTestResult());
+            int previous = -1;
+            for (int line = 1; line <= 50; line++) {
+                String expected = "testAsyncReporting line " + line + "<";
+                int index = -1;
+                for (int i = 0; i < output.size(); i++) {
+                    if (output.get(i).contains(expected)) {
+                        index = i;
+                        break;
+                    }
+                }
+                Assert.assertTrue("Line " + line + " was not in order", index > previous);
+                previous = index;
+            }
+        } finally {
+            TestReporter.setAsyncReporting(false);
+        }
+    }
+
+    @Test
+    public void testAsyncReportingBackgroundWrite() {
+        String log = "testAsyncReportingBackgroundWrite";
+        TestReporter.setAsyncReporting(true);
+        try {
+            TestReporter.log(log);
+            long end = System.currentTimeMillis() + 5000;
+            while (!logHelper(Reporter.getOutput(), log) && System.currentTimeMillis() < end) {
+                Sleeper.sleep(50);
+            }
+            Assert.assertTrue(logHelper(Reporter.getOutput(), log));
+        } finally {
+            TestReporter.setAsyncReporting(false);
+        }
+    }
+
     @Test
     public void testLogScreenshot() {
 
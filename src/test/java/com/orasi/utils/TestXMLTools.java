@@ -122,6 +122,50 @@ public class TestXMLTools extends WebBaseTest {
         Assert.assertTrue(XMLTools.transformXmlToString(doc).replaceAll("\\r|\\n|\\t| ", "").contains(xml.replaceAll(" ", "")));
     }
 
+    @Features("Utilities")
+    @Stories("XMLTools")
+    @Title("makeXMLDocumentReusesParser")
+    @Test(groups = { "regression", "utils", "XMLTools" })
+    public void makeXMLDocumentReusesParser() {
+        Document first = XMLTools.makeXMLDocument("<catalog><book>first</book></catalog>");
+        try {
+            XMLTools.makeXMLDocument("<catalog><book>");
+        } catch (AutomationException expected) {
+            // A failed parse must not affect the next one on this thread
+        }
+        Document second = XMLTools.makeXMLDocument("<catalog><book>second</book></catalog>");
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("first", XMLTools.getValueByXpath(first, "/catalog/book"));
+        Assert.assertEquals("second", XMLTools.getValueByXpath(second, "/catalog/book"));
+    }
+
+    @Features("Utilities")
+    @Stories("XMLTools")
+    @Title("makeXMLDocumentExternalEntityNotLoaded")
+    @Test(groups = { "regression", "utils", "XMLTools" })
+    public void makeXMLDocumentExternalEntityNotLoaded() {
+        String books = this.getClass().getResource("/xmls/books.xml").toString();
+        String xml = "<!DOCTYPE catalog [<!ENTITY books SYSTEM \"" + books + "\">]><catalog>&books;</catalog>";
+        try {
+            Document doc = XMLTools.makeXMLDocument(xml);
+            Assert.assertFalse(doc.getDocumentElement().getTextContent().contains("Gambardella"));
+        } catch (AutomationException expected) {
+            // Rejecting the document is also safe
+        }
+    }
+
+    @Features("Utilities")
+    @Stories("XMLTools")
+    @Title("transformXmlToStringRepeated")
+    @Test(groups = { "regression", "utils", "XMLTools" })
+    public void transformXmlToStringRepeated() {
+        Document doc = XMLTools.makeXMLDocument("<catalog><book><title>XML Developers Guide</title></book></catalog>");
+        String first = XMLTools.transformXmlToString(doc);
+        Assert.assertEquals(first, XMLTools.transformXmlToString(doc));
+        Assert.assertTrue(first.startsWith("<?xml"));
+        Assert.assertTrue(first.contains("    <book>"));
+    }
+
     @Features("Utilities")
     @Stories("XMLTools")
     @Title("getValueByXpathNode")
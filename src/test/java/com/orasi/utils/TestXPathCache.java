@@ -0,0 +1,111 @@
+package com.orasi.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import com.orasi.AutomationException;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestXPathCache {
+    @BeforeMethod
+    public void clearCache() {
+        XPathCache.clear();
+        XPathCache.resetStatistics();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreSize() {
+        XPathCache.setMaxSize(XPathCache.DEFAULT_MAX_SIZE);
+        XPathCache.clear();
+    }
+
+    @Features("Utilities")
+    @Stories("XPathCache")
+    @Title("compileCached")
+    @Test(groups = { "regression", "utils", "XMLTools" })
+    public void compileCached() throws XPathExpressionException {
+        XPathExpression expression = XPathCache.compile("/root/child");
+        Assert.assertSame(XPathCache.compile("/root/child"), expression);
+        Assert.assertEquals(XPathCache.getMisses(), 1);
+        Assert.assertEquals(XPathCache.getHits(), 1);
+        Assert.assertEquals(XPathCache.getHitRate(), 0.5, 0.001);
+        Assert.assertTrue(XPathCache.getStatistics().contains("hitRate=50.0%"), XPathCache.getStatistics());
+    }
+
+    @Features("Utilities")
+    @Stories("XPathCache")
+    @Title("leastRecentlyUsedEvicted")
+    @Test(groups = { "regression", "utils", "XMLTools" })
+    public void leastRecentlyUsedEvicted() throws XPathExpressionException {
+        XPathCache.setMaxSize(2);
+        XPathExpression first = XPathCache.compile("/a");
+        XPathExpression second = XPathCache.compile("/b");
+        XPathCache.compile("/a");
+        XPathCache.compile("/c");
+
+        Assert.assertEquals(XPathCache.size(), 2);
+        Assert.assertSame(XPathCache.compile("/a"), first);
+        Assert.assertNotSame(XPathCache.compile("/b"), second);
+    }
+
+    @Features("Utilities")
+    @Stories("XPathCache")
+    @Title("perThread")
+    @Test(groups = { "regression", "utils", "XMLTools" })
+    public void perThread() throws Exception {
+        XPathExpression expression = XPathCache.compile("/root");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Assert.assertNotSame(executor.submit(() -> XPathCache.compile("/root")).get(), expression);
+            Assert.assertNotSame(executor.submit(XPathCache::getXPath).get(), XPathCache.getXPath());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Features("Utilities")
+    @Stories("XPathCache")
+    @Title("invalidNotCached")
+    @Test(groups = { "regression", "utils", "XMLTools" })
+    public void invalidNotCached() {
+        try {
+            XPathCache.compile("/root[");
+            Assert.fail("Invalid XPath should not compile");
+        } catch (XPathExpressionException expected) {
+            Assert.assertEquals(XPathCache.size(), 0);
+        }
+    }
+
+    @Features("Utilities")
+    @Stories("XPathCache")
+    @Title("invalidMaxSize")
+    @Test(groups = { "regression", "utils", "XMLTools" }, expectedExceptions = AutomationException.class)
+    public void invalidMaxSize() {
+        XPathCache.setMaxSize(0);
+    }
+
+    @Features("Utilities")
+    @Stories("XPathCache")
+    @Title("usedByXMLTools")
+    @Test(groups = { "regression", "utils", "XMLTools" })
+    public void usedByXMLTools() {
+        Document doc = XMLTools.makeXMLDocument("<root><child>value</child></root>");
+        for (int row = 0; row < 10; row++) {
+            Assert.assertEquals(XMLTools.getValueByXpath(doc, "/root/child"), "value");
+        }
+        Assert.assertEquals(XPathCache.getMisses(), 1);
+        Assert.assertEquals(XPathCache.getHits(), 9);
+    }
+}
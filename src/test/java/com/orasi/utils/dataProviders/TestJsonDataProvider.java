@@ -0,0 +1,22 @@
+package com.orasi.utils.dataProviders;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestJsonDataProvider {
+    @Features("Utilities")
+    @Stories("JsonDataProvider")
+    @Title("getData")
+    @Test(groups = { "regression", "utils", "dataProviders" })
+    public void getData() {
+        Object[][] data = JsonDataProvider.getData("/json/sample.json");
+        Assert.assertEquals(data.length, 2);
+        Assert.assertEquals(data[0], new Object[] { "Login with Admin Role", "jphlegar", "admin", "Admin" });
+        Assert.assertEquals(data[1][0], "Login with Developer Role");
+        Assert.assertEquals(data[1][3], "Developer");
+    }
+}
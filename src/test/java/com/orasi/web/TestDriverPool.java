@@ -0,0 +1,137 @@
+package com.orasi.web;
+
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orasi.utils.Sleeper;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestDriverPool extends WebBaseTest {
+    private DriverPool pool = DriverPool.getInstance();
+
+    @BeforeMethod(groups = { "regression", "utils", "DriverPool" })
+    public void setup() {
+        pool.shutdown();
+        pool.setEnabled(true);
+        pool.setMaxIdlePerKey(DriverPool.DEFAULT_MAX_IDLE_PER_KEY);
+        pool.setMaxSessionAge(DriverPool.DEFAULT_MAX_SESSION_AGE);
+        pool.setMaxUses(DriverPool.DEFAULT_MAX_USES);
+        pool.setMaxSessionsPerKey(0);
+        pool.setPrewarmCount(0);
+        pool.resetStatistics();
+    }
+
+    @AfterClass(groups = { "regression", "utils", "DriverPool" })
+    public void cleanup() {
+        pool.shutdown();
+        pool.setEnabled(false);
+        pool.setPrewarmCount(0);
+        pool.resetStatistics();
+    }
+
+    @Features("Utilities")
+    @Stories("DriverPool")
+    @Title("claimFromEmptyPool")
+    @Test(groups = { "regression", "utils", "DriverPool" })
+    public void claimFromEmptyPool() {
+        Assert.assertNull(pool.claim(DriverPool.createKey("html", "", "linux", "local")));
+        Assert.assertEquals(pool.getMisses(), 1);
+        Assert.assertEquals(pool.getHits(), 0);
+    }
+
+    @Features("Utilities")
+    @Stories("DriverPool")
+    @Title("releasedDriverIsReused")
+    @Test(groups = { "regression", "utils", "DriverPool" })
+    public void releasedDriverIsReused() {
+        String key = DriverPool.createKey("html", "", "linux", "local");
+        OrasiDriver driver = new OrasiDriver(DesiredCapabilities.htmlUnit());
+        pool.register(key, driver);
+
+        Assert.assertTrue(pool.release(driver));
+        Assert.assertEquals(pool.getIdleCount(), 1);
+        Assert.assertSame(pool.claim(key), driver);
+        Assert.assertEquals(pool.getHits(), 1);
+        Assert.assertEquals(driver.getCurrentUrl(), "about:blank");
+    }
+
+    @Features("Utilities")
+    @Stories("DriverPool")
+    @Title("releaseUnmanagedDriver")
+    @Test(groups = { "regression", "utils", "DriverPool" })
+    public void releaseUnmanagedDriver() {
+        OrasiDriver driver = new OrasiDriver(DesiredCapabilities.htmlUnit());
+        try {
+            Assert.assertFalse(pool.release(driver));
+        } finally {
+            driver.quit();
+        }
+    }
+
+    @Features("Utilities")
+    @Stories("DriverPool")
+    @Title("sessionEvictedAfterMaxUses")
+    @Test(groups = { "regression", "utils", "DriverPool" })
+    public void sessionEvictedAfterMaxUses() {
+        pool.setMaxUses(1);
+        String key = DriverPool.createKey("html", "", "linux", "local");
+        OrasiDriver driver = new OrasiDriver(DesiredCapabilities.htmlUnit());
+        pool.register(key, driver);
+
+        Assert.assertTrue(pool.release(driver));
+        Assert.assertEquals(pool.getIdleCount(), 0);
+        Assert.assertEquals(pool.getEvictions(), 1);
+    }
+
+    @Features("Utilities")
+    @Stories("DriverPool")
+    @Title("brokenSessionEvicted")
+    @Test(groups = { "regression", "utils", "DriverPool" })
+    public void brokenSessionEvicted() {
+        String key = DriverPool.createKey("html", "", "linux", "local");
+        OrasiDriver driver = new OrasiDriver(DesiredCapabilities.htmlUnit());
+        pool.register(key, driver);
+        pool.release(driver);
+        driver.getWebDriver().quit();
+
+        Assert.assertNull(pool.claim(key));
+        Assert.assertEquals(pool.getEvictions(), 1);
+    }
+
+    @Features("Utilities")
+    @Stories("DriverPool")
+    @Title("prewarmedSessionIsClaimed")
+    @Test(groups = { "regression", "utils", "DriverPool" })
+    public void prewarmedSessionIsClaimed() {
+        pool.setPrewarmCount(1);
+        String key = DriverPool.createKey("html", "", "linux", "local");
+        pool.prewarm(key, () -> new OrasiDriver(DesiredCapabilities.htmlUnit()));
+        // A second request while the first session is starting should not start another
+        pool.prewarm(key, () -> new OrasiDriver(DesiredCapabilities.htmlUnit()));
+
+        long timeout = System.currentTimeMillis() + 30000;
+        while (pool.getIdleCount(key) == 0 && System.currentTimeMillis() < timeout) {
+            Sleeper.sleep(100);
+        }
+
+        Assert.assertNotNull(pool.claim(key));
+        Assert.assertEquals(pool.getPrewarmed(), 1);
+        Assert.assertEquals(pool.getHits(), 1);
+    }
+
+    @Features("Utilities")
+    @Stories("DriverPool")
+    @Title("prewarmDisabled")
+    @Test(groups = { "regression", "utils", "DriverPool" })
+    public void prewarmDisabled() {
+        String key = DriverPool.createKey("html", "", "linux", "local");
+        pool.prewarm(key, () -> new OrasiDriver(DesiredCapabilities.htmlUnit()));
+        Assert.assertEquals(pool.getPendingCount(), 0);
+    }
+}
@@ -7,8 +7,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.CapabilityType;
 import org.openqa.selenium.remote.DesiredCapabilities;
@@ -31,6 +33,7 @@ import com.orasi.web.by.angular.ByNG;
 import com.orasi.web.webelements.Button;
 import com.orasi.web.webelements.Checkbox;
 import com.orasi.web.webelements.Element;
+import com.orasi.web.webelements.ElementState;
 import com.orasi.web.webelements.Label;
 import com.orasi.web.webelements.Link;
 import com.orasi.web.webelements.Listbox;
@@ -203,6 +206,38 @@ public class TestOrasiDriver extends WebBaseTest {
         Assert.assertTrue(driver.getElementTimeout() == 15);
     }
 
+    @Features("Utilities")
+    @Stories("OrasiDriver")
+    @Title("elementTimeoutScope")
+    @Test(groups = { "regression", "utils", "orasidriver" }, dependsOnMethods = "setElementTimeout")
+    @SuppressWarnings("try")
+    public void elementTimeoutScope() {
+        int timeout = driver.getElementTimeout();
+        try (OrasiDriver.TimeoutScope outer = driver.elementTimeoutScope(1, TimeUnit.SECONDS)) {
+            Assert.assertTrue(driver.getElementTimeout() == 1);
+            try (OrasiDriver.TimeoutScope inner = driver.elementTimeoutScope(0, TimeUnit.SECONDS)) {
+                Assert.assertTrue(driver.getElementTimeout() == 0);
+            }
+            Assert.assertTrue(driver.getElementTimeout() == 1);
+        }
+        Assert.assertTrue(driver.getElementTimeout() == timeout);
+    }
+
+    @Features("Utilities")
+    @Stories("OrasiDriver")
+    @Title("elementTimeoutScopeRestoredOnException")
+    @Test(groups = { "regression", "utils", "orasidriver" }, dependsOnMethods = "elementTimeoutScope")
+    @SuppressWarnings("try")
+    public void elementTimeoutScopeRestoredOnException() {
+        int timeout = driver.getElementTimeout();
+        try (OrasiDriver.TimeoutScope scope = driver.elementTimeoutScope(1, TimeUnit.MILLISECONDS)) {
+            driver.findWebElement(By.id("doesNotExist"));
+            Assert.fail("Element should not have been found");
+        } catch (NoSuchElementException nsee) {
+        }
+        Assert.assertTrue(driver.getElementTimeout() == timeout);
+    }
+
     @Features("Utilities")
     @Stories("OrasiDriver")
     @Title("getScriptTimeout")
@@ -363,6 +398,22 @@ public class TestOrasiDriver extends WebBaseTest {
         Assert.assertNotNull(radioGroup);
     }
 
+    @Features("Utilities")
+    @Stories("OrasiDriver")
+    @Title("readElements")
+    @Test(groups = { "regression", "utils", "orasidriver" }, dependsOnMethods = "findRadioGroup")
+    public void readElements() {
+        List<WebElement> radioButtons = driver.findWebElements(By.cssSelector("#Content input"));
+        List<ElementState> states = driver.readElements(radioButtons, "value", "checked");
+        Assert.assertEquals(states.size(), radioButtons.size());
+        for (int index = 0; index < radioButtons.size(); index++) {
+            Assert.assertEquals(states.get(index).getTagName(), "input");
+            Assert.assertEquals(states.get(index).getAttribute("value"), radioButtons.get(index).getAttribute("value"));
+            Assert.assertEquals(states.get(index).getAttribute("checked"), radioButtons.get(index).getAttribute("checked"));
+            Assert.assertEquals(states.get(index).isDisplayed(), radioButtons.get(index).isDisplayed());
+        }
+    }
+
     @Features("Utilities")
     @Stories("OrasiDriver")
     @Title("findCheckbox")
@@ -0,0 +1,86 @@
+package com.orasi.web;
+
+import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestPageLoaded extends WebBaseTest {
+    @BeforeTest(groups = { "regression", "utils", "pageloaded", "dev" })
+    public void setup() {
+        setApplicationUnderTest("Test Site");
+        setPageURL("http://orasi.github.io/Chameleon/sites/unitTests/orasi/core/interfaces/element.html");
+        testStart("TestPageLoaded");
+    }
+
+    @AfterTest(groups = { "regression", "utils", "pageloaded", "dev" })
+    public void close(ITestContext testResults) {
+        endTest("TestPageLoaded", testResults);
+    }
+
+    @Features("Utilities")
+    @Stories("PageLoaded")
+    @Title("isDomInteractive")
+    @Test(groups = { "regression", "utils", "pageloaded" })
+    public void isDomInteractive() {
+        Assert.assertTrue(PageLoaded.isDomInteractive(getDriver(), 5));
+    }
+
+    @Features("Utilities")
+    @Stories("PageLoaded")
+    @Title("isDomComplete")
+    @Test(groups = { "regression", "utils", "pageloaded" })
+    public void isDomComplete() {
+        Assert.assertTrue(PageLoaded.isDomComplete(getDriver(), 5));
+    }
+
+    @Features("Utilities")
+    @Stories("PageLoaded")
+    @Title("isPageLoaded")
+    @Test(groups = { "regression", "utils", "pageloaded" })
+    public void isPageLoaded() {
+        Assert.assertTrue(PageLoaded.isPageLoaded(getDriver(), 5));
+        PageLoadTiming timing = getDriver().getPageLoadTiming();
+        Assert.assertNotNull(timing);
+        Assert.assertEquals(timing.getUrl(), getDriver().getCurrentUrl());
+        Assert.assertTrue(timing.getWaitTime() >= 0);
+    }
+
+    @Features("Utilities")
+    @Stories("PageLoaded")
+    @Title("readPageLoadTiming")
+    @Test(groups = { "regression", "utils", "pageloaded" }, dependsOnMethods = "isPageLoaded")
+    public void readPageLoadTiming() {
+        getDriver().executeJavaScript("window.jQuery = { active: 1 };");
+        long start = System.currentTimeMillis();
+        try {
+            PageLoadTiming timing = PageLoaded.readPageLoadTiming(getDriver());
+            Assert.assertTrue(System.currentTimeMillis() - start < 5000, "Should not wait for the page to be quiet");
+            Assert.assertSame(getDriver().getPageLoadTiming(), timing);
+            Assert.assertEquals(timing.getUrl(), getDriver().getCurrentUrl());
+            Assert.assertTrue(timing.getPageLoadTime() > 0);
+            Assert.assertEquals(timing.getWaitTime(), 0);
+        } finally {
+            getDriver().executeJavaScript("window.jQuery.active = 0;");
+        }
+    }
+
+    @Features("Utilities")
+    @Stories("PageLoaded")
+    @Title("isPageLoadedWaitsForRequests")
+    @Test(groups = { "regression", "utils", "pageloaded" }, dependsOnMethods = "isPageLoaded")
+    public void isPageLoadedWaitsForRequests() {
+        getDriver().executeJavaScript("window.jQuery = { active: 1 };");
+        try {
+            Assert.assertFalse(PageLoaded.isPageLoaded(getDriver(), 1));
+        } finally {
+            getDriver().executeJavaScript("window.jQuery.active = 0;");
+        }
+        Assert.assertTrue(PageLoaded.isPageLoaded(getDriver(), 1));
+    }
+}
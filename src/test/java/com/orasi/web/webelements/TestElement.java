@@ -97,6 +97,20 @@ public class TestElement extends WebBaseTest {
         Assert.assertTrue(element.getAttribute("type").equals("radio"));
     }
 
+    @Features("Element Interfaces")
+    @Stories("Element")
+    @Title("readState")
+    @Test(groups = { "regression", "interfaces", "element" }, dependsOnMethods = "elementWired", alwaysRun = true)
+    public void readState() {
+        Element element = getDriver().findElement(By.xpath("//input[@value='female']"));
+        ElementState state = element.readState("type");
+        Assert.assertEquals(state.getTagName(), "input");
+        Assert.assertEquals(state.getAttribute("type"), "radio");
+        Assert.assertEquals(state.getValue(), "female");
+        Assert.assertEquals(state.isDisplayed(), element.isDisplayed());
+        Assert.assertEquals(state.isEnabled(), element.isEnabled());
+    }
+
     @Features("Element Interfaces")
     @Stories("Element")
     @Title("getCoordinates")
@@ -624,6 +638,18 @@ public class TestElement extends WebBaseTest {
         Assert.assertFalse(element.syncCssPropertyMatchesValue("display", "(.*Inline-Block.*)", 2, false));
     }
 
+    @Features("Element Interfaces")
+    @Stories("Element")
+    @Title("syncCssPropertyMatchesValueJavaRegex")
+    @Test(groups = { "regression", "element" }, dependsOnMethods = "reload", alwaysRun = true)
+    public void syncCssPropertyMatchesValueJavaRegex() {
+        Element element = getDriver().findElement(By.id("buttonForText1"));
+        // (?i) is not valid in a JavaScript regular expression, so the driver is polled straight away
+        long start = System.currentTimeMillis();
+        Assert.assertTrue(element.syncCssPropertyMatchesValue("display", "(?i).*INLINE.*", 10, false));
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
     @Features("Element Interfaces")
     @Stories("Element")
     @Title("syncInFrame")
@@ -1,10 +1,12 @@
 package com.orasi.web.webelements;
 
+import java.lang.reflect.Proxy;
 import java.util.List;
 
 import org.openqa.selenium.support.FindAll;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.FindBys;
+import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.AfterTest;
@@ -61,4 +63,65 @@ public class TestElementInternalHandlers extends WebBaseTest {
         btn2.get(0).getWrappedElement();
         btn2.get(0).highlight();
     }
+
+    @Features("Element Interfaces")
+    @Stories("ElementInternalHandlers")
+    @Title("elementListSnapshot")
+    @Test(groups = { "regression", "interfaces", "button" }, dependsOnMethods = "factory")
+    public void elementListSnapshot() {
+        Textbox first = btn2.get(0);
+        Assert.assertSame(btn2.get(0), first);
+
+        int count = btn2.size();
+        getDriver().executeJavaScript("var copy = arguments[0].cloneNode(true); arguments[0].parentNode.appendChild(copy);", btn2.get(0));
+        Assert.assertEquals(btn2.size(), count, "Snapshot should be reused while its first element is on the page");
+        Assert.assertSame(btn2.get(0), first);
+
+        Assert.assertTrue(ElementFactory.refresh(btn2));
+        Assert.assertEquals(btn2.size(), count + 1, "Appended element should be found after a refresh");
+        Assert.assertNotSame(btn2.get(0), first);
+
+        getDriver().get(pageUrl);
+        btn2.get(0).set("reloaded");
+        Assert.assertEquals(btn2.get(0).getAttribute("value"), "reloaded");
+    }
+
+    @Features("Element Interfaces")
+    @Stories("ElementInternalHandlers")
+    @Title("elementAfterPageReload")
+    @Test(groups = { "regression", "interfaces", "button" }, dependsOnMethods = "factory")
+    public void elementAfterPageReload() {
+        btn3.set("before");
+        getDriver().get(pageUrl);
+        btn3.set("after");
+        Assert.assertEquals(btn3.getAttribute("value"), "after");
+    }
+
+    @Features("Element Interfaces")
+    @Stories("ElementInternalHandlers")
+    @Title("generatedBinding")
+    @Test(groups = { "regression", "interfaces", "button" }, dependsOnMethods = "factory")
+    public void generatedBinding() {
+        Assert.assertFalse(Proxy.isProxyClass(btn3.getClass()));
+        Assert.assertTrue(btn3 instanceof Textbox);
+        btn3.set("generated");
+        Assert.assertEquals(btn3.getAttribute("value"), "generated");
+    }
+
+    @Features("Element Interfaces")
+    @Stories("ElementInternalHandlers")
+    @Title("proxyBinding")
+    @Test(groups = { "regression", "interfaces", "button" }, dependsOnMethods = "factory")
+    public void proxyBinding() {
+        ElementFactory.DEFAULT_GENERATED_BINDINGS = false;
+        try {
+            ElementFactory.initElements(getDriver(), this);
+            Assert.assertTrue(Proxy.isProxyClass(btn3.getClass()));
+            btn3.set("proxy");
+            Assert.assertEquals(btn3.getAttribute("value"), "proxy");
+        } finally {
+            ElementFactory.DEFAULT_GENERATED_BINDINGS = true;
+            ElementFactory.initElements(getDriver(), this);
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.orasi.web.webelements;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.orasi.web.ExtendedExpectedConditions;
+import com.orasi.web.WebBaseTest;
+import com.orasi.web.webelements.impl.ElementSync;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestElementSync extends WebBaseTest {
+    @BeforeTest(groups = { "regression", "interfaces", "element", "dev" })
+    public void setup() {
+        setApplicationUnderTest("Test Site");
+        setPageURL("http://orasi.github.io/Chameleon/sites/unitTests/orasi/core/interfaces/element.html");
+        testStart("TestElementSync");
+    }
+
+    @AfterTest(groups = { "regression", "interfaces", "element", "dev" })
+    public void close(ITestContext testResults) {
+        endTest("TestElementSync", testResults);
+    }
+
+    @Features("Element Interfaces")
+    @Stories("ElementSync")
+    @Title("syncReusesLocatedElement")
+    @Test(groups = { "regression", "interfaces", "element" })
+    public void syncReusesLocatedElement() {
+        ElementSync sync = new ElementSync(getDriver(), By.id("text1"), null);
+        ElementSync.Result result = sync.until(ExtendedExpectedConditions::elementToBeVisible, 5);
+        Assert.assertTrue(result.isSatisfied());
+        Assert.assertEquals(result.getLookups(), 1);
+
+        result = sync.until(ExtendedExpectedConditions::elementToBeVisible, 5);
+        Assert.assertTrue(result.isSatisfied());
+        Assert.assertEquals(result.getLookups(), 0);
+        Assert.assertTrue(result.getDriverCalls() > 0);
+    }
+
+    @Features("Element Interfaces")
+    @Stories("ElementSync")
+    @Title("syncRelocatesStaleElement")
+    @Test(groups = { "regression", "interfaces", "element" }, dependsOnMethods = "syncReusesLocatedElement", alwaysRun = true)
+    public void syncRelocatesStaleElement() {
+        ElementSync sync = new ElementSync(getDriver(), By.id("text1"), getDriver().findWebElement(By.id("text1")));
+        getDriver().get(pageUrl);
+        ElementSync.Result result = sync.until(ExtendedExpectedConditions::elementToBeVisible, 5);
+        Assert.assertTrue(result.isSatisfied());
+        Assert.assertEquals(result.getLookups(), 1);
+    }
+
+    @Features("Element Interfaces")
+    @Stories("ElementSync")
+    @Title("syncMissingElementTimesOut")
+    @Test(groups = { "regression", "interfaces", "element" }, dependsOnMethods = "syncReusesLocatedElement", alwaysRun = true)
+    public void syncMissingElementTimesOut() {
+        int elementTimeout = getDriver().getElementTimeout();
+        ElementSync.Result result = new ElementSync(getDriver(), By.id("doesNotExist"), null).until(ExpectedConditions::visibilityOf, 2);
+        Assert.assertFalse(result.isSatisfied());
+        Assert.assertNull(result.getElement());
+        Assert.assertTrue(result.getElapsedMillis() >= 2000);
+        Assert.assertEquals(result.getPolls(), 0);
+        Assert.assertEquals(getDriver().getElementTimeout(), elementTimeout);
+    }
+
+    @Features("Element Interfaces")
+    @Stories("ElementSync")
+    @Title("untilInBrowser")
+    @Test(groups = { "regression", "interfaces", "element" }, dependsOnMethods = "syncReusesLocatedElement", alwaysRun = true)
+    public void untilInBrowser() {
+        ElementSync.Result result = new ElementSync(getDriver(), By.id("text1"), null)
+                .untilInBrowser("return el.id.indexOf(args[0]) > -1;", el -> ExpectedConditions.attributeContains(el, "id", "text1"), 5, "text1");
+        Assert.assertTrue(result.isSatisfied());
+        Assert.assertEquals(result.getPolls(), 1);
+    }
+
+    @Features("Element Interfaces")
+    @Stories("ElementSync")
+    @Title("untilInBrowserDisabled")
+    @Test(groups = { "regression", "interfaces", "element" }, dependsOnMethods = "syncReusesLocatedElement", alwaysRun = true)
+    public void untilInBrowserDisabled() {
+        ElementSync.Result result = new ElementSync(getDriver(), By.id("text1"), null).waitInBrowser(false)
+                .untilInBrowser("return false;", el -> ExpectedConditions.attributeContains(el, "id", "text1"), 5);
+        Assert.assertTrue(result.isSatisfied());
+    }
+}
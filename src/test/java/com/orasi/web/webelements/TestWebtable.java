@@ -18,6 +18,19 @@ import ru.yandex.qatools.allure.annotations.Title;
 public class TestWebtable extends WebBaseTest {
 
     private String xpath = "//div[6]/table";
+    private String spannedXpath = "//table[@id='snapshotTable']";
+
+    /**
+     * Adds a table with row and column spans to the end of the page, replacing it if it is already there
+     */
+    private void addSpannedTable() {
+        getDriver().executeJavaScript("var old = document.getElementById('snapshotTable'); if (old) { old.parentNode.removeChild(old); }"
+                + "var table = document.createElement('table'); table.id = 'snapshotTable';"
+                + "table.innerHTML = '<thead><tr><th colspan=\"2\">Name</th><th>Total</th></tr></thead><tbody>"
+                + "<tr><td rowspan=\"2\">A</td><td>B</td><td>C</td></tr><tr><td>D</td><td>E</td></tr>"
+                + "<tr><td colspan=\"2\">F</td><td>G</td></tr></tbody>';"
+                + "document.body.appendChild(table);");
+    }
 
     @BeforeTest(groups = { "regression", "interfaces", "webtable", "dev" })
     public void setup() {
@@ -164,4 +177,82 @@ public class TestWebtable extends WebBaseTest {
         Webtable webtable = getDriver().findWebtable(By.xpath(xpath));
         Assert.assertTrue(webtable.getRowWithCellText("Supplies and Expenses", -1, 2, false) == 7);
     }
+
+    @Features("Element Interfaces")
+    @Stories("Webtable")
+    @Title("getSnapshot")
+    @Test(groups = { "regression", "interfaces", "webtable" })
+    public void getSnapshot() {
+        Webtable webtable = getDriver().findWebtable(By.xpath(xpath));
+        WebtableSnapshot snapshot = webtable.getSnapshot();
+        Assert.assertEquals(snapshot.getRowCount(), webtable.getRowCount());
+        Assert.assertEquals(snapshot.getCellText(2, 2), webtable.getCellData(2, 2));
+        Assert.assertEquals(snapshot.getRowWithCellText("Office Supplies", -1, 1, true), webtable.getRowWithCellText("Office Supplies"));
+        Assert.assertSame(webtable.getSnapshot(), snapshot);
+    }
+
+    @Features("Element Interfaces")
+    @Stories("Webtable")
+    @Title("getSnapshotSpans")
+    @Test(groups = { "regression", "interfaces", "webtable" })
+    public void getSnapshotSpans() {
+        addSpannedTable();
+        Webtable webtable = getDriver().findWebtable(By.xpath(spannedXpath));
+        WebtableSnapshot snapshot = webtable.getSnapshot();
+
+        Assert.assertEquals(snapshot.getRowCount(), 3);
+        Assert.assertEquals(snapshot.getColumnWithHeader("Name"), 1);
+        Assert.assertEquals(snapshot.getColumnWithHeader("Total"), 3);
+        Assert.assertEquals(snapshot.getRow(2).get(0).getColumn(), 2, "Cell under a rowspan should move to the next column");
+        Assert.assertEquals(snapshot.getRow(3).get(1).getColumn(), 3, "Cell after a colspan should skip the spanned column");
+
+        // Snapshot cells are indexed by position in the row, the same as getCell
+        for (int row = 1; row <= snapshot.getRowCount(); row++) {
+            for (int index = 1; index <= snapshot.getRow(row).size(); index++) {
+                Assert.assertEquals(snapshot.getCellText(row, index), webtable.getCell(row, index).getText().trim(),
+                        "Cell [ " + row + ", " + index + " ]");
+            }
+        }
+    }
+
+    @Features("Element Interfaces")
+    @Stories("Webtable")
+    @Title("getSnapshotAfterTableChange")
+    @Test(groups = { "regression", "interfaces", "webtable" })
+    public void getSnapshotAfterTableChange() {
+        addSpannedTable();
+        Webtable webtable = getDriver().findWebtable(By.xpath(spannedXpath));
+        WebtableSnapshot before = webtable.getSnapshot();
+        Assert.assertSame(webtable.getSnapshot(), before, "Unchanged table should not be read again");
+
+        getDriver().executeJavaScript("var table = document.getElementById('snapshotTable');"
+                + "table.tBodies[0].rows[0].cells[1].textContent = 'Changed';"
+                + "table.tHead.rows[0].cells[1].textContent = 'Sum';"
+                + "var row = table.tBodies[0].insertRow(-1); row.insertCell(-1).textContent = 'X'; row.insertCell(-1).textContent = 'Y';");
+
+        Assert.assertNotSame(webtable.getSnapshot(), before, "Changed table should be read again");
+        Assert.assertEquals(webtable.getRowCount(), 4);
+        Assert.assertEquals(webtable.getCellData(1, 2), "Changed");
+        Assert.assertEquals(webtable.getRowWithCellText("Changed"), 1);
+        Assert.assertEquals(webtable.getRowWithCellText("Y"), 4);
+        Assert.assertEquals(webtable.getColumnWithCellText("Y", 4), 2);
+        Assert.assertEquals(webtable.getSnapshot().getColumnWithHeader("Sum"), 3);
+        Assert.assertEquals(webtable.getSnapshot().getColumnWithHeader("Total"), 0);
+    }
+
+    @Features("Element Interfaces")
+    @Stories("Webtable")
+    @Title("getSnapshotAfterTableReplaced")
+    @Test(groups = { "regression", "interfaces", "webtable" })
+    public void getSnapshotAfterTableReplaced() {
+        addSpannedTable();
+        Webtable webtable = getDriver().findWebtable(By.xpath(spannedXpath));
+        Assert.assertEquals(webtable.getRowWithCellText("G"), 3);
+
+        // The old table element goes stale, so the snapshot must be read from the new one
+        addSpannedTable();
+        getDriver().executeJavaScript("document.getElementById('snapshotTable').tBodies[0].rows[2].cells[1].textContent = 'Replaced';");
+        Assert.assertEquals(webtable.getRowWithCellText("Replaced"), 3);
+        Assert.assertEquals(webtable.getRowWithCellText("G"), 0);
+    }
 }
@@ -0,0 +1,119 @@
+package com.orasi.web.webelements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.orasi.web.WebBaseTest;
+import com.orasi.web.webelements.WebtableSnapshot.Cell;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.Title;
+
+public class TestWebtableSnapshot extends WebBaseTest {
+
+    private static Map<String, Object> cell(String text, int rowSpan, int colSpan, boolean header) {
+        Map<String, Object> cell = new HashMap<>();
+        cell.put("text", text);
+        cell.put("rowSpan", rowSpan);
+        cell.put("colSpan", colSpan);
+        cell.put("header", header);
+        return cell;
+    }
+
+    private static Map<String, Object> cell(String text) {
+        return cell(text, 1, 1, false);
+    }
+
+    /**
+     * Builds the value the snapshot script returns for this table, with the first row as the header:
+     *
+     * <pre>
+     * | Name (colspan 2) | Total            |
+     * | A (rowspan 2)    | B                | C |
+     * |                  | D                | E |
+     * | F (colspan 2)                       | G |
+     * | H                | I (rowspan 2)    | J |
+     * | K                |                  | L |
+     * </pre>
+     */
+    private static WebtableSnapshot spannedTable() {
+        List<Object> header = Arrays.asList(cell("Name", 1, 2, true), cell("Total", 1, 1, true));
+        List<Object> rows = new ArrayList<>();
+        rows.add(header);
+        rows.add(Arrays.asList(cell("A", 2, 1, false), cell("B"), cell("C")));
+        rows.add(Arrays.asList(cell("D"), cell("E")));
+        rows.add(Arrays.asList(cell("F", 1, 2, false), cell("G")));
+        rows.add(Arrays.asList(cell("H"), cell("I", 2, 1, false), cell("J")));
+        rows.add(Arrays.asList(cell("K"), cell("L")));
+
+        Map<String, Object> table = new HashMap<>();
+        table.put("fingerprint", 42);
+        table.put("rows", rows);
+        table.put("header", header);
+        return new WebtableSnapshot(table);
+    }
+
+    private static void assertCell(WebtableSnapshot snapshot, int row, int index, String text, int column) {
+        Cell cell = snapshot.getRow(row).get(index - 1);
+        Assert.assertEquals(cell.getText(), text);
+        Assert.assertEquals(cell.getRow(), row);
+        Assert.assertEquals(cell.getIndex(), index);
+        Assert.assertEquals(cell.getColumn(), column, "Column of cell [ " + text + " ]");
+    }
+
+    @Features("Element Interfaces")
+    @Stories("WebtableSnapshot")
+    @Title("spannedColumns")
+    @Test(groups = { "regression", "interfaces", "webtable" })
+    public void spannedColumns() {
+        WebtableSnapshot snapshot = spannedTable();
+        Assert.assertEquals(snapshot.getFingerprint(), 42);
+        Assert.assertEquals(snapshot.getRowCount(), 6);
+
+        assertCell(snapshot, 1, 1, "Name", 1);
+        assertCell(snapshot, 1, 2, "Total", 3);
+        assertCell(snapshot, 2, 1, "A", 1);
+        assertCell(snapshot, 2, 3, "C", 3);
+        assertCell(snapshot, 3, 1, "D", 2);
+        assertCell(snapshot, 3, 2, "E", 3);
+        assertCell(snapshot, 4, 1, "F", 1);
+        assertCell(snapshot, 4, 2, "G", 3);
+        assertCell(snapshot, 5, 2, "I", 2);
+        assertCell(snapshot, 6, 1, "K", 1);
+        assertCell(snapshot, 6, 2, "L", 3);
+    }
+
+    @Features("Element Interfaces")
+    @Stories("WebtableSnapshot")
+    @Title("columnWithHeader")
+    @Test(groups = { "regression", "interfaces", "webtable" })
+    public void columnWithHeader() {
+        WebtableSnapshot snapshot = spannedTable();
+        Assert.assertEquals(snapshot.getColumnWithHeader("Name"), 1);
+        Assert.assertEquals(snapshot.getColumnWithHeader("Total"), 3);
+        Assert.assertEquals(snapshot.getColumnWithHeader("Missing"), 0);
+        Assert.assertEquals(snapshot.getHeaders().size(), 2);
+    }
+
+    @Features("Element Interfaces")
+    @Stories("WebtableSnapshot")
+    @Title("cellSearches")
+    @Test(groups = { "regression", "interfaces", "webtable" })
+    public void cellSearches() {
+        WebtableSnapshot snapshot = spannedTable();
+        // Positions are within the row, as with the other Webtable methods, not the spanned column
+        Assert.assertEquals(snapshot.getRowWithCellText("E", 2, 1, true), 3);
+        Assert.assertEquals(snapshot.getRowWithCellText("E", 3, 1, true), 0);
+        Assert.assertEquals(snapshot.getRowWithCellText("e", -1, 2, false), 3);
+        Assert.assertEquals(snapshot.getRowWithCellText("G", -1, 5, true), 0);
+        Assert.assertEquals(snapshot.getColumnWithCellText("E", 3), 2);
+        Assert.assertEquals(snapshot.getColumnWithCellText("Z", 3), 0);
+    }
+}